@@ -0,0 +1,52 @@
+package com.ratelimiter.actuator;
+
+import com.ratelimiter.hotkey.HeavyHitters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/heavyhitters—this node's busiest rate limit keys with their estimated (decayed) calls and share of
+ * traffic, and whether they are over the heavy hitter threshold.
+ * <p>
+ * Keys are resolved from requests and may hold user ids or client addresses, so the endpoint is not in the
+ * default web exposure—add it to {@code management.endpoints.web.exposure.include} only behind authentication.
+ */
+@Component
+@Endpoint(id = "heavyhitters")
+public class HeavyHittersEndpoint {
+
+    private final HeavyHitters heavyHitters;
+
+    @Autowired
+    public HeavyHittersEndpoint(HeavyHitters heavyHitters) {
+        this.heavyHitters = heavyHitters;
+    }
+
+    @ReadOperation
+    public Map<String, Object> heavyHitters() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("enabled", heavyHitters.isEnabled());
+        description.put("threshold", heavyHitters.getThreshold());
+        description.put("throttle", heavyHitters.isThrottling());
+        description.put("totalCalls", heavyHitters.getTotalCalls());
+        description.put("throttledCalls", heavyHitters.getThrottledCalls());
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (HeavyHitters.HeavyHitter hitter : heavyHitters.getTopKeys()) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            key.put("key", hitter.key());
+            key.put("calls", hitter.calls());
+            key.put("share", hitter.share());
+            key.put("heavy", hitter.heavy());
+            keys.add(key);
+        }
+        description.put("keys", keys);
+        return description;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ratelimiter.actuator;
+
+import com.ratelimiter.aspect.MethodMetadataRegistry;
+import com.ratelimiter.config.LimitOverride;
+import com.ratelimiter.config.LimitOverrides;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * /actuator/ratelimiteroverrides—changes limits on every node: POST {"key", "count", "time"} (seconds) or
+ * {"key", "count", "windowMillis"} overrides a limit, DELETE ?key= restores the annotation's values.
+ * <p>
+ * Anyone reaching it can lift any limit, so it is disabled by default. Enable it with
+ * management.endpoint.ratelimiteroverrides.enabled=true and expose it only behind authentication or on a
+ * management port (management.server.port) that clients cannot reach.
+ */
+@Component
+@Endpoint(id = "ratelimiteroverrides", enableByDefault = false)
+public class RateLimitOverridesEndpoint {
+
+    private final MethodMetadataRegistry registry;
+    private final LimitOverrides limitOverrides;
+
+    @Autowired
+    public RateLimitOverridesEndpoint(MethodMetadataRegistry registry, LimitOverrides limitOverrides) {
+        this.registry = registry;
+        this.limitOverrides = limitOverrides;
+    }
+
+    /**
+     * Current overrides by limit key, as stored: "count/time" or "count/windowms".
+     */
+    @ReadOperation
+    public Map<String, String> overrides() {
+        Map<String, String> overrides = new TreeMap<>();
+        registry.getOverrides().forEach((key, override) -> overrides.put(key, override.toString()));
+        return overrides;
+    }
+
+    @WriteOperation
+    public void override(String key, int count, @Nullable Integer time, @Nullable Long windowMillis) {
+        if ((time == null) == (windowMillis == null)) {
+            throw new InvalidEndpointRequestException("Give either time (seconds) or windowMillis",
+                    "Give either time (seconds) or windowMillis");
+        }
+        try {
+            limitOverrides.put(key, time != null
+                    ? new LimitOverride(count, time)
+                    : LimitOverride.ofMillis(count, windowMillis));
+        } catch (IllegalArgumentException e) {
+            // Reported as 400 rather than 500
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public void removeOverride(String key) {
+        limitOverrides.remove(key);
+    }
+}
@@ -0,0 +1,143 @@
+package com.ratelimiter.actuator;
+
+import com.ratelimiter.adaptive.AdaptiveLimiter;
+import com.ratelimiter.annotation.Bulkhead;
+import com.ratelimiter.annotation.CircuitBreaker;
+import com.ratelimiter.annotation.RateLimit;
+import com.ratelimiter.aspect.AdaptiveLimitMetadata;
+import com.ratelimiter.aspect.BulkheadMetadata;
+import com.ratelimiter.aspect.CircuitBreakerMetadata;
+import com.ratelimiter.aspect.LimitDefinition;
+import com.ratelimiter.aspect.MethodMetadataRegistry;
+import com.ratelimiter.aspect.RateLimitMetadata;
+import com.ratelimiter.service.RedisBulkheadService;
+import com.ratelimiter.service.RedisRateLimitService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * /actuator/ratelimiters—every protected method with its limits, live window usage, breaker state, bulkhead
+ * occupancy and current adaptive limit. Usage is read from Redis on request and reported as null for per-call keys or when Redis is unavailable.
+ * Read-only: limits are changed through RateLimitOverridesEndpoint, which is disabled by default.
+ */
+@Component
+@Endpoint(id = "ratelimiters")
+public class RateLimiterEndpoint {
+
+    private final MethodMetadataRegistry registry;
+    private final RedisRateLimitService redisRateLimitService;
+    private final RedisBulkheadService redisBulkheadService;
+
+    @Autowired
+    public RateLimiterEndpoint(MethodMetadataRegistry registry, RedisRateLimitService redisRateLimitService,
+                               RedisBulkheadService redisBulkheadService) {
+        this.registry = registry;
+        this.redisRateLimitService = redisRateLimitService;
+        this.redisBulkheadService = redisBulkheadService;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> rateLimiters() {
+        Map<String, Map<String, Object>> methods = new TreeMap<>();
+        for (RateLimitMetadata metadata : registry.getRateLimits()) {
+            List<Map<String, Object>> limits = new ArrayList<>();
+            for (LimitDefinition limit : metadata.getLimits()) {
+                limits.add(describe(limit));
+            }
+            methods.computeIfAbsent(metadata.getMethodKey(), k -> new LinkedHashMap<>()).put("rateLimits", limits);
+        }
+        for (CircuitBreakerMetadata metadata : registry.getCircuitBreakers()) {
+            methods.computeIfAbsent(metadata.getMethodKey(), k -> new LinkedHashMap<>())
+                    .put("circuitBreaker", describe(metadata));
+        }
+        for (BulkheadMetadata metadata : registry.getBulkheads()) {
+            methods.computeIfAbsent(metadata.getMethodKey(), k -> new LinkedHashMap<>())
+                    .put("bulkhead", describe(metadata));
+        }
+        for (AdaptiveLimitMetadata metadata : registry.getAdaptiveLimits()) {
+            methods.computeIfAbsent(metadata.getMethodKey(), k -> new LinkedHashMap<>())
+                    .put("adaptiveLimit", describe(metadata.getLimiter()));
+        }
+        return methods;
+    }
+
+    private Map<String, Object> describe(LimitDefinition limit) {
+        RateLimit annotation = limit.getAnnotation();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("key", limit.getRule().key());
+        if (limit.hasDynamicKey()) {
+            description.put("keyExpression", annotation.keyExpression());
+        }
+        if (limit.hasDynamicCost()) {
+            description.put("cost", annotation.cost());
+        }
+        description.put("count", limit.getRule().limit());
+        description.put("windowMillis", limit.getRule().windowMillis());
+        description.put("overridden", limit.getOverride() != null);
+        description.put("algorithm", annotation.algorithm());
+        description.put("shards", annotation.shards());
+        description.put("layout", annotation.layout());
+        description.put("failurePolicy", annotation.failurePolicy());
+        description.put("used", limit.hasDynamicKey() ? null : usage(limit));
+        return description;
+    }
+
+    private Long usage(LimitDefinition limit) {
+        try {
+            return redisRateLimitService.getUsage(limit.getRule());
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, Object> describe(CircuitBreakerMetadata metadata) {
+        CircuitBreaker annotation = metadata.getAnnotation();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("state", metadata.getState().getState());
+        description.put("failureThreshold", annotation.failureThreshold());
+        description.put("slowCallThresholdMillis", annotation.slowCallThresholdMillis());
+        description.put("slowCallRateThreshold", annotation.slowCallRateThreshold());
+        description.put("windowSeconds", annotation.windowSeconds());
+        description.put("openSeconds", annotation.openSeconds());
+        return description;
+    }
+
+    private static Map<String, Object> describe(AdaptiveLimiter limiter) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("limit", limiter.getLimit());
+        description.put("inFlight", limiter.getInFlight());
+        description.put("latencyMillis", limiter.getShortRttNanos() / 1_000_000.0);
+        description.put("baselineLatencyMillis", limiter.getLongRttNanos() / 1_000_000.0);
+        return description;
+    }
+
+    private Map<String, Object> describe(BulkheadMetadata metadata) {
+        Bulkhead annotation = metadata.getAnnotation();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("mode", annotation.mode());
+        description.put("maxConcurrent", annotation.maxConcurrent());
+        description.put("maxWaitMillis", annotation.maxWaitMillis());
+        description.put("inFlight", inFlight(metadata));
+        return description;
+    }
+
+    private Long inFlight(BulkheadMetadata metadata) {
+        if (metadata.getLocal() != null) {
+            return (long) metadata.getLocal().inFlight();
+        }
+        try {
+            return redisBulkheadService.inFlight(metadata.getKey());
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+}
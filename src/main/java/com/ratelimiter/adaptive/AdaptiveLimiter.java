@@ -0,0 +1,186 @@
+package com.ratelimiter.adaptive;
+
+import com.ratelimiter.annotation.AdaptiveLimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Gradient concurrency limiter—one instance per @AdaptiveLimit method.
+ * <p>
+ * Completed calls record their latency in a LatencyHistogram. Once per window, the caller that wins a CAS on the
+ * update deadline compares the window's latency percentile (short RTT) with an exponential average of past windows
+ * (long RTT, the baseline):
+ * <pre>
+ * gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ * limit    = (1 - smoothing) * limit + smoothing * (limit * gradient + sqrt(limit))
+ * </pre>
+ * With latency at its baseline the limit probes upwards by sqrt(limit); once queueing raises latency past
+ * tolerance x baseline, the gradient falls below 1 and the limit shrinks. Windows that never used half the limit
+ * leave it unchanged, since they say nothing about the backend's capacity. A dropped call (one that timed out or
+ * failed with an overload error) multiplies the limit by backoffRatio at once, as in AIMD, since a backend that
+ * fails fast under load leaves no latency to react to. Admission is a CAS on the in-flight count, so no caller
+ * ever blocks.
+ */
+public final class AdaptiveLimiter {
+
+    /**
+     * Windows averaged into the long RTT
+     */
+    static final int LONG_RTT_WINDOWS = 600;
+    private static final int HISTOGRAM_SLICES = 4;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowMillis;
+    private final int minSamples;
+    private final double latencyPercentile;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final LongSupplier clock;
+
+    private final LatencyHistogram latencies;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong nextUpdate;
+    // Double bits of the estimated limit, whose integer part is the limit: CAS-updated by drops and by the caller
+    // that won the update CAS
+    private final AtomicLong estimatedLimit;
+    // Written only by the caller that won the update CAS
+    private volatile double longRttNanos;
+    private volatile long shortRttNanos;
+
+    public AdaptiveLimiter(AdaptiveLimit adaptiveLimit) {
+        this(adaptiveLimit.initialLimit(), adaptiveLimit.minLimit(), adaptiveLimit.maxLimit(),
+                adaptiveLimit.windowMillis(), adaptiveLimit.minSamples(), adaptiveLimit.latencyPercentile(),
+                adaptiveLimit.tolerance(), adaptiveLimit.smoothing(), adaptiveLimit.backoffRatio(),
+                System::currentTimeMillis);
+    }
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long windowMillis, int minSamples,
+                    double latencyPercentile, double tolerance, double smoothing, double backoffRatio,
+                    LongSupplier clock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowMillis = windowMillis;
+        this.minSamples = minSamples;
+        this.latencyPercentile = latencyPercentile;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.clock = clock;
+        this.latencies = new LatencyHistogram(windowMillis, HISTOGRAM_SLICES, clock);
+        this.nextUpdate = new AtomicLong(clock.getAsLong() + windowMillis);
+        this.estimatedLimit = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    /**
+     * @return true if the call may proceed; it must then end with onSuccess, onDropped or onIgnore
+     */
+    public boolean tryAcquire() {
+        int limit = getLimit();
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        if (current + 1 > peakInFlight.get()) {
+            peakInFlight.accumulateAndGet(current + 1, Math::max);
+        }
+        return true;
+    }
+
+    /**
+     * A call completed normally—its latency counts towards the limit.
+     */
+    public void onSuccess(long elapsedNanos) {
+        inFlight.decrementAndGet();
+        latencies.record(elapsedNanos);
+        long now = clock.getAsLong();
+        long due = nextUpdate.get();
+        if (now >= due && nextUpdate.compareAndSet(due, now + windowMillis)) {
+            update();
+        }
+    }
+
+    /**
+     * A call timed out or failed with an overload error—its slot is freed and the limit shrinks by backoffRatio at
+     * once. No latency is sampled: a timeout's is the timeout, and fast failures would make the backend look
+     * faster than it is.
+     */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        long bits;
+        double estimate;
+        do {
+            bits = estimatedLimit.get();
+            estimate = Math.max(minLimit, Double.longBitsToDouble(bits) * backoffRatio);
+        } while (!estimatedLimit.compareAndSet(bits, Double.doubleToLongBits(estimate)));
+    }
+
+    /**
+     * A call failed for another reason or was cancelled—its slot is freed without a latency sample or a change
+     * to the limit.
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    private void update() {
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (latencies.count() < minSamples) {
+            return;
+        }
+        long shortRtt = Math.max(1, latencies.percentile(latencyPercentile));
+        shortRttNanos = shortRtt;
+        double longRtt = longRttNanos == 0
+                ? shortRtt
+                : longRttNanos + (shortRtt - longRttNanos) / LONG_RTT_WINDOWS;
+        if (longRtt / shortRtt > 2) {
+            // Latency is back to normal after an overload: let the baseline catch up faster
+            longRtt *= 0.95;
+        }
+        longRttNanos = longRtt;
+
+        long bits = estimatedLimit.get();
+        double estimate = Double.longBitsToDouble(bits);
+        if (peak < estimate / 2) {
+            // Traffic never came close to the limit: no evidence for moving it
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = estimate * gradient + Math.sqrt(estimate);
+        estimate = Math.max(minLimit, Math.min(maxLimit, (1 - smoothing) * estimate + smoothing * target));
+        // A drop meanwhile wins: it is newer evidence than this window's latencies
+        estimatedLimit.compareAndSet(bits, Double.doubleToLongBits(estimate));
+    }
+
+    /**
+     * Concurrent calls currently allowed
+     */
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(estimatedLimit.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Latency percentile of the last window that updated the limit, in nanoseconds
+     */
+    public long getShortRttNanos() {
+        return shortRttNanos;
+    }
+
+    /**
+     * Long-term latency baseline, in nanoseconds
+     */
+    public long getLongRttNanos() {
+        return (long) longRttNanos;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ratelimiter.adaptive;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free sliding window latency histogram.
+ * Durations go into log-linear buckets—4 per power of two, so a reported percentile is within 12.5% of the
+ * recorded value—kept per time slice in a ring, like CircuitState's outcome buckets. Recording is a single
+ * atomic increment; stale slices are replaced with a CAS, and reads sum the slices still inside the window.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final int sliceCount;
+    private final long sliceMillis;
+    private final LongSupplier clock;
+    private final AtomicReferenceArray<Slice> slices;
+
+    /**
+     * @param windowMillis Span of the window
+     * @param sliceCount   Slices the window slides by
+     * @param clock        Milliseconds
+     */
+    public LatencyHistogram(long windowMillis, int sliceCount, LongSupplier clock) {
+        this.sliceCount = sliceCount;
+        this.sliceMillis = Math.max(1, windowMillis / sliceCount);
+        this.clock = clock;
+        this.slices = new AtomicReferenceArray<>(sliceCount);
+        for (int i = 0; i < sliceCount; i++) {
+            slices.set(i, new Slice(Long.MIN_VALUE));
+        }
+    }
+
+    public void record(long nanos) {
+        currentSlice(clock.getAsLong()).counts.incrementAndGet(bucket(Math.max(0, nanos)));
+    }
+
+    /**
+     * Samples recorded within the window
+     */
+    public long count() {
+        long count = 0;
+        long[] merged = merge();
+        for (long bucketCount : merged) {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    /**
+     * @param quantile 0.0 ~ 1.0
+     * @return duration in nanoseconds at that quantile of the window, 0 if it is empty
+     */
+    public long percentile(double quantile) {
+        long[] merged = merge();
+        long total = 0;
+        for (long bucketCount : merged) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < merged.length; i++) {
+            seen += merged[i];
+            if (seen >= rank) {
+                return midpoint(i);
+            }
+        }
+        return midpoint(merged.length - 1);
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return (exponent - 1) * SUB_BUCKETS + sub;
+    }
+
+    static long midpoint(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return lower + width / 2;
+    }
+
+    private long[] merge() {
+        long current = clock.getAsLong() / sliceMillis;
+        long[] merged = new long[BUCKETS];
+        for (int i = 0; i < sliceCount; i++) {
+            Slice slice = slices.get(i);
+            if (slice.epoch > current - sliceCount && slice.epoch <= current) {
+                for (int b = 0; b < BUCKETS; b++) {
+                    merged[b] += slice.counts.get(b);
+                }
+            }
+        }
+        return merged;
+    }
+
+    private Slice currentSlice(long now) {
+        long epoch = now / sliceMillis;
+        int index = (int) (epoch % sliceCount);
+        while (true) {
+            Slice slice = slices.get(index);
+            if (slice.epoch >= epoch) {
+                return slice;
+            }
+            Slice fresh = new Slice(epoch);
+            if (slices.compareAndSet(index, slice, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    /**
+     * Bucket counts of one slice of the window.
+     */
+    private static final class Slice {
+        final long epoch;
+        final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        Slice(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ratelimiter.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Adaptive concurrency limit annotation—the number of calls allowed in flight is tuned from the method's observed
+ * latency instead of being configured. Gradient algorithm (as in Netflix concurrency-limits' Gradient2): while
+ * latency stays near its long-term baseline the limit grows by about sqrt(limit) per window; when it rises past
+ * tolerance x baseline the limit shrinks in proportion. Calls failing with a dropOn exception shrink it by
+ * backoffRatio at once. Calls over the limit get the fallback or a 429.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdaptiveLimit {
+
+    /**
+     * Concurrent calls allowed before any latency has been observed
+     */
+    int initialLimit() default 20;
+
+    /**
+     * Lower bound of the limit
+     */
+    int minLimit() default 1;
+
+    /**
+     * Upper bound of the limit
+     */
+    int maxLimit() default 1000;
+
+    /**
+     * Latency window in milliseconds—the limit is recomputed once per window
+     */
+    long windowMillis() default 1000;
+
+    /**
+     * Calls that must complete within a window before it changes the limit
+     */
+    int minSamples() default 10;
+
+    /**
+     * Latency percentile of the window compared against the baseline (0.0 ~ 1.0)
+     */
+    double latencyPercentile() default 0.5;
+
+    /**
+     * How far latency may exceed its baseline (as a factor) before the limit shrinks
+     */
+    double tolerance() default 1.5;
+
+    /**
+     * Weight of each new estimate in the limit (0.0 ~ 1.0); lower is steadier but slower to react
+     */
+    double smoothing() default 0.2;
+
+    /**
+     * Exceptions that mean the backend is overloaded, matched against the thrown exception and its causes. Each
+     * such failure multiplies the limit by backoffRatio. Other failures free their slot without changing it.
+     */
+    Class<? extends Throwable>[] dropOn() default {TimeoutException.class, SocketTimeoutException.class};
+
+    /**
+     * Factor applied to the limit on each dropOn failure (0.0 ~ 1.0), as in AIMD
+     */
+    double backoffRatio() default 0.9;
+
+    /**
+     * Fallback method name when the limit is reached—must be a public method in the same class. Empty means throw exception.
+     */
+    String fallbackMethod() default "";
+}
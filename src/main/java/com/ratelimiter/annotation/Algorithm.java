@@ -0,0 +1,27 @@
+package com.ratelimiter.annotation;
+
+/**
+ * Rate limiting algorithm—each is a single-key Lua script evaluated atomically in Redis.
+ */
+public enum Algorithm {
+
+    /**
+     * Fixed window counter (limit.lua)—cheapest, but allows up to 2x limit across a window boundary
+     */
+    FIXED_WINDOW,
+
+    /**
+     * Sliding window counter (sliding_window.lua)—previous window weighted by its overlap
+     */
+    SLIDING_WINDOW_COUNTER,
+
+    /**
+     * Token bucket (token_bucket.lua)—bursts up to limit, refilled at limit per window
+     */
+    TOKEN_BUCKET,
+
+    /**
+     * Generic cell rate algorithm (gcra.lua)—smooth pacing, one value per key
+     */
+    GCRA
+}
@@ -0,0 +1,46 @@
+package com.ratelimiter.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bulkhead annotation—caps the calls of a method that may be in flight at the same time, whatever their rate.
+ * A call over the cap waits up to maxWaitMillis for a permit, then gets the fallback or BulkheadFullException.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /**
+     * Redis key prefix of the lease set (DISTRIBUTED only); the key is prefix + className.methodName
+     */
+    String key() default "bulkhead:";
+
+    /**
+     * Maximum number of concurrent calls—per JVM for LOCAL, in total for DISTRIBUTED
+     */
+    int maxConcurrent() default 25;
+
+    /**
+     * Where in-flight calls are counted
+     */
+    BulkheadMode mode() default BulkheadMode.LOCAL;
+
+    /**
+     * How long a call may wait for a permit in milliseconds, 0 = reject immediately when full
+     */
+    long maxWaitMillis() default 0;
+
+    /**
+     * Lifetime of a DISTRIBUTED permit in milliseconds—a permit its node never releases (crash, lost connection)
+     * is reclaimed after this long. Must exceed the method's longest expected run time.
+     */
+    long leaseMillis() default 60_000;
+
+    /**
+     * Fallback method name when the bulkhead is full—must be a public method in the same class. Empty means throw exception.
+     */
+    String fallbackMethod() default "";
+}
@@ -0,0 +1,17 @@
+package com.ratelimiter.annotation;
+
+/**
+ * Where a bulkhead counts its in-flight calls.
+ */
+public enum BulkheadMode {
+
+    /**
+     * Per JVM—a non-blocking semaphore, no Redis call
+     */
+    LOCAL,
+
+    /**
+     * Across all nodes—leases in a Redis sorted set, each expiring on its own if its node dies
+     */
+    DISTRIBUTED
+}
@@ -7,7 +7,8 @@ import java.lang.annotation.Target;
 
 /**
  * Circuit breaker annotation—apply to methods that require circuit breaker protection.
- * Opens circuit for openSeconds when error rate exceeds failureThreshold within windowSeconds.
+ * Opens circuit for openSeconds when error rate exceeds failureThreshold (or slow call rate exceeds
+ * slowCallRateThreshold) within windowSeconds; then lets permittedHalfOpenCalls probes through.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -32,4 +33,19 @@ public @interface CircuitBreaker {
      * Minimum number of requests before circuit can open
      */
     int minRequests() default 5;
+
+    /**
+     * Calls taking at least this many milliseconds count as slow, 0 = slow calls are not tracked
+     */
+    long slowCallThresholdMillis() default 0;
+
+    /**
+     * Slow call rate threshold (0.0 ~ 1.0); circuit opens when exceeded
+     */
+    double slowCallRateThreshold() default 0.5;
+
+    /**
+     * Concurrent probe calls let through while Half-Open; this many successes close the circuit
+     */
+    int permittedHalfOpenCalls() default 3;
 }
@@ -0,0 +1,22 @@
+package com.ratelimiter.annotation;
+
+/**
+ * What a rate limit does when Redis is unavailable or misses the limit's latency budget.
+ */
+public enum FailurePolicy {
+
+    /**
+     * Admit the call—availability over enforcement
+     */
+    FAIL_OPEN,
+
+    /**
+     * Reject the call as rate limited—enforcement over availability
+     */
+    FAIL_CLOSED,
+
+    /**
+     * Enforce the limit divided by the estimated node count in this JVM only
+     */
+    LOCAL_APPROXIMATE
+}
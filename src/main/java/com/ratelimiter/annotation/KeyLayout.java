@@ -0,0 +1,19 @@
+package com.ratelimiter.annotation;
+
+/**
+ * How a per-caller limit's counters are laid out in Redis.
+ */
+public enum KeyLayout {
+
+    /**
+     * One string per key, "rate:limit:" + class and method name + ":" + keyExpression value—readable, but every
+     * counter repeats the full prefix and pays the per-key overhead
+     */
+    STANDARD,
+
+    /**
+     * Counters as fields of a fixed number of hashes (compact_limit.lua): hash "rl:" + hashed method identity +
+     * ":" + bucket, field = keyExpression value, expiring per field with HPEXPIRE. Needs Redis 7.4+.
+     */
+    COMPACT
+}
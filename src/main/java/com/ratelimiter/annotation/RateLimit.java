@@ -1,21 +1,45 @@
 package com.ratelimiter.annotation;
 
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Rate limiting annotation—apply to methods that require rate limiting.
+ * Repeatable: stacked limits (e.g. per-endpoint + global) are enforced together, see {@link RateLimits}.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
+@Repeatable(RateLimits.class)
 public @interface RateLimit {
 
     /**
-     * Rate limit key prefix, used to distinguish different endpoints
+     * Key prefix of limits that do not set key
      */
-    String key() default "rate:limit:";
+    String DEFAULT_KEY = "rate:limit:";
+
+    /**
+     * Rate limit key prefix, used to distinguish different endpoints. In repeated @RateLimit, a key other than
+     * DEFAULT_KEY names a limit shared by every method that repeats it, see {@link RateLimits}.
+     */
+    String key() default DEFAULT_KEY;
+
+    /**
+     * SpEL expression appended to the key for per-caller limits, e.g. "#userId" or "header('X-Api-Key')".
+     * Arguments are available by name and as #p0/#a0; the root exposes request, principal and header(name).
+     * Empty means one bucket shared by every caller.
+     */
+    String keyExpression() default "";
+
+    /**
+     * SpEL expression for the permits one call takes, e.g. "#file.size" to count bytes rather than calls—same
+     * variables as keyExpression. Values below 1 take one permit; a call costing more than count is always
+     * rejected. Empty means one permit per call. Not supported with shards, leasing or coalescing.
+     */
+    String cost() default "";
 
     /**
      * Maximum number of requests allowed within the time window
@@ -23,12 +47,84 @@ public @interface RateLimit {
     int count() default 10;
 
     /**
-     * Time window in seconds
+     * Time window in seconds—ignored when window is set
      */
     int time() default 60;
 
+    /**
+     * Time window in timeUnit, for windows that whole seconds cannot express, e.g. window = 100 with
+     * MILLISECONDS. 0 means use time; the window must come to at least one millisecond.
+     */
+    long window() default 0;
+
+    /**
+     * Unit of window
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * Limiting algorithm evaluated in Redis
+     */
+    Algorithm algorithm() default Algorithm.FIXED_WINDOW;
+
     /**
      * Fallback method name when rate limit is triggered—must be a public method in the same class. Empty means throw exception.
      */
     String fallbackMethod() default "";
+
+    /**
+     * Permits reserved from Redis per round trip and served from a local lease—0 disables leasing.
+     * Leased permits are counted in Redis immediately; unused ones are left to expire with the window.
+     * FIXED_WINDOW only, and not combinable with keyExpression (one lease per caller).
+     */
+    int leaseSize() default 0;
+
+    /**
+     * Maximum age of a local lease in milliseconds; leftover permits are discarded once exceeded, or earlier
+     * when the Redis window the lease was taken from resets
+     */
+    long leaseMaxStalenessMillis() default 1000;
+
+    /**
+     * Coalescing window in microseconds—concurrent calls for the same key within it share one Redis call.
+     * 0 disables coalescing; ignored when leasing is enabled. FIXED_WINDOW only.
+     */
+    long coalesceMicros() default 0;
+
+    /**
+     * Number of waiting calls that sends a coalesced batch before its window ends
+     */
+    int coalesceMaxBatch() default 64;
+
+    /**
+     * Behaviour when Redis is unavailable, slow or considered unhealthy
+     */
+    FailurePolicy failurePolicy() default FailurePolicy.LOCAL_APPROXIMATE;
+
+    /**
+     * Latency budget for the Redis call in milliseconds, after which failurePolicy applies.
+     * -1 uses rate-limiter.redis-timeout-millis; 0 waits for the Redis client timeout.
+     */
+    long redisTimeoutMillis() default -1;
+
+    /**
+     * Sub-keys the counter is split into, each on its own Redis Cluster slot and enforcing limit / shards.
+     * A call goes to a random shard and borrows from the neighbouring ones when it is exhausted, evaluating at
+     * most two shards in Redis (shards known to be exhausted are skipped locally) before it is denied.
+     * 1 disables sharding; not combinable with repeated limits, cost, leasing or coalescing.
+     */
+    int shards() default 1;
+
+    /**
+     * Redis layout of the counters. COMPACT stores each keyExpression value as a field of one of compactBuckets
+     * hashes instead of a key of its own—for millions of callers. FIXED_WINDOW with a keyExpression only; not
+     * combinable with repeated limits, shards, leasing or coalescing.
+     */
+    KeyLayout layout() default KeyLayout.STANDARD;
+
+    /**
+     * Hashes a COMPACT limit's counters are spread over. Hashes stay in Redis' compact listpack encoding while
+     * they hold at most hash-max-listpack-entries (default 128) fields, so aim for callers per window / 100.
+     */
+    int compactBuckets() default 65_536;
 }
@@ -0,0 +1,23 @@
+package com.ratelimiter.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Container for repeated @RateLimit—all limits are checked and committed in one Redis call.
+ * Either every limit is incremented or none is. When a limit rejects the call, its own fallbackMethod is used.
+ * <p>
+ * A limit with its own key (not RateLimit.DEFAULT_KEY) is shared: every method repeating that key counts
+ * against the one Redis key {key}, e.g. a global limit over several endpoints. The method's other limits are
+ * per method and carry the shared key as their hash tag, so all keys of a call stay in one Redis Cluster slot;
+ * hence at most one shared limit per method. Combined limits are evaluated as fixed windows: other algorithms,
+ * leasing and coalescing fail at startup.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimits {
+
+    RateLimit[] value();
+}
@@ -0,0 +1,171 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.adaptive.AdaptiveLimiter;
+import com.ratelimiter.exception.RateLimitException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Adaptive limit AOP aspect—admits calls to @AdaptiveLimit methods while fewer than the method's current limit
+ * are in flight, and feeds each successful call's latency (System.nanoTime() around the method) back into its
+ * AdaptiveLimiter. Calls failing with a dropOn exception (timeouts by default) shrink the limit; other failed and
+ * cancelled calls free their slot without a sample.
+ * <p>
+ * Mono and Flux methods are admitted per subscription and timed until the publisher completes; CompletableFuture
+ * methods until the future completes.
+ */
+@Aspect
+@Component
+@Order(4)  // Innermost: measures the method itself, not time spent in the other aspects
+public class AdaptiveLimitAspect {
+
+    private final MethodMetadataRegistry registry;
+
+    @Autowired
+    public AdaptiveLimitAspect(MethodMetadataRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("@annotation(com.ratelimiter.annotation.AdaptiveLimit)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        AdaptiveLimitMetadata metadata = registry.adaptiveLimit(joinPoint);
+        AdaptiveLimiter limiter = metadata.getLimiter();
+        ReturnKind kind = metadata.getReturnKind();
+
+        switch (kind) {
+            case MONO:
+                return Mono.defer(() -> Mono.from(admit(joinPoint, metadata)));
+            case FLUX:
+                return Flux.defer(() -> Flux.from(admit(joinPoint, metadata)));
+            case COMPLETION_STAGE: {
+                if (!limiter.tryAcquire()) {
+                    return rejectAsync(joinPoint, metadata);
+                }
+                metadata.getMeters().allowed();
+                Call call = new Call(metadata);
+                CompletionStage<?> stage = (CompletionStage<?>) kind.proceed(joinPoint);
+                stage.whenComplete((result, error) -> {
+                    if (error == null) {
+                        call.success();
+                    } else {
+                        call.failure(error);
+                    }
+                });
+                return stage;
+            }
+            default:
+                break;
+        }
+
+        if (!limiter.tryAcquire()) {
+            return reject(joinPoint, metadata);
+        }
+        metadata.getMeters().allowed();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            limiter.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (Throwable t) {
+            failed(metadata, t);
+            throw t;
+        }
+    }
+
+    /**
+     * One subscription to a Mono or Flux method—timed until the publisher completes.
+     */
+    private Publisher<?> admit(ProceedingJoinPoint joinPoint, AdaptiveLimitMetadata metadata) {
+        AdaptiveLimiter limiter = metadata.getLimiter();
+        if (!limiter.tryAcquire()) {
+            return (Publisher<?>) rejectAsync(joinPoint, metadata);
+        }
+        metadata.getMeters().allowed();
+        Call call = new Call(metadata);
+        Publisher<?> result = (Publisher<?>) metadata.getReturnKind().proceed(joinPoint);
+        if (metadata.getReturnKind() == ReturnKind.MONO) {
+            return Mono.from(result)
+                    .doOnSuccess(value -> call.success())
+                    .doOnError(call::failure)
+                    .doOnCancel(call::ignore);
+        }
+        return Flux.from(result)
+                .doOnComplete(call::success)
+                .doOnError(call::failure)
+                .doOnCancel(call::ignore);
+    }
+
+    /**
+     * Fallback result, or a failed result of the method's asynchronous return kind.
+     */
+    private Object rejectAsync(ProceedingJoinPoint joinPoint, AdaptiveLimitMetadata metadata) {
+        try {
+            return reject(joinPoint, metadata);
+        } catch (Throwable t) {
+            return metadata.getReturnKind().failed(t);
+        }
+    }
+
+    private Object reject(ProceedingJoinPoint joinPoint, AdaptiveLimitMetadata metadata) throws Throwable {
+        metadata.getMeters().denied();
+        FallbackInvoker fallback = metadata.getFallback();
+        if (fallback != null) {
+            metadata.getMeters().fallback();
+            return fallback.invoke(joinPoint);
+        }
+        throw new RateLimitException("Too many requests, please try again later");
+    }
+
+    /**
+     * End a failed call: a dropOn failure shrinks the limit, any other just frees the slot.
+     */
+    private static void failed(AdaptiveLimitMetadata metadata, Throwable error) {
+        if (metadata.isDrop(error)) {
+            metadata.getLimiter().onDropped();
+        } else {
+            metadata.getLimiter().onIgnore();
+        }
+    }
+
+    /**
+     * One admitted asynchronous call—ends exactly once, however many signals arrive.
+     */
+    private static final class Call {
+
+        private final AdaptiveLimitMetadata metadata;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Call(AdaptiveLimitMetadata metadata) {
+            this.metadata = metadata;
+        }
+
+        void success() {
+            if (done.compareAndSet(false, true)) {
+                metadata.getLimiter().onSuccess(System.nanoTime() - start);
+            }
+        }
+
+        void failure(Throwable error) {
+            if (done.compareAndSet(false, true)) {
+                failed(metadata, error);
+            }
+        }
+
+        void ignore() {
+            if (done.compareAndSet(false, true)) {
+                metadata.getLimiter().onIgnore();
+            }
+        }
+    }
+}
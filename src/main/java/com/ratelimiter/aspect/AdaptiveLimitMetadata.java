@@ -0,0 +1,77 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.adaptive.AdaptiveLimiter;
+import com.ratelimiter.annotation.AdaptiveLimit;
+import com.ratelimiter.metrics.LimitMeters;
+
+/**
+ * Startup-resolved @AdaptiveLimit metadata of one method—owns the method's AdaptiveLimiter.
+ */
+public final class AdaptiveLimitMetadata {
+
+    // Causes followed when matching dropOn; bounds cyclic cause chains
+    private static final int MAX_CAUSE_DEPTH = 16;
+
+    private final String methodKey;
+    private final AdaptiveLimit annotation;
+    private final AdaptiveLimiter limiter;
+    private final FallbackInvoker fallback;
+    private final LimitMeters meters;
+    private final ReturnKind returnKind;
+
+    AdaptiveLimitMetadata(String methodKey, AdaptiveLimit annotation, FallbackInvoker fallback, LimitMeters meters,
+                          ReturnKind returnKind) {
+        this.methodKey = methodKey;
+        this.annotation = annotation;
+        this.limiter = new AdaptiveLimiter(annotation);
+        this.fallback = fallback;
+        this.meters = meters;
+        this.returnKind = returnKind;
+    }
+
+    /**
+     * className.methodName
+     */
+    public String getMethodKey() {
+        return methodKey;
+    }
+
+    public AdaptiveLimit getAnnotation() {
+        return annotation;
+    }
+
+    public AdaptiveLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Pre-resolved fallback, or null to throw RateLimitException
+     */
+    public FallbackInvoker getFallback() {
+        return fallback;
+    }
+
+    public LimitMeters getMeters() {
+        return meters;
+    }
+
+    /**
+     * @return true if the failure, or one of its causes, is a dropOn exception
+     */
+    boolean isDrop(Throwable error) {
+        Throwable cause = error;
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            for (Class<? extends Throwable> type : annotation.dropOn()) {
+                if (type.isInstance(cause)) {
+                    return true;
+                }
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    ReturnKind getReturnKind() {
+        return returnKind;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.annotation.Bulkhead;
+import com.ratelimiter.bulkhead.BulkheadPermit;
+import com.ratelimiter.bulkhead.LocalBulkhead;
+import com.ratelimiter.exception.BulkheadFullException;
+import com.ratelimiter.service.RedisBulkheadService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead AOP aspect—caps the concurrent calls of methods annotated with @Bulkhead.
+ * A permit is taken before the method runs and released when it returns or throws; LOCAL permits come from
+ * the method's semaphore, DISTRIBUTED ones are leases from RedisBulkheadService.
+ * <p>
+ * Mono and Flux methods take a permit per subscription and release it when the publisher terminates or is
+ * cancelled; CompletableFuture methods when the future completes. Their bounded wait polls on a timer instead
+ * of parking a thread.
+ */
+@Aspect
+@Component
+@Order(3)  // Execute after CircuitBreakerAspect and RateLimitAspect; rejected calls never hold a permit
+public class BulkheadAspect {
+
+    private final RedisBulkheadService redisBulkheadService;
+    private final MethodMetadataRegistry registry;
+
+    @Autowired
+    public BulkheadAspect(RedisBulkheadService redisBulkheadService, MethodMetadataRegistry registry) {
+        this.redisBulkheadService = redisBulkheadService;
+        this.registry = registry;
+    }
+
+    @Around("@annotation(com.ratelimiter.annotation.Bulkhead)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        BulkheadMetadata metadata = registry.bulkhead(joinPoint);
+        ReturnKind kind = metadata.getReturnKind();
+
+        switch (kind) {
+            case MONO:
+                return acquireReactive(metadata).flatMap(permit ->
+                        Mono.from((Publisher<?>) proceedOrReject(joinPoint, metadata, permit)));
+            case FLUX:
+                return acquireReactive(metadata).flatMapMany(permit ->
+                        (Publisher<?>) proceedOrReject(joinPoint, metadata, permit));
+            case COMPLETION_STAGE:
+                return acquireReactive(metadata).toFuture().thenCompose(permit ->
+                        (CompletionStage<?>) proceedOrReject(joinPoint, metadata, permit));
+            default:
+                break;
+        }
+
+        BulkheadPermit permit = acquire(metadata);
+        if (!permit.isGranted()) {
+            return reject(joinPoint, metadata);
+        }
+        metadata.getMeters().allowed();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            permit.release();
+        }
+    }
+
+    /**
+     * Take a permit, parking the calling thread for up to maxWaitMillis.
+     */
+    private BulkheadPermit acquire(BulkheadMetadata metadata) {
+        Bulkhead bulkhead = metadata.getAnnotation();
+        try {
+            LocalBulkhead local = metadata.getLocal();
+            return local != null
+                    ? local.tryAcquire(bulkhead.maxWaitMillis())
+                    : redisBulkheadService.acquire(metadata.getKey(), bulkhead.maxConcurrent(),
+                            bulkhead.leaseMillis(), bulkhead.maxWaitMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BulkheadPermit.REJECTED;
+        }
+    }
+
+    /**
+     * Take a permit without blocking, retrying with backoff for up to maxWaitMillis.
+     */
+    private Mono<BulkheadPermit> acquireReactive(BulkheadMetadata metadata) {
+        Bulkhead bulkhead = metadata.getAnnotation();
+        LocalBulkhead local = metadata.getLocal();
+        Mono<BulkheadPermit> attempt = local != null
+                ? Mono.fromSupplier(local::tryAcquire)
+                : redisBulkheadService.tryAcquireReactive(metadata.getKey(), bulkhead.maxConcurrent(),
+                        bulkhead.leaseMillis());
+        if (bulkhead.maxWaitMillis() <= 0) {
+            return attempt;
+        }
+        return Mono.defer(() -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(bulkhead.maxWaitMillis());
+            return attempt.filter(BulkheadPermit::isGranted)
+                    .repeatWhenEmpty(attempts -> attempts
+                            .takeWhile(n -> System.nanoTime() < deadline)
+                            .concatMap(n -> Mono.delay(Duration.ofMillis(RedisBulkheadService.pollDelayMillis(
+                                    n.intValue(), TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()))))))
+                    .defaultIfEmpty(BulkheadPermit.REJECTED);
+        });
+    }
+
+    /**
+     * Invoke the method holding the permit until its result terminates, or its fallback, or fail—as a result
+     * of the method's asynchronous return kind.
+     */
+    private Object proceedOrReject(ProceedingJoinPoint joinPoint, BulkheadMetadata metadata, BulkheadPermit permit) {
+        ReturnKind kind = metadata.getReturnKind();
+        if (!permit.isGranted()) {
+            try {
+                return reject(joinPoint, metadata);
+            } catch (Throwable t) {
+                return kind.failed(t);
+            }
+        }
+        metadata.getMeters().allowed();
+        Object result = kind.proceed(joinPoint);
+        switch (kind) {
+            case MONO:
+                return Mono.from((Publisher<?>) result).doFinally(signal -> permit.release());
+            case FLUX:
+                return Flux.from((Publisher<?>) result).doFinally(signal -> permit.release());
+            default:
+                ((CompletionStage<?>) result).whenComplete((value, error) -> permit.release());
+                return result;
+        }
+    }
+
+    private Object reject(ProceedingJoinPoint joinPoint, BulkheadMetadata metadata) throws Throwable {
+        metadata.getMeters().denied();
+        FallbackInvoker fallback = metadata.getFallback();
+        if (fallback != null) {
+            metadata.getMeters().fallback();
+            return fallback.invoke(joinPoint);
+        }
+        throw new BulkheadFullException("Too many concurrent requests, please try again later");
+    }
+}
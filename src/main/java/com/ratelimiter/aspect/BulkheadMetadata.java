@@ -0,0 +1,72 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.annotation.Bulkhead;
+import com.ratelimiter.annotation.BulkheadMode;
+import com.ratelimiter.bulkhead.LocalBulkhead;
+import com.ratelimiter.metrics.LimitMeters;
+
+/**
+ * Startup-resolved @Bulkhead metadata of one method—owns the LOCAL semaphore, or the Redis key of the
+ * DISTRIBUTED lease set.
+ */
+public final class BulkheadMetadata {
+
+    private final String methodKey;
+    private final Bulkhead annotation;
+    private final String key;
+    private final LocalBulkhead local;
+    private final FallbackInvoker fallback;
+    private final LimitMeters meters;
+    private final ReturnKind returnKind;
+
+    BulkheadMetadata(String methodKey, Bulkhead annotation, FallbackInvoker fallback, LimitMeters meters,
+                     ReturnKind returnKind) {
+        this.methodKey = methodKey;
+        this.annotation = annotation;
+        this.key = annotation.key() + methodKey;
+        this.local = annotation.mode() == BulkheadMode.LOCAL ? new LocalBulkhead(annotation.maxConcurrent()) : null;
+        this.fallback = fallback;
+        this.meters = meters;
+        this.returnKind = returnKind;
+    }
+
+    /**
+     * className.methodName
+     */
+    public String getMethodKey() {
+        return methodKey;
+    }
+
+    public Bulkhead getAnnotation() {
+        return annotation;
+    }
+
+    /**
+     * Redis key of the lease set
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * The semaphore of a LOCAL bulkhead, null if DISTRIBUTED
+     */
+    public LocalBulkhead getLocal() {
+        return local;
+    }
+
+    /**
+     * Pre-resolved fallback, or null to throw BulkheadFullException
+     */
+    public FallbackInvoker getFallback() {
+        return fallback;
+    }
+
+    public LimitMeters getMeters() {
+        return meters;
+    }
+
+    ReturnKind getReturnKind() {
+        return returnKind;
+    }
+}
@@ -1,133 +1,138 @@
 package com.ratelimiter.aspect;
 
-import com.ratelimiter.annotation.CircuitBreaker;
+import com.ratelimiter.breaker.CircuitState;
 import com.ratelimiter.exception.CircuitBreakerException;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Circuit breaker AOP aspect—uses Closed / Open / Half-Open state machine.
- * Transitions to Open when error rate exceeds 50% within 1 minute; remains open for 30 seconds.
+ * Transitions to Open when error rate (or slow call rate) exceeds its threshold within the window;
+ * remains open for openSeconds, then admits permittedHalfOpenCalls probes.
+ * Each method's CircuitState is resolved once by MethodMetadataRegistry.
+ * <p>
+ * Mono and Flux methods take a permit per subscription and record the outcome when the publisher terminates;
+ * a cancelled subscription returns its permit. CompletableFuture methods record it when the future completes.
  */
 @Aspect
 @Component
 @Order(1)  // Execute before RateLimitAspect; reject immediately when circuit is open
 public class CircuitBreakerAspect {
 
-    private final ConcurrentHashMap<String, CircuitState> stateMap = new ConcurrentHashMap<>();
+    private final MethodMetadataRegistry registry;
 
-    @Around("@annotation(circuitBreaker)")
-    public Object around(ProceedingJoinPoint joinPoint, CircuitBreaker circuitBreaker) throws Throwable {
-        String key = getMethodKey(joinPoint);
-        double failureThreshold = circuitBreaker.failureThreshold();
-        int windowSeconds = circuitBreaker.windowSeconds();
-        int openSeconds = circuitBreaker.openSeconds();
-        int minRequests = circuitBreaker.minRequests();
-
-        CircuitState state = stateMap.computeIfAbsent(key, k -> new CircuitState());
+    @Autowired
+    public CircuitBreakerAspect(MethodMetadataRegistry registry) {
+        this.registry = registry;
+    }
 
-        // Check if transitioning from Open to Half-Open (past open duration)
-        state.tryTransitionFromOpen(openSeconds);
+    @Around("@annotation(com.ratelimiter.annotation.CircuitBreaker)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        CircuitBreakerMetadata metadata = registry.circuitBreaker(joinPoint);
+        CircuitState state = metadata.getState();
+        ReturnKind kind = metadata.getReturnKind();
+
+        switch (kind) {
+            case MONO:
+                return Mono.defer(() -> {
+                    if (!state.tryAcquirePermission()) {
+                        return Mono.error(open());
+                    }
+                    Call call = new Call(state);
+                    return Mono.from((Publisher<?>) kind.proceed(joinPoint))
+                            .doOnSuccess(result -> call.success())
+                            .doOnError(error -> call.failure())
+                            .doOnCancel(call::cancel);
+                });
+            case FLUX:
+                return Flux.defer(() -> {
+                    if (!state.tryAcquirePermission()) {
+                        return Flux.error(open());
+                    }
+                    Call call = new Call(state);
+                    return Flux.from((Publisher<?>) kind.proceed(joinPoint))
+                            .doOnComplete(call::success)
+                            .doOnError(error -> call.failure())
+                            .doOnCancel(call::cancel);
+                });
+            case COMPLETION_STAGE: {
+                if (!state.tryAcquirePermission()) {
+                    return kind.failed(open());
+                }
+                Call call = new Call(state);
+                CompletionStage<?> stage = (CompletionStage<?>) kind.proceed(joinPoint);
+                stage.whenComplete((result, error) -> {
+                    if (error == null) {
+                        call.success();
+                    } else {
+                        call.failure();
+                    }
+                });
+                return stage;
+            }
+            default:
+                break;
+        }
 
-        // Open state: reject immediately
-        if (state.isOpen()) {
-            throw new CircuitBreakerException("Service temporarily unavailable, please try again later");
+        // Open (or Half-Open with every probe permit taken): reject immediately
+        if (!state.tryAcquirePermission()) {
+            throw open();
         }
 
+        long start = System.nanoTime();
         try {
             Object result = joinPoint.proceed();
-            state.recordSuccess(failureThreshold, windowSeconds, minRequests);
+            state.recordSuccess(System.nanoTime() - start);
             return result;
         } catch (Throwable t) {
-            state.recordFailure(failureThreshold, windowSeconds, minRequests, openSeconds);
+            state.recordFailure(System.nanoTime() - start);
             throw t;
         }
     }
 
-    private String getMethodKey(ProceedingJoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        return signature.getDeclaringTypeName() + "." + signature.getName();
+    private static CircuitBreakerException open() {
+        return new CircuitBreakerException("Service temporarily unavailable, please try again later");
     }
 
     /**
-     * Circuit breaker states: Closed / Open / Half-Open
+     * One admitted asynchronous call—records exactly one outcome, however many signals arrive.
      */
-    private static class CircuitState {
-        private volatile State state = State.CLOSED;
-        private int failureCount;
-        private int totalCount;
-        private long windowStartTime;
-        private long openTime;
-        private int halfOpenSuccessCount;
-
-        private static final int HALF_OPEN_SUCCESS_THRESHOLD = 3;
-
-        enum State {
-            CLOSED,   // Normal
-            OPEN,     // Tripped
-            HALF_OPEN // Probing
-        }
+    private static final class Call {
 
-        synchronized boolean isOpen() {
-            return state == State.OPEN;
-        }
+        private final CircuitState state;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
 
-        synchronized void tryTransitionFromOpen(int openSeconds) {
-            if (state == State.OPEN && System.currentTimeMillis() - openTime >= openSeconds * 1000L) {
-                state = State.HALF_OPEN;
-                halfOpenSuccessCount = 0;
-            }
+        Call(CircuitState state) {
+            this.state = state;
         }
 
-        synchronized void recordSuccess(double failureThreshold, int windowSeconds, int minRequests) {
-            if (state == State.HALF_OPEN) {
-                halfOpenSuccessCount++;
-                if (halfOpenSuccessCount >= HALF_OPEN_SUCCESS_THRESHOLD) {
-                    state = State.CLOSED;
-                    resetWindow();
-                }
-                return;
+        void success() {
+            if (done.compareAndSet(false, true)) {
+                state.recordSuccess(System.nanoTime() - start);
             }
-
-            maybeResetWindow(windowSeconds);
-            totalCount++;
         }
 
-        synchronized void recordFailure(double failureThreshold, int windowSeconds, int minRequests, int openSeconds) {
-            if (state == State.HALF_OPEN) {
-                state = State.OPEN;
-                openTime = System.currentTimeMillis();
-                resetWindow();
-                return;
-            }
-
-            maybeResetWindow(windowSeconds);
-            totalCount++;
-            failureCount++;
-
-            if (totalCount >= minRequests && (double) failureCount / totalCount > failureThreshold) {
-                state = State.OPEN;
-                openTime = System.currentTimeMillis();
+        void failure() {
+            if (done.compareAndSet(false, true)) {
+                state.recordFailure(System.nanoTime() - start);
             }
         }
 
-        private void maybeResetWindow(int windowSeconds) {
-            long now = System.currentTimeMillis();
-            if (now - windowStartTime >= windowSeconds * 1000L) {
-                resetWindow();
+        void cancel() {
+            if (done.compareAndSet(false, true)) {
+                state.releasePermission();
             }
         }
-
-        private void resetWindow() {
-            failureCount = 0;
-            totalCount = 0;
-            windowStartTime = System.currentTimeMillis();
-        }
     }
 }
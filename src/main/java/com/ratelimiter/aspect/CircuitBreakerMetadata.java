@@ -0,0 +1,41 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.annotation.CircuitBreaker;
+import com.ratelimiter.breaker.CircuitState;
+
+/**
+ * Startup-resolved @CircuitBreaker metadata of one method—owns the method's CircuitState.
+ */
+public final class CircuitBreakerMetadata {
+
+    private final String methodKey;
+    private final CircuitBreaker annotation;
+    private final CircuitState state;
+    private final ReturnKind returnKind;
+
+    CircuitBreakerMetadata(String methodKey, CircuitBreaker annotation, ReturnKind returnKind) {
+        this.methodKey = methodKey;
+        this.annotation = annotation;
+        this.state = new CircuitState(annotation);
+        this.returnKind = returnKind;
+    }
+
+    /**
+     * className.methodName
+     */
+    public String getMethodKey() {
+        return methodKey;
+    }
+
+    public CircuitBreaker getAnnotation() {
+        return annotation;
+    }
+
+    public CircuitState getState() {
+        return state;
+    }
+
+    ReturnKind getReturnKind() {
+        return returnKind;
+    }
+}
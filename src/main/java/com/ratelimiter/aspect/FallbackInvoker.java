@@ -0,0 +1,93 @@
+package com.ratelimiter.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-resolved fallback method—validated at startup and invoked through a MethodHandle.
+ * A fallback is a public method of the same class taking either no arguments or the same
+ * arguments as the protected method, with a return type assignable to the protected method's.
+ */
+public final class FallbackInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+    private final MethodHandle handle;
+    private final boolean passesArguments;
+
+    private FallbackInvoker(Method method, MethodHandle handle) {
+        this.method = method;
+        this.handle = handle;
+        this.passesArguments = method.getParameterCount() > 0;
+    }
+
+    /**
+     * Look up and validate the fallback for a protected method.
+     *
+     * @throws IllegalStateException if no matching public method exists
+     */
+    public static FallbackInvoker resolve(Class<?> targetClass, Method protectedMethod, String fallbackName) {
+        Method withArguments = null;
+        Method noArguments = null;
+        for (Method candidate : targetClass.getMethods()) {
+            if (!candidate.getName().equals(fallbackName)) {
+                continue;
+            }
+            if (Arrays.equals(candidate.getParameterTypes(), protectedMethod.getParameterTypes())) {
+                withArguments = candidate;
+            } else if (candidate.getParameterCount() == 0) {
+                noArguments = candidate;
+            }
+        }
+
+        Method fallback = withArguments != null ? withArguments : noArguments;
+        Class<?> returnType = protectedMethod.getReturnType();
+        if (fallback == null
+                || (returnType != void.class && !ClassUtils.isAssignable(returnType, fallback.getReturnType()))) {
+            throw new IllegalStateException(String.format(
+                    "fallbackMethod '%s' for %s.%s must be a public method of %s taking %s and returning %s",
+                    fallbackName, protectedMethod.getDeclaringClass().getName(), protectedMethod.getName(),
+                    targetClass.getName(), parameterList(protectedMethod), returnType.getSimpleName()));
+        }
+
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(fallback);
+            handle = fallback.getParameterCount() > 0
+                    ? handle.asSpreader(Object[].class, fallback.getParameterCount())
+                    : MethodHandles.dropArguments(handle, 1, Object[].class);
+            return new FallbackInvoker(fallback, handle.asType(INVOKER_TYPE));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("fallbackMethod '" + fallbackName + "' is not accessible on "
+                    + targetClass.getName(), e);
+        }
+    }
+
+    /**
+     * Invoke the fallback on the join point's target, passing the original arguments when it declares them.
+     */
+    public Object invoke(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = passesArguments ? joinPoint.getArgs() : null;
+        return handle.invokeExact(joinPoint.getTarget(), args);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    private static String parameterList(Method method) {
+        if (method.getParameterCount() == 0) {
+            return "()";
+        }
+        return "() or (" + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ")) + ")";
+    }
+}
@@ -0,0 +1,77 @@
+package com.ratelimiter.aspect;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Resolves @RateLimit keyExpression and cost values.
+ * Each expression is parsed once per method at startup and kept by MethodMetadataRegistry; SpelCompilerMode.IMMEDIATE
+ * compiles it to bytecode after the first evaluation, so the hot path neither re-parses nor evaluates reflectively.
+ * Arguments are available by name (#userId) and position (#p0 / #a0).
+ */
+@Component
+public class KeyExpressionResolver {
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, KeyExpressionResolver.class.getClassLoader()));
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    /**
+     * Parse the expression for a method once—MethodMetadataRegistry keeps the result per @RateLimit.
+     */
+    public CompiledKeyExpression compile(Method method, String expression) {
+        // Variable names per argument position: declared name (when compiled with -parameters), #pN and #aN
+        String[] names = parameterNameDiscoverer.getParameterNames(method);
+        String[][] variableNames = new String[method.getParameterCount()][];
+        for (int i = 0; i < variableNames.length; i++) {
+            variableNames[i] = names != null
+                    ? new String[]{names[i], "p" + i, "a" + i}
+                    : new String[]{"p" + i, "a" + i};
+        }
+        return new CompiledKeyExpression(parser.parseExpression(expression), variableNames);
+    }
+
+    /**
+     * Parsed expression plus the method's argument variable names, resolved once.
+     */
+    public static final class CompiledKeyExpression {
+
+        private final Expression expression;
+        private final String[][] variableNames;
+
+        private CompiledKeyExpression(Expression expression, String[][] variableNames) {
+            this.expression = expression;
+            this.variableNames = variableNames;
+        }
+
+        public String evaluate(Object[] args) {
+            return String.valueOf(expression.getValue(context(args)));
+        }
+
+        /**
+         * Evaluate to a number—for cost expressions; null counts as 0.
+         */
+        public long evaluateLong(Object[] args) {
+            Long value = expression.getValue(context(args), Long.class);
+            return value == null ? 0 : value;
+        }
+
+        private StandardEvaluationContext context(Object[] args) {
+            StandardEvaluationContext context = new StandardEvaluationContext(new KeyExpressionRoot(args));
+            for (int i = 0; i < variableNames.length && i < args.length; i++) {
+                for (String name : variableNames[i]) {
+                    context.setVariable(name, args[i]);
+                }
+            }
+            return context;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ratelimiter.aspect;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.Principal;
+
+/**
+ * Root object of @RateLimit keyExpression—exposes method arguments, the current request and principal.
+ * Public with plain getters so compiled SpEL can access it without reflection.
+ */
+public class KeyExpressionRoot {
+
+    private final Object[] args;
+
+    public KeyExpressionRoot(Object[] args) {
+        this.args = args;
+    }
+
+    public Object[] getArgs() {
+        return args;
+    }
+
+    /**
+     * Current HTTP request, or null outside a servlet request thread
+     */
+    public HttpServletRequest getRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+
+    /**
+     * Authenticated principal of the current request, or null
+     */
+    public Principal getPrincipal() {
+        HttpServletRequest request = getRequest();
+        return request != null ? request.getUserPrincipal() : null;
+    }
+
+    /**
+     * Header value of the current request, or null
+     */
+    public String header(String name) {
+        HttpServletRequest request = getRequest();
+        return request != null ? request.getHeader(name) : null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.annotation.RateLimit;
+import com.ratelimiter.config.LimitOverride;
+import com.ratelimiter.metrics.LimitMeters;
+import com.ratelimiter.service.LimitRule;
+import org.aspectj.lang.ProceedingJoinPoint;
+
+/**
+ * One @RateLimit of a method, resolved at startup: rule with precomputed key and script arguments,
+ * compiled key and cost expressions, fallback invoker and meters.
+ * <p>
+ * The rule can be replaced at runtime by a LimitOverride; it is swapped as a whole through a volatile field,
+ * so calls read either the old or the new rule and never take a lock.
+ */
+public final class LimitDefinition {
+
+    private final RateLimit annotation;
+    private final LimitRule baseRule;
+    private volatile LimitRule rule;
+    private volatile LimitOverride override;
+    private final KeyExpressionResolver.CompiledKeyExpression keyExpression;
+    private final KeyExpressionResolver.CompiledKeyExpression costExpression;
+    private final FallbackInvoker fallback;
+    private final LimitMeters meters;
+
+    LimitDefinition(RateLimit annotation, LimitRule rule,
+                    KeyExpressionResolver.CompiledKeyExpression keyExpression,
+                    KeyExpressionResolver.CompiledKeyExpression costExpression, FallbackInvoker fallback,
+                    LimitMeters meters) {
+        this.annotation = annotation;
+        this.baseRule = rule;
+        this.rule = rule;
+        this.keyExpression = keyExpression;
+        this.costExpression = costExpression;
+        this.fallback = fallback;
+        this.meters = meters;
+    }
+
+    /**
+     * Rule for this invocation—the precomputed one unless the key or cost depends on the call.
+     */
+    public LimitRule resolve(ProceedingJoinPoint joinPoint) {
+        LimitRule current = rule;
+        if (keyExpression != null) {
+            current = current.withEntity(keyExpression.evaluate(joinPoint.getArgs()));
+        }
+        if (costExpression != null) {
+            current = current.withCost(costExpression.evaluateLong(joinPoint.getArgs()));
+        }
+        return current;
+    }
+
+    /**
+     * Replace count and time, or restore the annotation's values when override is null.
+     */
+    void applyOverride(LimitOverride override) {
+        if (override != null && override.getCount() < baseRule.shards()) {
+            // Would leave shards without permits; writes are validated, this only guards the stored table
+            override = null;
+        }
+        if (override == null) {
+            this.rule = baseRule;
+        } else if (!override.equals(this.override)) {
+            this.rule = baseRule.withLimit(override.getCount(), override.getWindowMillis());
+        }
+        this.override = override;
+    }
+
+    public boolean hasDynamicKey() {
+        return keyExpression != null;
+    }
+
+    public boolean hasDynamicCost() {
+        return costExpression != null;
+    }
+
+    public RateLimit getAnnotation() {
+        return annotation;
+    }
+
+    /**
+     * Current rule, including any override.
+     */
+    public LimitRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Rule as declared by the annotation—its key identifies the limit for overrides.
+     */
+    public LimitRule getBaseRule() {
+        return baseRule;
+    }
+
+    /**
+     * Active override, or null when the annotation's count and time apply
+     */
+    public LimitOverride getOverride() {
+        return override;
+    }
+
+    /**
+     * Fallback invoker, or null when rejection throws RateLimitException
+     */
+    public FallbackInvoker getFallback() {
+        return fallback;
+    }
+
+    public LimitMeters getMeters() {
+        return meters;
+    }
+}
@@ -0,0 +1,412 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.annotation.AdaptiveLimit;
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.annotation.Bulkhead;
+import com.ratelimiter.annotation.BulkheadMode;
+import com.ratelimiter.annotation.CircuitBreaker;
+import com.ratelimiter.annotation.KeyLayout;
+import com.ratelimiter.annotation.RateLimit;
+import com.ratelimiter.config.LimitOverride;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import com.ratelimiter.service.LimitRule;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Method metadata registry—built at startup by scanning every bean for @RateLimit / @CircuitBreaker / @Bulkhead /
+ * @AdaptiveLimit. Precomputes keys, serialized script arguments, compiled key expressions, fallback invokers,
+ * circuit states, bulkhead semaphores and adaptive limiters, and registers their meters, so the aspects do a single map lookup per call. Invalid fallbackMethod
+ * declarations fail the application context instead of the first rejected request.
+ * <p>
+ * Runtime overrides (LimitOverrides) are kept as an immutable table and pushed into the metadata when it
+ * changes, so the aspects still never look them up per call.
+ */
+@Component
+public class MethodMetadataRegistry implements SmartInitializingSingleton {
+
+    private final ApplicationContext applicationContext;
+    private final KeyExpressionResolver keyExpressionResolver;
+    private final RateLimiterMetrics metrics;
+    private final ConcurrentHashMap<Method, RateLimitMetadata> rateLimits = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, CircuitBreakerMetadata> circuitBreakers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, BulkheadMetadata> bulkheads = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, AdaptiveLimitMetadata> adaptiveLimits = new ConcurrentHashMap<>();
+    // COMPACT prefix -> limit key, to catch two limits hashing to the same prefix
+    private final ConcurrentHashMap<String, String> compactPrefixes = new ConcurrentHashMap<>();
+    private volatile Map<String, LimitOverride> overrides = Map.of();
+
+    @Autowired
+    public MethodMetadataRegistry(ApplicationContext applicationContext, KeyExpressionResolver keyExpressionResolver,
+                                  RateLimiterMetrics metrics) {
+        this.applicationContext = applicationContext;
+        this.keyExpressionResolver = keyExpressionResolver;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String beanName : applicationContext.getBeanDefinitionNames()) {
+            Class<?> beanType = applicationContext.getType(beanName, false);
+            if (beanType != null) {
+                register(ClassUtils.getUserClass(beanType));
+            }
+        }
+    }
+
+    /**
+     * Resolve metadata for every annotated method of a bean class.
+     */
+    void register(Class<?> targetClass) {
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(targetClass)) {
+            if (method.getAnnotationsByType(RateLimit.class).length > 0) {
+                rateLimits.computeIfAbsent(method, m -> buildRateLimit(m, targetClass));
+            }
+            if (method.isAnnotationPresent(CircuitBreaker.class)) {
+                circuitBreakers.computeIfAbsent(method, m -> buildCircuitBreaker(m));
+            }
+            if (method.isAnnotationPresent(Bulkhead.class)) {
+                bulkheads.computeIfAbsent(method, m -> buildBulkhead(m, targetClass));
+            }
+            if (method.isAnnotationPresent(AdaptiveLimit.class)) {
+                adaptiveLimits.computeIfAbsent(method, m -> buildAdaptiveLimit(m, targetClass));
+            }
+        }
+    }
+
+    public RateLimitMetadata rateLimit(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        RateLimitMetadata metadata = rateLimits.get(method);
+        if (metadata == null) {
+            // Not seen at startup (lazy bean, interface-based proxy): resolve once with the same checks
+            Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+            metadata = rateLimits.computeIfAbsent(method,
+                    m -> buildRateLimit(AopUtils.getMostSpecificMethod(m, targetClass), targetClass));
+        }
+        return metadata;
+    }
+
+    public CircuitBreakerMetadata circuitBreaker(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        CircuitBreakerMetadata metadata = circuitBreakers.get(method);
+        if (metadata == null) {
+            Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+            metadata = circuitBreakers.computeIfAbsent(method,
+                    m -> buildCircuitBreaker(AopUtils.getMostSpecificMethod(m, targetClass)));
+        }
+        return metadata;
+    }
+
+    public BulkheadMetadata bulkhead(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        BulkheadMetadata metadata = bulkheads.get(method);
+        if (metadata == null) {
+            Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+            metadata = bulkheads.computeIfAbsent(method,
+                    m -> buildBulkhead(AopUtils.getMostSpecificMethod(m, targetClass), targetClass));
+        }
+        return metadata;
+    }
+
+    public AdaptiveLimitMetadata adaptiveLimit(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        AdaptiveLimitMetadata metadata = adaptiveLimits.get(method);
+        if (metadata == null) {
+            Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+            metadata = adaptiveLimits.computeIfAbsent(method,
+                    m -> buildAdaptiveLimit(AopUtils.getMostSpecificMethod(m, targetClass), targetClass));
+        }
+        return metadata;
+    }
+
+    public Collection<RateLimitMetadata> getRateLimits() {
+        return rateLimits.values();
+    }
+
+    public Collection<CircuitBreakerMetadata> getCircuitBreakers() {
+        return circuitBreakers.values();
+    }
+
+    public Collection<BulkheadMetadata> getBulkheads() {
+        return bulkheads.values();
+    }
+
+    public Collection<AdaptiveLimitMetadata> getAdaptiveLimits() {
+        return adaptiveLimits.values();
+    }
+
+    /**
+     * Replace the whole override table, keyed by the limit's base rule key; limits missing from it revert to
+     * their annotation. Writers must not call this concurrently.
+     */
+    public void applyOverrides(Map<String, LimitOverride> overrides) {
+        Map<String, LimitOverride> table = Map.copyOf(overrides);
+        this.overrides = table;
+        for (RateLimitMetadata metadata : rateLimits.values()) {
+            metadata.applyOverrides(table);
+        }
+    }
+
+    public Map<String, LimitOverride> getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * Check that an override targets a known limit and keeps its shards non-empty.
+     *
+     * @throws IllegalArgumentException if it does not
+     */
+    public void validateOverride(String key, LimitOverride override) {
+        LimitDefinition limit = rateLimits.values().stream()
+                .flatMap(metadata -> metadata.getLimits().stream())
+                .filter(definition -> definition.getBaseRule().key().equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No @RateLimit with key " + key));
+        if (override.getCount() < limit.getBaseRule().shards()) {
+            throw new IllegalArgumentException(String.format("Override %s for %s is below its %d shards",
+                    override, key, limit.getBaseRule().shards()));
+        }
+    }
+
+    private RateLimitMetadata buildRateLimit(Method method, Class<?> targetClass) {
+        String methodKey = getMethodKey(method);
+        RateLimit[] annotations = method.getAnnotationsByType(RateLimit.class);
+        boolean combined = annotations.length > 1;
+
+        String sharedKey = combined ? validateCombined(method, annotations) : null;
+
+        List<LimitDefinition> limits = new ArrayList<>(annotations.length);
+        for (int i = 0; i < annotations.length; i++) {
+            RateLimit rateLimit = annotations[i];
+            validateShards(method, rateLimit, combined);
+            validateWindow(method, rateLimit);
+            validateLayout(method, rateLimit, combined);
+            validateCost(method, rateLimit);
+            validateLeasing(method, rateLimit);
+            // Single: prefix + className.methodName
+            // Combined, shared: {key}, one counter for every method repeating it
+            // Combined, per method: prefix + {shared key or className.methodName} + index; the hash tag keeps
+            // all keys of the call in one slot
+            String key;
+            if (!combined) {
+                key = rateLimit.key() + methodKey;
+            } else if (rateLimit.key().equals(sharedKey)) {
+                key = "{" + sharedKey + "}";
+            } else if (sharedKey != null) {
+                key = rateLimit.key() + "{" + sharedKey + "}" + methodKey + ":" + i;
+            } else {
+                key = rateLimit.key() + "{" + methodKey + "}:" + i;
+            }
+            KeyExpressionResolver.CompiledKeyExpression keyExpression = rateLimit.keyExpression().isEmpty()
+                    ? null
+                    : keyExpressionResolver.compile(method, rateLimit.keyExpression());
+            KeyExpressionResolver.CompiledKeyExpression costExpression = rateLimit.cost().isEmpty()
+                    ? null
+                    : keyExpressionResolver.compile(method, rateLimit.cost());
+            FallbackInvoker fallback = rateLimit.fallbackMethod().isBlank()
+                    ? null
+                    : FallbackInvoker.resolve(targetClass, method, rateLimit.fallbackMethod());
+            LimitRule rule = LimitRule.of(key, rateLimit);
+            if (rule.compactPrefix() != null) {
+                String previous = compactPrefixes.putIfAbsent(rule.compactPrefix(), key);
+                if (previous != null && !previous.equals(key)) {
+                    // Two limits would count in the same hashes
+                    throw new IllegalStateException(String.format("layout=COMPACT on %s: %s and %s share prefix %s,"
+                            + " change one of their keys", methodKey, previous, key, rule.compactPrefix()));
+                }
+            }
+            limits.add(new LimitDefinition(rateLimit, rule, keyExpression, costExpression, fallback,
+                    metrics.limitMeters(methodKey, key)));
+        }
+        RateLimitMetadata metadata = new RateLimitMetadata(methodKey, limits, combined, ReturnKind.of(method));
+        metadata.applyOverrides(overrides);
+        return metadata;
+    }
+
+    /**
+     * Check repeated @RateLimit against what multi_limit.lua can evaluate.
+     *
+     * @return the key of the method's shared limit, or null if it has none
+     */
+    private static String validateCombined(Method method, RateLimit[] annotations) {
+        String sharedKey = null;
+        String problem = null;
+        for (RateLimit rateLimit : annotations) {
+            if (rateLimit.algorithm() != Algorithm.FIXED_WINDOW) {
+                problem = "evaluates fixed windows only, not " + rateLimit.algorithm();
+            } else if (rateLimit.leaseSize() > 0 || rateLimit.coalesceMicros() > 0) {
+                problem = "cannot be combined with leasing or coalescing";
+            } else if (!rateLimit.key().equals(RateLimit.DEFAULT_KEY)) {
+                if (sharedKey != null) {
+                    // Two shared keys would hash to different cluster slots
+                    problem = "may have one limit with its own key only, not both " + sharedKey + " and "
+                            + rateLimit.key();
+                }
+                sharedKey = rateLimit.key();
+            }
+            if (problem != null) {
+                throw new IllegalStateException("Repeated @RateLimit on " + getMethodKey(method) + " " + problem);
+            }
+        }
+        return sharedKey;
+    }
+
+    private static void validateShards(Method method, RateLimit rateLimit, boolean combined) {
+        if (rateLimit.shards() == 1) {
+            return;
+        }
+        String problem = null;
+        if (rateLimit.shards() < 1) {
+            problem = "must be at least 1";
+        } else if (combined) {
+            // multi_limit.lua needs every key of the method in one slot
+            problem = "cannot be used with repeated @RateLimit";
+        } else if (rateLimit.leaseSize() > 0 || rateLimit.coalesceMicros() > 0) {
+            problem = "cannot be combined with leasing or coalescing";
+        } else if (rateLimit.count() < rateLimit.shards()) {
+            problem = "must not exceed count (" + rateLimit.count() + ")";
+        }
+        if (problem != null) {
+            throw new IllegalStateException(String.format("shards=%d on %s %s",
+                    rateLimit.shards(), getMethodKey(method), problem));
+        }
+    }
+
+    private static void validateWindow(Method method, RateLimit rateLimit) {
+        if (rateLimit.window() < 0 || LimitRule.windowMillis(rateLimit) < 1) {
+            // The scripts count in whole milliseconds
+            throw new IllegalStateException(String.format("window=%d %s on %s must be at least one millisecond",
+                    rateLimit.window() > 0 ? rateLimit.window() : rateLimit.time(),
+                    rateLimit.window() > 0 ? rateLimit.timeUnit() : "SECONDS", getMethodKey(method)));
+        }
+    }
+
+    private static void validateCost(Method method, RateLimit rateLimit) {
+        if (rateLimit.cost().isEmpty()) {
+            return;
+        }
+        String problem = null;
+        if (rateLimit.leaseSize() > 0 || rateLimit.coalesceMicros() > 0) {
+            // Leases and coalesced batches are counted in single permits
+            problem = "cannot be combined with leasing or coalescing";
+        } else if (rateLimit.shards() > 1) {
+            // Each shard holds count / shards permits: a larger cost, unknown until the call, is always rejected
+            problem = String.format("cannot be combined with shards, as calls costing more than %d (count / shards)"
+                    + " would always be rejected", rateLimit.count() / rateLimit.shards());
+        }
+        if (problem != null) {
+            throw new IllegalStateException(String.format("cost=\"%s\" on %s %s",
+                    rateLimit.cost(), getMethodKey(method), problem));
+        }
+    }
+
+    private static void validateLeasing(Method method, RateLimit rateLimit) {
+        if (rateLimit.leaseSize() > 0 && !rateLimit.keyExpression().isEmpty()) {
+            // Leases are held per resolved key and never evicted: one per caller would grow without bound
+            throw new IllegalStateException(String.format("leaseSize=%d on %s cannot be combined with a keyExpression",
+                    rateLimit.leaseSize(), getMethodKey(method)));
+        }
+    }
+
+    private static void validateLayout(Method method, RateLimit rateLimit, boolean combined) {
+        if (rateLimit.layout() != KeyLayout.COMPACT) {
+            return;
+        }
+        String problem = null;
+        if (rateLimit.keyExpression().isEmpty()) {
+            problem = "needs a keyExpression";
+        } else if (rateLimit.algorithm() != Algorithm.FIXED_WINDOW) {
+            problem = "supports FIXED_WINDOW only";
+        } else if (combined || rateLimit.shards() > 1 || rateLimit.leaseSize() > 0 || rateLimit.coalesceMicros() > 0) {
+            problem = "cannot be combined with repeated @RateLimit, shards, leasing or coalescing";
+        } else if (rateLimit.compactBuckets() < 1) {
+            problem = "needs at least one compactBucket";
+        }
+        if (problem != null) {
+            throw new IllegalStateException("layout=COMPACT on " + getMethodKey(method) + " " + problem);
+        }
+    }
+
+    private CircuitBreakerMetadata buildCircuitBreaker(Method method) {
+        CircuitBreakerMetadata metadata =
+                new CircuitBreakerMetadata(getMethodKey(method), method.getAnnotation(CircuitBreaker.class),
+                        ReturnKind.of(method));
+        metrics.bindCircuit(metadata.getMethodKey(), metadata.getState());
+        return metadata;
+    }
+
+    private BulkheadMetadata buildBulkhead(Method method, Class<?> targetClass) {
+        Bulkhead bulkhead = method.getAnnotation(Bulkhead.class);
+        String methodKey = getMethodKey(method);
+        String problem = null;
+        if (bulkhead.maxConcurrent() < 1) {
+            problem = "maxConcurrent must be at least 1";
+        } else if (bulkhead.maxWaitMillis() < 0) {
+            problem = "maxWaitMillis must not be negative";
+        } else if (bulkhead.mode() == BulkheadMode.DISTRIBUTED && bulkhead.leaseMillis() < 1) {
+            problem = "leaseMillis must be positive";
+        }
+        if (problem != null) {
+            throw new IllegalStateException("@Bulkhead on " + methodKey + ": " + problem);
+        }
+        FallbackInvoker fallback = bulkhead.fallbackMethod().isBlank()
+                ? null
+                : FallbackInvoker.resolve(targetClass, method, bulkhead.fallbackMethod());
+        BulkheadMetadata metadata = new BulkheadMetadata(methodKey, bulkhead, fallback,
+                metrics.bulkheadMeters(methodKey), ReturnKind.of(method));
+        if (metadata.getLocal() != null) {
+            metrics.bindBulkhead(methodKey, metadata.getLocal());
+        }
+        return metadata;
+    }
+
+    private AdaptiveLimitMetadata buildAdaptiveLimit(Method method, Class<?> targetClass) {
+        AdaptiveLimit adaptiveLimit = method.getAnnotation(AdaptiveLimit.class);
+        String methodKey = getMethodKey(method);
+        String problem = null;
+        if (adaptiveLimit.minLimit() < 1 || adaptiveLimit.minLimit() > adaptiveLimit.maxLimit()) {
+            problem = "minLimit must be between 1 and maxLimit";
+        } else if (adaptiveLimit.initialLimit() < adaptiveLimit.minLimit()
+                || adaptiveLimit.initialLimit() > adaptiveLimit.maxLimit()) {
+            problem = "initialLimit must be between minLimit and maxLimit";
+        } else if (adaptiveLimit.windowMillis() < 1) {
+            problem = "windowMillis must be positive";
+        } else if (adaptiveLimit.latencyPercentile() <= 0 || adaptiveLimit.latencyPercentile() > 1) {
+            problem = "latencyPercentile must be in (0, 1]";
+        } else if (adaptiveLimit.tolerance() < 1) {
+            problem = "tolerance must be at least 1";
+        } else if (adaptiveLimit.smoothing() <= 0 || adaptiveLimit.smoothing() > 1) {
+            problem = "smoothing must be in (0, 1]";
+        } else if (adaptiveLimit.backoffRatio() <= 0 || adaptiveLimit.backoffRatio() >= 1) {
+            problem = "backoffRatio must be in (0, 1)";
+        }
+        if (problem != null) {
+            throw new IllegalStateException("@AdaptiveLimit on " + methodKey + ": " + problem);
+        }
+        FallbackInvoker fallback = adaptiveLimit.fallbackMethod().isBlank()
+                ? null
+                : FallbackInvoker.resolve(targetClass, method, adaptiveLimit.fallbackMethod());
+        AdaptiveLimitMetadata metadata = new AdaptiveLimitMetadata(methodKey, adaptiveLimit, fallback,
+                metrics.adaptiveLimitMeters(methodKey), ReturnKind.of(method));
+        metrics.bindAdaptiveLimit(methodKey, metadata.getLimiter());
+        return metadata;
+    }
+
+    private static String getMethodKey(Method method) {
+        return method.getDeclaringClass().getName() + "." + method.getName();
+    }
+}
@@ -1,85 +1,156 @@
 package com.ratelimiter.aspect;
 
-import com.ratelimiter.annotation.RateLimit;
 import com.ratelimiter.exception.RateLimitException;
+import com.ratelimiter.hotkey.HeavyHitters;
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.RateLimitResult;
+import com.ratelimiter.service.RateLimitService;
+import com.ratelimiter.web.RateLimitHeaders;
+import jakarta.servlet.http.HttpServletResponse;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.annotation.Order;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
-import java.lang.reflect.Method;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Rate limiting AOP aspect—intercepts methods annotated with @RateLimit.
- * Injects preloaded limitScript Bean; Redis client uses EVALSHA for better performance.
+ * Keys, script arguments and fallbacks come precomputed from MethodMetadataRegistry;
+ * the limit check is delegated to RateLimitService so there is a single hot path.
+ * <p>
+ * Mono, Flux and CompletableFuture methods are checked without blocking: the method is invoked once the
+ * check admits the call (per subscription for Mono and Flux), on the thread that completed the check.
+ * <p>
+ * The check's remaining permits and reset time are written as RateLimit-* headers to the servlet response of
+ * the invoking thread, captured before an asynchronous check moves to another thread; rejections carry them
+ * in RateLimitException.
+ * <p>
+ * Every resolved key is counted by HeavyHitters before the check, which may reject heavy hitters locally.
  */
 @Aspect
 @Component
 @Order(2)  // Execute after CircuitBreakerAspect
 public class RateLimitAspect {
 
-    private final StringRedisTemplate redisTemplate;
-    private final DefaultRedisScript<Long> limitScript;
+    private final RateLimitService rateLimitService;
+    private final MethodMetadataRegistry registry;
+    private final HeavyHitters heavyHitters;
 
     @Autowired
-    public RateLimitAspect(StringRedisTemplate redisTemplate, DefaultRedisScript<Long> limitScript) {
-        this.redisTemplate = redisTemplate;
-        this.limitScript = limitScript;
+    public RateLimitAspect(RateLimitService rateLimitService, MethodMetadataRegistry registry,
+                           HeavyHitters heavyHitters) {
+        this.rateLimitService = rateLimitService;
+        this.registry = registry;
+        this.heavyHitters = heavyHitters;
     }
 
-    @Around("@annotation(rateLimit)")
-    public Object around(ProceedingJoinPoint joinPoint, RateLimit rateLimit) throws Throwable {
-        String key = rateLimit.key();
-        int count = rateLimit.count();
-        int time = rateLimit.time();
+    @Around("@annotation(com.ratelimiter.annotation.RateLimit) || @annotation(com.ratelimiter.annotation.RateLimits)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        RateLimitMetadata metadata = registry.rateLimit(joinPoint);
+        List<LimitDefinition> limits = metadata.getLimits();
+        HttpServletResponse response = RateLimitHeaders.currentResponse();
 
-        // Build unique key: prefix + className.methodName
-        String fullKey = key + getMethodKey(joinPoint);
-
-        List<String> keys = Collections.singletonList(fullKey);
-
-        Long result = redisTemplate.execute(
-                limitScript,
-                keys,
-                String.valueOf(count),
-                String.valueOf(time)
-        );
+        switch (metadata.getReturnKind()) {
+            case MONO:
+                return acquire(joinPoint, metadata).flatMap(result ->
+                        Mono.from((Publisher<?>) proceedOrReject(joinPoint, metadata, result, response)));
+            case FLUX:
+                return acquire(joinPoint, metadata).flatMapMany(result ->
+                        (Publisher<?>) proceedOrReject(joinPoint, metadata, result, response));
+            case COMPLETION_STAGE:
+                return acquire(joinPoint, metadata).toFuture().thenCompose(result ->
+                        (CompletionStage<?>) proceedOrReject(joinPoint, metadata, result, response));
+            default:
+                break;
+        }
 
-        if (result != null && result == 0) {
-            String fallbackMethod = rateLimit.fallbackMethod();
-            if (fallbackMethod != null && !fallbackMethod.isBlank()) {
-                return invokeFallback(joinPoint, fallbackMethod);
-            }
-            throw new RateLimitException("Too many requests, please try again later");
+        RateLimitResult result;
+        if (metadata.isCombined()) {
+            // Repeated @RateLimit: every limit is checked and committed in one multi-key script call
+            List<LimitRule> rules = metadata.resolveRules(joinPoint);
+            RateLimitResult throttled = throttle(rules);
+            result = throttled != null ? throttled : rateLimitService.acquireAll(rules);
+        } else {
+            LimitRule rule = limits.get(0).resolve(joinPoint);
+            result = heavyHitters.throttle(rule) ? RateLimitResult.of(false, rule) : rateLimitService.acquire(rule);
+        }
+        if (!result.isAllowed()) {
+            return reject(joinPoint, limits.get(result.getIndex()), result, response);
         }
+        for (LimitDefinition limit : limits) {
+            limit.getMeters().allowed();
+        }
+        RateLimitHeaders.write(response, result);
 
         return joinPoint.proceed();
     }
 
-    private String getMethodKey(ProceedingJoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String className = signature.getDeclaringTypeName();
-        String methodName = signature.getName();
-        return className + "." + methodName;
+    /**
+     * Non-blocking check of every limit of the method.
+     */
+    private Mono<RateLimitResult> acquire(ProceedingJoinPoint joinPoint, RateLimitMetadata metadata) {
+        return Mono.defer(() -> {
+            if (metadata.isCombined()) {
+                List<LimitRule> rules = metadata.resolveRules(joinPoint);
+                RateLimitResult throttled = throttle(rules);
+                return throttled != null ? Mono.just(throttled) : rateLimitService.acquireAllReactive(rules);
+            }
+            LimitRule rule = metadata.getLimits().get(0).resolve(joinPoint);
+            return heavyHitters.throttle(rule)
+                    ? Mono.just(RateLimitResult.of(false, rule))
+                    : rateLimitService.acquireReactive(rule);
+        });
+    }
+
+    /**
+     * Count every key of a combined limit; the first heavy hitter over its local share rejects the call.
+     *
+     * @return the rejection, or null to check with RateLimitService
+     */
+    private RateLimitResult throttle(List<LimitRule> rules) {
+        for (int i = 0; i < rules.size(); i++) {
+            if (heavyHitters.throttle(rules.get(i))) {
+                return RateLimitResult.of(false, i, rules.get(i));
+            }
+        }
+        return null;
     }
 
     /**
-     * Invoke fallback method via reflection—target class must have a no-arg public method.
+     * Invoke the method, its fallback, or fail—as a result of the method's asynchronous return kind.
      */
-    private Object invokeFallback(ProceedingJoinPoint joinPoint, String fallbackMethodName) {
+    private Object proceedOrReject(ProceedingJoinPoint joinPoint, RateLimitMetadata metadata,
+                                   RateLimitResult result, HttpServletResponse response) {
+        ReturnKind kind = metadata.getReturnKind();
+        if (result.isAllowed()) {
+            for (LimitDefinition limit : metadata.getLimits()) {
+                limit.getMeters().allowed();
+            }
+            RateLimitHeaders.write(response, result);
+            return kind.proceed(joinPoint);
+        }
         try {
-            Object target = joinPoint.getTarget();
-            Method fallbackMethod = target.getClass().getMethod(fallbackMethodName);
-            return fallbackMethod.invoke(target);
-        } catch (Exception e) {
-            throw new RateLimitException("Too many requests, please try again later", e);
+            return reject(joinPoint, metadata.getLimits().get(result.getIndex()), result, response);
+        } catch (Throwable t) {
+            return kind.failed(t);
+        }
+    }
+
+    private Object reject(ProceedingJoinPoint joinPoint, LimitDefinition limit, RateLimitResult result,
+                          HttpServletResponse response) throws Throwable {
+        limit.getMeters().denied();
+        FallbackInvoker fallback = limit.getFallback();
+        if (fallback != null) {
+            limit.getMeters().fallback();
+            RateLimitHeaders.write(response, result);
+            return fallback.invoke(joinPoint);
         }
+        throw new RateLimitException("Too many requests, please try again later", result);
     }
 }
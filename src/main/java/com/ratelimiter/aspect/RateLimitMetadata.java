@@ -0,0 +1,80 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.config.LimitOverride;
+import com.ratelimiter.service.LimitRule;
+import org.aspectj.lang.ProceedingJoinPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Startup-resolved @RateLimit metadata of one method.
+ * Repeated annotations are combined and evaluated together in one multi-key script call.
+ */
+public final class RateLimitMetadata {
+
+    private final String methodKey;
+    private final List<LimitDefinition> limits;
+    private final boolean combined;
+    private final ReturnKind returnKind;
+    private volatile List<LimitRule> staticRules;
+
+    RateLimitMetadata(String methodKey, List<LimitDefinition> limits, boolean combined, ReturnKind returnKind) {
+        this.methodKey = methodKey;
+        this.limits = List.copyOf(limits);
+        this.combined = combined;
+        this.returnKind = returnKind;
+        this.staticRules = staticRules(this.limits);
+    }
+
+    private static List<LimitRule> staticRules(List<LimitDefinition> limits) {
+        boolean dynamic = limits.stream().anyMatch(limit -> limit.hasDynamicKey() || limit.hasDynamicCost());
+        return dynamic ? null : limits.stream().map(LimitDefinition::getRule).toList();
+    }
+
+    /**
+     * Swap in the overrides (by base rule key) of this method's limits; limits without one revert
+     * to their annotation.
+     */
+    void applyOverrides(Map<String, LimitOverride> overrides) {
+        for (LimitDefinition limit : limits) {
+            limit.applyOverride(overrides.get(limit.getBaseRule().key()));
+        }
+        this.staticRules = staticRules(limits);
+    }
+
+    /**
+     * Rules of a combined limit for this invocation.
+     */
+    public List<LimitRule> resolveRules(ProceedingJoinPoint joinPoint) {
+        List<LimitRule> rules = staticRules;
+        if (rules != null) {
+            return rules;
+        }
+        rules = new ArrayList<>(limits.size());
+        for (LimitDefinition limit : limits) {
+            rules.add(limit.resolve(joinPoint));
+        }
+        return rules;
+    }
+
+    /**
+     * className.methodName
+     */
+    public String getMethodKey() {
+        return methodKey;
+    }
+
+    public List<LimitDefinition> getLimits() {
+        return limits;
+    }
+
+    public boolean isCombined() {
+        return combined;
+    }
+
+    ReturnKind getReturnKind() {
+        return returnKind;
+    }
+}
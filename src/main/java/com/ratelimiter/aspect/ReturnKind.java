@@ -0,0 +1,78 @@
+package com.ratelimiter.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * How a protected method delivers its result—decides when the aspects check limits and record outcomes.
+ * Blocking methods are done when they return; a Mono or Flux when it terminates, checked per subscription;
+ * a CompletableFuture or CompletionStage when it completes.
+ */
+enum ReturnKind {
+
+    BLOCKING,
+    MONO,
+    FLUX,
+    COMPLETION_STAGE;
+
+    static ReturnKind of(Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == Mono.class) {
+            return MONO;
+        }
+        if (returnType == Flux.class) {
+            return FLUX;
+        }
+        if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+            return COMPLETION_STAGE;
+        }
+        return BLOCKING;
+    }
+
+    /**
+     * Invoke the method; a thrown exception or a null result becomes a failed or empty result of this kind.
+     */
+    Object proceed(ProceedingJoinPoint joinPoint) {
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable t) {
+            return failed(t);
+        }
+        return result != null ? result : empty();
+    }
+
+    /**
+     * Result of this kind that fails with the error—blocking methods throw it instead.
+     */
+    Object failed(Throwable error) {
+        switch (this) {
+            case MONO:
+                return Mono.error(error);
+            case FLUX:
+                return Flux.error(error);
+            case COMPLETION_STAGE:
+                return CompletableFuture.failedFuture(error);
+            default:
+                throw new IllegalStateException("Blocking methods throw instead", error);
+        }
+    }
+
+    private Object empty() {
+        switch (this) {
+            case MONO:
+                return Mono.empty();
+            case FLUX:
+                return Flux.empty();
+            case COMPLETION_STAGE:
+                return CompletableFuture.completedFuture(null);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.ratelimiter.breaker;
+
+import com.ratelimiter.annotation.CircuitBreaker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker states: Closed / Open / Half-Open—one instance per protected method,
+ * configured once from its @CircuitBreaker.
+ * Lock-free: outcomes go to a ring of time buckets covering a true sliding window, and every
+ * state transition is a CAS on an immutable phase, so concurrent callers never share a monitor.
+ * Trips on failure rate or slow call rate; Half-Open admits a bounded number of probe calls.
+ */
+public class CircuitState {
+
+    static final int DEFAULT_BUCKETS = 10;
+    private static final int DEFAULT_PERMITTED_HALF_OPEN_CALLS = 3;
+
+    private final double failureThreshold;
+    private final int openSeconds;
+    private final int minRequests;
+    private final long slowCallThresholdNanos;
+    private final double slowCallRateThreshold;
+    private final int permittedHalfOpenCalls;
+    private final int bucketCount;
+    private final long bucketMillis;
+    private final LongSupplier clock;
+
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final AtomicReference<Phase> phase = new AtomicReference<>(Phase.closed());
+    // Buckets older than this epoch belong to a previous closed period and are ignored
+    private volatile long windowFloor = Long.MIN_VALUE;
+    private volatile TransitionListener transitionListener;
+
+    public enum State {
+        CLOSED,   // Normal
+        OPEN,     // Tripped
+        HALF_OPEN // Probing
+    }
+
+    /**
+     * Notified after each state change, on the thread that made it.
+     */
+    @FunctionalInterface
+    public interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    public CircuitState(CircuitBreaker circuitBreaker) {
+        this(circuitBreaker.failureThreshold(), circuitBreaker.windowSeconds(),
+                circuitBreaker.openSeconds(), circuitBreaker.minRequests(),
+                circuitBreaker.slowCallThresholdMillis(), circuitBreaker.slowCallRateThreshold(),
+                circuitBreaker.permittedHalfOpenCalls(), DEFAULT_BUCKETS, System::currentTimeMillis);
+    }
+
+    /**
+     * Failure-rate only breaker with the default Half-Open probe count.
+     */
+    public CircuitState(double failureThreshold, int windowSeconds, int openSeconds, int minRequests) {
+        this(failureThreshold, windowSeconds, openSeconds, minRequests, 0, 1.0,
+                DEFAULT_PERMITTED_HALF_OPEN_CALLS, DEFAULT_BUCKETS, System::currentTimeMillis);
+    }
+
+    CircuitState(double failureThreshold, int windowSeconds, int openSeconds, int minRequests,
+                 long slowCallThresholdMillis, double slowCallRateThreshold, int permittedHalfOpenCalls,
+                 int bucketCount, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openSeconds = openSeconds;
+        this.minRequests = minRequests;
+        this.slowCallThresholdNanos = slowCallThresholdMillis > 0
+                ? TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMillis)
+                : Long.MAX_VALUE;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.permittedHalfOpenCalls = Math.max(1, permittedHalfOpenCalls);
+        this.bucketCount = bucketCount;
+        this.bucketMillis = Math.max(1, windowSeconds * 1000L / bucketCount);
+        this.clock = clock;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.set(i, new Bucket(Long.MIN_VALUE));
+        }
+    }
+
+    public void setTransitionListener(TransitionListener transitionListener) {
+        this.transitionListener = transitionListener;
+    }
+
+    public State getState() {
+        return phase.get().state;
+    }
+
+    public boolean isOpen() {
+        return phase.get().state == State.OPEN;
+    }
+
+    public void tryTransitionFromOpen() {
+        Phase current = phase.get();
+        if (current.state == State.OPEN && clock.getAsLong() - current.openedAt >= openSeconds * 1000L) {
+            // Only one caller wins; the others see HALF_OPEN on their next read
+            transition(current, Phase.halfOpen(permittedHalfOpenCalls));
+        }
+    }
+
+    /**
+     * Whether a call may proceed: always when Closed, never when Open (before openSeconds),
+     * and while Half-Open only as long as probe permits remain.
+     */
+    public boolean tryAcquirePermission() {
+        tryTransitionFromOpen();
+        Phase current = phase.get();
+        switch (current.state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                return current.tryTakePermit();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Give back a permit from tryAcquirePermission for a call that ended without an outcome,
+     * e.g. a cancelled subscription—otherwise Half-Open would wait forever for that probe.
+     */
+    public void releasePermission() {
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            current.releasePermit(permittedHalfOpenCalls);
+        }
+    }
+
+    public void recordSuccess() {
+        recordSuccess(0);
+    }
+
+    public void recordFailure() {
+        recordFailure(0);
+    }
+
+    /**
+     * @param elapsedNanos Call duration, compared against slowCallThresholdMillis
+     */
+    public void recordSuccess(long elapsedNanos) {
+        boolean slow = elapsedNanos >= slowCallThresholdNanos;
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            if (slow) {
+                // A slow probe means the backend is still struggling
+                reopen(current);
+            } else if (current.halfOpenSuccesses.incrementAndGet() >= permittedHalfOpenCalls
+                    && transition(current, Phase.closed())) {
+                resetWindow();
+            }
+            return;
+        }
+
+        Bucket bucket = currentBucket(clock.getAsLong());
+        bucket.total.increment();
+        if (slow) {
+            bucket.slow.increment();
+            tripIfNeeded(current, bucket.epoch);
+        }
+    }
+
+    /**
+     * @param elapsedNanos Call duration, compared against slowCallThresholdMillis
+     */
+    public void recordFailure(long elapsedNanos) {
+        Phase current = phase.get();
+        if (current.state == State.HALF_OPEN) {
+            reopen(current);
+            return;
+        }
+
+        Bucket bucket = currentBucket(clock.getAsLong());
+        bucket.total.increment();
+        bucket.failures.increment();
+        if (elapsedNanos >= slowCallThresholdNanos) {
+            bucket.slow.increment();
+        }
+        tripIfNeeded(current, bucket.epoch);
+    }
+
+    private boolean transition(Phase from, Phase to) {
+        if (!phase.compareAndSet(from, to)) {
+            return false;
+        }
+        TransitionListener listener = transitionListener;
+        if (listener != null) {
+            listener.onTransition(from.state, to.state);
+        }
+        return true;
+    }
+
+    private void reopen(Phase halfOpen) {
+        if (transition(halfOpen, Phase.open(clock.getAsLong()))) {
+            resetWindow();
+        }
+    }
+
+    private void tripIfNeeded(Phase current, long currentEpoch) {
+        if (current.state == State.CLOSED && shouldTrip(currentEpoch)) {
+            transition(current, Phase.open(clock.getAsLong()));
+        }
+    }
+
+    /**
+     * Failure and slow call rates over the buckets of the sliding window ending at the given epoch.
+     */
+    private boolean shouldTrip(long currentEpoch) {
+        long oldest = Math.max(currentEpoch - bucketCount + 1, windowFloor);
+        long total = 0;
+        long failures = 0;
+        long slow = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket.epoch >= oldest && bucket.epoch <= currentEpoch) {
+                total += bucket.total.sum();
+                failures += bucket.failures.sum();
+                slow += bucket.slow.sum();
+            }
+        }
+        return total >= minRequests
+                && ((double) failures / total > failureThreshold || (double) slow / total > slowCallRateThreshold);
+    }
+
+    private Bucket currentBucket(long now) {
+        long epoch = now / bucketMillis;
+        int index = (int) (epoch % bucketCount);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket.epoch >= epoch) {
+                // Current bucket, or a newer one installed by a thread that read the clock later
+                return bucket;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private void resetWindow() {
+        long epoch = clock.getAsLong() / bucketMillis;
+        windowFloor = epoch;
+        buckets.set((int) (epoch % bucketCount), new Bucket(epoch));
+    }
+
+    /**
+     * Outcomes recorded during one bucket-sized slice of the window.
+     */
+    private static final class Bucket {
+        final long epoch;
+        final LongAdder total = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder slow = new LongAdder();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    /**
+     * Immutable state snapshot; a new instance per transition makes every transition a single CAS.
+     */
+    private static final class Phase {
+        final State state;
+        final long openedAt;
+        final AtomicInteger halfOpenPermits;
+        final AtomicInteger halfOpenSuccesses;
+
+        private Phase(State state, long openedAt, AtomicInteger halfOpenPermits, AtomicInteger halfOpenSuccesses) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.halfOpenPermits = halfOpenPermits;
+            this.halfOpenSuccesses = halfOpenSuccesses;
+        }
+
+        boolean tryTakePermit() {
+            int permits;
+            do {
+                permits = halfOpenPermits.get();
+                if (permits <= 0) {
+                    return false;
+                }
+            } while (!halfOpenPermits.compareAndSet(permits, permits - 1));
+            return true;
+        }
+
+        void releasePermit(int max) {
+            int permits;
+            do {
+                permits = halfOpenPermits.get();
+                if (permits >= max) {
+                    return;
+                }
+            } while (!halfOpenPermits.compareAndSet(permits, permits + 1));
+        }
+
+        static Phase closed() {
+            return new Phase(State.CLOSED, 0, null, null);
+        }
+
+        static Phase open(long now) {
+            return new Phase(State.OPEN, now, null, null);
+        }
+
+        static Phase halfOpen(int permits) {
+            return new Phase(State.HALF_OPEN, 0, new AtomicInteger(permits), new AtomicInteger());
+        }
+    }
+}
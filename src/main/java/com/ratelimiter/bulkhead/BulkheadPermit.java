@@ -0,0 +1,32 @@
+package com.ratelimiter.bulkhead;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One slot of a bulkhead, held while the call runs—released exactly once, however many signals try.
+ * {@link #REJECTED} stands for a full bulkhead.
+ */
+public final class BulkheadPermit {
+
+    public static final BulkheadPermit REJECTED = new BulkheadPermit(null);
+
+    private final Runnable release;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    /**
+     * @param release Gives the slot back
+     */
+    public BulkheadPermit(Runnable release) {
+        this.release = release;
+    }
+
+    public boolean isGranted() {
+        return release != null;
+    }
+
+    public void release() {
+        if (release != null && released.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ratelimiter.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-JVM bulkhead—a non-fair Semaphore, so a free permit is taken with a single CAS and never queues.
+ * Only callers that opt into a bounded wait park, and only up to their deadline.
+ */
+public final class LocalBulkhead {
+
+    private final int maxConcurrent;
+    private final Semaphore permits;
+
+    public LocalBulkhead(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * @return a permit, or REJECTED if every permit is in use
+     */
+    public BulkheadPermit tryAcquire() {
+        return permits.tryAcquire() ? new BulkheadPermit(permits::release) : BulkheadPermit.REJECTED;
+    }
+
+    /**
+     * Wait up to waitMillis for a permit.
+     *
+     * @return a permit, or REJECTED if none was freed in time
+     */
+    public BulkheadPermit tryAcquire(long waitMillis) throws InterruptedException {
+        if (waitMillis <= 0) {
+            return tryAcquire();
+        }
+        return permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)
+                ? new BulkheadPermit(permits::release)
+                : BulkheadPermit.REJECTED;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Permits currently held
+     */
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
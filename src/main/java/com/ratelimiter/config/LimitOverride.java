@@ -0,0 +1,85 @@
+package com.ratelimiter.config;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runtime replacement for a @RateLimit's count and window, stored in Redis as "count/time" (seconds) or
+ * "count/windowms" (milliseconds, for sub-second windows).
+ */
+public final class LimitOverride {
+
+    private static final String MILLIS_SUFFIX = "ms";
+
+    private final int count;
+    private final long windowMillis;
+
+    /**
+     * @param time Window in seconds
+     */
+    public LimitOverride(int count, int time) {
+        this(count, TimeUnit.SECONDS.toMillis(time));
+    }
+
+    private LimitOverride(int count, long windowMillis) {
+        if (count < 1 || windowMillis < 1) {
+            throw new IllegalArgumentException("Override count and window must be positive: " + count + "/"
+                    + windowMillis + MILLIS_SUFFIX);
+        }
+        this.count = count;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Override with a window in milliseconds.
+     */
+    public static LimitOverride ofMillis(int count, long windowMillis) {
+        return new LimitOverride(count, windowMillis);
+    }
+
+    /**
+     * @param value "count/time" in seconds, e.g. "100/60", or "count/windowms", e.g. "50/100ms"
+     */
+    public static LimitOverride parse(String value) {
+        int slash = value.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Override must be count/time: " + value);
+        }
+        try {
+            int count = Integer.parseInt(value.substring(0, slash).trim());
+            String window = value.substring(slash + 1).trim();
+            return window.endsWith(MILLIS_SUFFIX)
+                    ? ofMillis(count, Long.parseLong(window.substring(0, window.length() - MILLIS_SUFFIX.length())))
+                    : new LimitOverride(count, Integer.parseInt(window));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Override must be count/time: " + value, e);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LimitOverride other && count == other.count && windowMillis == other.windowMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * count + Long.hashCode(windowMillis);
+    }
+
+    /**
+     * The stored form—whole seconds as "count/time", anything else as "count/windowms"
+     */
+    @Override
+    public String toString() {
+        return windowMillis % 1000 == 0
+                ? count + "/" + windowMillis / 1000
+                : count + "/" + windowMillis + MILLIS_SUFFIX;
+    }
+}
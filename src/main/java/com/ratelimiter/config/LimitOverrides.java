@@ -0,0 +1,129 @@
+package com.ratelimiter.config;
+
+import com.ratelimiter.aspect.MethodMetadataRegistry;
+import com.ratelimiter.service.DenialCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hot-reloadable @RateLimit count/time—overrides live in the Redis hash rate:overrides (field = the limit's key
+ * as shown by /actuator/ratelimiters, value = "count/time") and every change is announced on the
+ * rate:overrides:changed channel.
+ * <p>
+ * Each node subscribes to the channel, re-reads the hash when notified and hands the new table to
+ * MethodMetadataRegistry, which swaps the affected rules in place. Calls never read Redis for configuration
+ * and never lock; they see the previous rules until the swap. If Redis is unreachable the current rules stay.
+ */
+@Component
+public class LimitOverrides implements SmartInitializingSingleton, MessageListener, DisposableBean {
+
+    public static final String HASH_KEY = "rate:overrides";
+    public static final String CHANNEL = "rate:overrides:changed";
+
+    private static final Logger log = LoggerFactory.getLogger(LimitOverrides.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectProvider<RedisConnectionFactory> connectionFactory;
+    private final MethodMetadataRegistry registry;
+    private final DenialCache denialCache;
+    private RedisMessageListenerContainer container;
+
+    @Autowired
+    public LimitOverrides(StringRedisTemplate redisTemplate, ObjectProvider<RedisConnectionFactory> connectionFactory,
+                          MethodMetadataRegistry registry, DenialCache denialCache) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.registry = registry;
+        this.denialCache = denialCache;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RedisConnectionFactory factory = connectionFactory.getIfAvailable();
+        if (factory == null) {
+            return;
+        }
+        // Subscribe before the first read so that no change between the two is lost
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(this, new ChannelTopic(CHANNEL));
+        container.afterPropertiesSet();
+        container.start();
+        reload();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        reload();
+    }
+
+    /**
+     * Store an override for every node.
+     *
+     * @param key Base key of the limit
+     * @throws IllegalArgumentException if no limit has that key or the override is invalid for it
+     */
+    public void put(String key, LimitOverride override) {
+        registry.validateOverride(key, override);
+        redisTemplate.opsForHash().put(HASH_KEY, key, override.toString());
+        redisTemplate.convertAndSend(CHANNEL, key);
+        reload();
+    }
+
+    /**
+     * Drop an override for every node—the annotation's count and time apply again.
+     */
+    public void remove(String key) {
+        redisTemplate.opsForHash().delete(HASH_KEY, key);
+        redisTemplate.convertAndSend(CHANNEL, key);
+        reload();
+    }
+
+    /**
+     * Re-read the hash and swap in the new table. Synchronized so that a slow read cannot overwrite a newer
+     * table; only writers and notifications contend here, never rate-limited calls.
+     */
+    public synchronized void reload() {
+        Map<Object, Object> entries;
+        try {
+            entries = redisTemplate.opsForHash().entries(HASH_KEY);
+        } catch (DataAccessException e) {
+            log.warn("Could not read rate limit overrides, keeping the current ones: {}", e.getMessage());
+            return;
+        }
+        Map<String, LimitOverride> overrides = new HashMap<>();
+        entries.forEach((field, value) -> {
+            try {
+                overrides.put(field.toString(), LimitOverride.parse(value.toString()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring rate limit override {}: {}", field, e.getMessage());
+            }
+        });
+        if (!overrides.equals(registry.getOverrides())) {
+            registry.applyOverrides(overrides);
+            denialCache.clear();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+}
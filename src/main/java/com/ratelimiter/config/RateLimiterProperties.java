@@ -0,0 +1,392 @@
+package com.ratelimiter.config;
+
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.annotation.FailurePolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * rate-limiter.* settings—behaviour of the limiter when Redis is slow or unavailable, and local caches.
+ */
+@ConfigurationProperties(prefix = "rate-limiter")
+public class RateLimiterProperties {
+
+    /**
+     * Default Redis latency budget in milliseconds for limits with redisTimeoutMillis = -1, 0 = none
+     */
+    private long redisTimeoutMillis = 5;
+
+    /**
+     * Estimated number of application nodes sharing each limit; LOCAL_APPROXIMATE enforces limit / estimatedNodes
+     */
+    private int estimatedNodes = 1;
+
+    /**
+     * Maximum number of keys tracked by the local fallback limiter
+     */
+    private int localMaxKeys = 10_000;
+
+    /**
+     * Maximum number of keys remembered as "denied until" by the local denial cache, 0 disables it
+     */
+    private int denialCacheMaxKeys = 10_000;
+
+    /**
+     * Breaker around Redis itself—while open, limits go straight to their failure policy
+     */
+    private final Health health = new Health();
+
+    /**
+     * Path-based limits enforced by a servlet filter before Spring MVC dispatch
+     */
+    private final Filter filter = new Filter();
+
+    /**
+     * Per-node detection of the keys driving limiter traffic
+     */
+    private final HeavyHitters heavyHitters = new HeavyHitters();
+
+    public long getRedisTimeoutMillis() {
+        return redisTimeoutMillis;
+    }
+
+    public void setRedisTimeoutMillis(long redisTimeoutMillis) {
+        this.redisTimeoutMillis = redisTimeoutMillis;
+    }
+
+    public int getEstimatedNodes() {
+        return estimatedNodes;
+    }
+
+    public void setEstimatedNodes(int estimatedNodes) {
+        this.estimatedNodes = estimatedNodes;
+    }
+
+    public int getLocalMaxKeys() {
+        return localMaxKeys;
+    }
+
+    public void setLocalMaxKeys(int localMaxKeys) {
+        this.localMaxKeys = localMaxKeys;
+    }
+
+    public int getDenialCacheMaxKeys() {
+        return denialCacheMaxKeys;
+    }
+
+    public void setDenialCacheMaxKeys(int denialCacheMaxKeys) {
+        this.denialCacheMaxKeys = denialCacheMaxKeys;
+    }
+
+    public Health getHealth() {
+        return health;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    public HeavyHitters getHeavyHitters() {
+        return heavyHitters;
+    }
+
+    /**
+     * Same semantics as the @CircuitBreaker attributes, applied to Redis calls (timeouts count as failures).
+     */
+    public static class Health {
+
+        private double failureThreshold = 0.5;
+        private int windowSeconds = 10;
+        private int openSeconds = 5;
+        private int minRequests = 20;
+
+        public double getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(double failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public int getWindowSeconds() {
+            return windowSeconds;
+        }
+
+        public void setWindowSeconds(int windowSeconds) {
+            this.windowSeconds = windowSeconds;
+        }
+
+        public int getOpenSeconds() {
+            return openSeconds;
+        }
+
+        public void setOpenSeconds(int openSeconds) {
+            this.openSeconds = openSeconds;
+        }
+
+        public int getMinRequests() {
+            return minRequests;
+        }
+
+        public void setMinRequests(int minRequests) {
+            this.minRequests = minRequests;
+        }
+    }
+
+    /**
+     * rate-limiter.heavy-hitters.*—Count-Min Sketch and top-K of @RateLimit keys, in fixed memory.
+     */
+    public static class HeavyHitters {
+
+        private boolean enabled = true;
+
+        /**
+         * Sketch rows; each more makes an overestimate half as likely
+         */
+        private int depth = 4;
+
+        /**
+         * Counters per row (rounded up to a power of two); overestimates stay within 2 / width of all calls
+         */
+        private int width = 2048;
+
+        /**
+         * Busiest keys kept as candidates
+         */
+        private int topK = 16;
+
+        /**
+         * Share of calls (0 ~ 1) from which a key is a heavy hitter
+         */
+        private double threshold = 0.1;
+
+        /**
+         * Estimated calls a key needs before it can be a heavy hitter, so quiet periods flag nothing
+         */
+        private long minCalls = 100;
+
+        /**
+         * Counts are halved this often
+         */
+        private int decaySeconds = 10;
+
+        /**
+         * Reject heavy hitters locally once this node's share of their limit is used up
+         */
+        private boolean throttle = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public void setDepth(int depth) {
+            this.depth = depth;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public void setWidth(int width) {
+            this.width = width;
+        }
+
+        public int getTopK() {
+            return topK;
+        }
+
+        public void setTopK(int topK) {
+            this.topK = topK;
+        }
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(double threshold) {
+            this.threshold = threshold;
+        }
+
+        public long getMinCalls() {
+            return minCalls;
+        }
+
+        public void setMinCalls(long minCalls) {
+            this.minCalls = minCalls;
+        }
+
+        public int getDecaySeconds() {
+            return decaySeconds;
+        }
+
+        public void setDecaySeconds(int decaySeconds) {
+            this.decaySeconds = decaySeconds;
+        }
+
+        public boolean isThrottle() {
+            return throttle;
+        }
+
+        public void setThrottle(boolean throttle) {
+            this.throttle = throttle;
+        }
+    }
+
+    /**
+     * rate-limiter.filter.*—limits matched by path, HTTP method and header instead of @RateLimit.
+     */
+    public static class Filter {
+
+        private boolean enabled = false;
+
+        /**
+         * Rules compiled into a path trie at startup; the most specific matching rule applies
+         */
+        private List<Rule> rules = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<Rule> getRules() {
+            return rules;
+        }
+
+        public void setRules(List<Rule> rules) {
+            this.rules = rules;
+        }
+    }
+
+    /**
+     * One path-based limit—same limit semantics as the @RateLimit attributes of the same name.
+     */
+    public static class Rule {
+
+        /**
+         * Unique name, part of the Redis key rate:filter:&lt;name&gt;
+         */
+        private String name;
+
+        /**
+         * Path pattern: literal segments, * for one segment, ** (last) for any remaining segments
+         */
+        private String path;
+
+        /**
+         * HTTP methods the rule applies to, empty = all
+         */
+        private List<String> methods = new ArrayList<>();
+
+        /**
+         * Request header whose value gets its own limit (e.g. an API key); requests without it share one
+         */
+        private String header;
+
+        private int count = 10;
+        private int time = 60;
+
+        /**
+         * Time window when whole seconds are too coarse, e.g. 100ms—takes precedence over time
+         */
+        private Duration window;
+
+        private Algorithm algorithm = Algorithm.FIXED_WINDOW;
+        private FailurePolicy failurePolicy = FailurePolicy.LOCAL_APPROXIMATE;
+        private long redisTimeoutMillis = -1;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public void setHeader(String header) {
+            this.header = header;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public int getTime() {
+            return time;
+        }
+
+        public void setTime(int time) {
+            this.time = time;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(Algorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public FailurePolicy getFailurePolicy() {
+            return failurePolicy;
+        }
+
+        public void setFailurePolicy(FailurePolicy failurePolicy) {
+            this.failurePolicy = failurePolicy;
+        }
+
+        public long getRedisTimeoutMillis() {
+            return redisTimeoutMillis;
+        }
+
+        public void setRedisTimeoutMillis(long redisTimeoutMillis) {
+            this.redisTimeoutMillis = redisTimeoutMillis;
+        }
+    }
+}
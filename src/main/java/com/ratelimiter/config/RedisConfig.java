@@ -1,24 +1,98 @@
 package com.ratelimiter.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scripting.support.ResourceScriptSource;
 
+import java.util.List;
+
 /**
  * Redis configuration.
- * Preloads limit.lua as DefaultRedisScript Bean; Spring computes SHA1 at startup for caching.
- * Redis client uses EVALSHA for better performance.
+ * Preloads Lua scripts as DefaultRedisScript Beans; Spring computes SHA1 at startup for caching.
+ * Redis client uses EVALSHA for better performance. Limit scripts reply with a list of integers in one round trip.
  */
 @Configuration
+@EnableConfigurationProperties(RateLimiterProperties.class)
 public class RedisConfig {
 
+    /**
+     * Result type of the limit scripts—{allowed, remaining, resetMillis}, see RateLimitResult.
+     */
+    @SuppressWarnings("unchecked")
+    private static final Class<List<Long>> LIST_OF_LONGS = (Class<List<Long>>) (Class<?>) List.class;
+
+    /**
+     * Fixed window counter—Algorithm.FIXED_WINDOW.
+     */
     @Bean
-    public DefaultRedisScript<Long> limitScript() {
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("limit.lua")));
-        script.setResultType(Long.class);
+    public DefaultRedisScript<List<Long>> limitScript() {
+        return loadScript("limit.lua", LIST_OF_LONGS);
+    }
+
+    /**
+     * Sliding window counter—Algorithm.SLIDING_WINDOW_COUNTER.
+     */
+    @Bean
+    public DefaultRedisScript<List<Long>> slidingWindowScript() {
+        return loadScript("sliding_window.lua", LIST_OF_LONGS);
+    }
+
+    /**
+     * Token bucket—Algorithm.TOKEN_BUCKET.
+     */
+    @Bean
+    public DefaultRedisScript<List<Long>> tokenBucketScript() {
+        return loadScript("token_bucket.lua", LIST_OF_LONGS);
+    }
+
+    /**
+     * Generic cell rate algorithm—Algorithm.GCRA.
+     */
+    @Bean
+    public DefaultRedisScript<List<Long>> gcraScript() {
+        return loadScript("gcra.lua", LIST_OF_LONGS);
+    }
+
+    /**
+     * Fixed window counter stored as a hash field—KeyLayout.COMPACT.
+     */
+    @Bean
+    public DefaultRedisScript<List<Long>> compactLimitScript() {
+        return loadScript("compact_limit.lua", LIST_OF_LONGS);
+    }
+
+    /**
+     * Multi-key fixed windows—all-or-nothing check for repeated @RateLimit.
+     */
+    @Bean
+    public DefaultRedisScript<List<Long>> multiLimitScript() {
+        return loadScript("multi_limit.lua", LIST_OF_LONGS);
+    }
+
+    /**
+     * Batch acquisition script—grants min(requested, remaining) permits in one call and reports the window's
+     * remaining time.
+     */
+    @Bean
+    public DefaultRedisScript<List<Long>> acquireScript() {
+        return loadScript("acquire.lua", LIST_OF_LONGS);
+    }
+
+    /**
+     * Distributed bulkhead—grants a lease while fewer than maxConcurrent are live.
+     */
+    @Bean
+    public DefaultRedisScript<Long> bulkheadScript() {
+        return loadScript("bulkhead.lua", Long.class);
+    }
+
+    private static <T> DefaultRedisScript<T> loadScript(String path, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(resultType);
         return script;
     }
 }
@@ -1,10 +1,13 @@
 package com.ratelimiter.controller;
 
+import com.ratelimiter.annotation.Algorithm;
 import com.ratelimiter.annotation.CircuitBreaker;
 import com.ratelimiter.annotation.RateLimit;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 /**
  * Rate limiting and circuit breaker test endpoints.
@@ -47,11 +50,55 @@ public class TestController {
     }
 
     /**
-     * Rate limit + non-existent fallback—for testing invokeFallback exception branch.
+     * GCRA rate limit—for testing per-algorithm script selection.
      */
-    @GetMapping("/test-bad-fallback")
-    @RateLimit(count = 3, time = 60, fallbackMethod = "nonExistentMethod")
-    public String testBadFallback() {
+    @GetMapping("/test-gcra")
+    @RateLimit(count = 3, time = 60, algorithm = Algorithm.GCRA)
+    public String testGcra() {
         return "Success!";
     }
+
+    /**
+     * Per-endpoint + global limit on one method—for testing atomic multi-limit evaluation.
+     */
+    @GetMapping("/test-multi")
+    @RateLimit(count = 3, time = 60)
+    @RateLimit(key = "rate:global:", count = 100, time = 3600, fallbackMethod = "myFallback")
+    public String testMulti() {
+        return "Success!";
+    }
+
+    /**
+     * Per-caller rate limit keyed by request header—for testing keyExpression.
+     */
+    @GetMapping("/test-per-user")
+    @RateLimit(count = 3, time = 60, keyExpression = "header('X-User-Id')")
+    public String testPerUser() {
+        return "Success!";
+    }
+
+    /**
+     * Fallback receiving the original arguments—for testing argument-passing fallbacks.
+     */
+    @GetMapping("/test-fallback-args")
+    @RateLimit(count = 3, time = 60, fallbackMethod = "greetingFallback")
+    public String testFallbackArgs(@RequestParam String name) {
+        return "Hello, " + name + "!";
+    }
+
+    /**
+     * Fallback with the same parameters as testFallbackArgs.
+     */
+    public String greetingFallback(String name) {
+        return "Sorry " + name + ", please try again later";
+    }
+
+    /**
+     * Mono rate limit—for testing headers of a check that completes on another thread.
+     */
+    @GetMapping("/test-mono")
+    @RateLimit(count = 3, time = 60)
+    public Mono<String> testMono() {
+        return Mono.just("Success!");
+    }
 }
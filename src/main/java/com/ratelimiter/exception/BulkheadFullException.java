@@ -0,0 +1,15 @@
+package com.ratelimiter.exception;
+
+/**
+ * Thrown when a @Bulkhead method already has maxConcurrent calls in flight.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+
+    public BulkheadFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
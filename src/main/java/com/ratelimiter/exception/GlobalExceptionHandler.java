@@ -1,5 +1,6 @@
 package com.ratelimiter.exception;
 
+import com.ratelimiter.web.RateLimitHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -8,7 +9,9 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.Map;
 
 /**
- * Global exception handler—returns HTTP 429/503 with structured JSON error when rate limited or circuit open.
+ * Global exception handler—returns HTTP 429/503 with structured JSON error when rate limited, circuit open or
+ * bulkhead full.
+ * 429 responses carry RateLimit-* and Retry-After headers when the rejection reports its window.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -17,6 +20,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleRateLimitException(RateLimitException ex) {
         return ResponseEntity
                 .status(HttpStatus.TOO_MANY_REQUESTS)
+                .headers(RateLimitHeaders.of(ex.getResult()))
                 .body(Map.of(
                         "status", 429,
                         "code", "TOO_MANY_REQUESTS",
@@ -34,4 +38,15 @@ public class GlobalExceptionHandler {
                         "message", ex.getMessage() != null ? ex.getMessage() : "Service temporarily unavailable, please try again later"
                 ));
     }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, Object>> handleBulkheadFullException(BulkheadFullException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of(
+                        "status", 503,
+                        "code", "BULKHEAD_FULL",
+                        "message", ex.getMessage() != null ? ex.getMessage() : "Too many concurrent requests, please try again later"
+                ));
+    }
 }
@@ -1,15 +1,35 @@
 package com.ratelimiter.exception;
 
+import com.ratelimiter.service.RateLimitResult;
+
 /**
  * Thrown when request exceeds rate limit threshold.
  */
 public class RateLimitException extends RuntimeException {
 
+    private final transient RateLimitResult result;
+
     public RateLimitException(String message) {
+        this(message, (RateLimitResult) null);
+    }
+
+    /**
+     * @param result Rejection with the window figures reported by Redis, for the response headers
+     */
+    public RateLimitException(String message, RateLimitResult result) {
         super(message);
+        this.result = result;
     }
 
     public RateLimitException(String message, Throwable cause) {
         super(message, cause);
+        this.result = null;
+    }
+
+    /**
+     * Rejection details, or null when unknown
+     */
+    public RateLimitResult getResult() {
+        return result;
     }
 }
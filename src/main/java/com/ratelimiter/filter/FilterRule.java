@@ -0,0 +1,71 @@
+package com.ratelimiter.filter;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.metrics.LimitMeters;
+import com.ratelimiter.service.LimitRule;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Startup-compiled rate-limiter.filter rule—key, script arguments and meters resolved once, like LimitDefinition.
+ */
+final class FilterRule {
+
+    private static final String MISSING_HEADER = "_";
+
+    private final String name;
+    private final Set<String> methods;
+    private final String header;
+    private final LimitRule rule;
+    private final LimitMeters meters;
+
+    FilterRule(RateLimiterProperties.Rule properties, LimitMeters meters) {
+        this.name = properties.getName();
+        this.methods = properties.getMethods().stream()
+                .map(method -> method.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        String header = properties.getHeader();
+        this.header = header == null || header.isBlank() ? null : header;
+        long windowMillis = properties.getWindow() != null
+                ? properties.getWindow().toMillis()
+                : TimeUnit.SECONDS.toMillis(properties.getTime());
+        if (windowMillis < 1) {
+            throw new IllegalStateException("rate-limiter.filter rule '" + name
+                    + "' needs a window of at least one millisecond");
+        }
+        this.rule = LimitRule.of(key(name), properties.getCount(), windowMillis, properties.getAlgorithm())
+                .withFailurePolicy(properties.getFailurePolicy(), properties.getRedisTimeoutMillis());
+        this.meters = meters;
+    }
+
+    static String key(String name) {
+        return "rate:filter:" + name;
+    }
+
+    boolean appliesTo(String method) {
+        return methods.isEmpty() || methods.contains(method);
+    }
+
+    /**
+     * Rule for this request—per header value when the rule has a header.
+     */
+    LimitRule resolve(HttpServletRequest request) {
+        if (header == null) {
+            return rule;
+        }
+        String value = request.getHeader(header);
+        return rule.withEntity(value == null || value.isEmpty() ? MISSING_HEADER : value);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    LimitMeters getMeters() {
+        return meters;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ratelimiter.filter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Path patterns compiled into a segment trie—a lookup walks the request path once, so its cost depends on
+ * the path's depth rather than on the number of rules.
+ * <p>
+ * Literal segments take precedence over *, and * over **; among rules ending on the same node the
+ * first configured one whose HTTP methods match wins.
+ */
+final class PathRuleTable {
+
+    private final Node root = new Node();
+
+    /**
+     * @throws IllegalStateException for a pattern with ** before its last segment
+     */
+    void add(String pattern, FilterRule rule) {
+        String[] segments = segments(pattern);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalStateException("rate-limiter.filter rule '" + rule.getName()
+                            + "': ** is only supported as the last segment of " + pattern);
+                }
+                node.rest.add(rule);
+                return;
+            }
+            if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        node.rules.add(rule);
+    }
+
+    /**
+     * @param path   Request path without the context path
+     * @param method HTTP method
+     * @return most specific matching rule, or null
+     */
+    FilterRule match(String path, String method) {
+        return match(root, segments(path), 0, method);
+    }
+
+    private static FilterRule match(Node node, String[] segments, int index, String method) {
+        if (index == segments.length) {
+            FilterRule exact = first(node.rules, method);
+            return exact != null ? exact : first(node.rest, method);
+        }
+        Node literal = node.literals.get(segments[index]);
+        if (literal != null) {
+            FilterRule rule = match(literal, segments, index + 1, method);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        if (node.wildcard != null) {
+            FilterRule rule = match(node.wildcard, segments, index + 1, method);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return first(node.rest, method);
+    }
+
+    private static FilterRule first(List<FilterRule> rules, String method) {
+        for (FilterRule rule : rules) {
+            if (rule.appliesTo(method)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String[] segments(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    private static final class Node {
+        final Map<String, Node> literals = new HashMap<>();
+        Node wildcard;
+        final List<FilterRule> rules = new ArrayList<>();
+        final List<FilterRule> rest = new ArrayList<>();
+    }
+}
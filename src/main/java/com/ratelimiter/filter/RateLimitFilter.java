@@ -0,0 +1,85 @@
+package com.ratelimiter.filter;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.exception.RateLimitException;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import com.ratelimiter.service.RateLimitResult;
+import com.ratelimiter.service.RateLimitService;
+import com.ratelimiter.web.RateLimitHeaders;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Servlet filter mode—enforces rate-limiter.filter.rules before handler mapping, argument binding and
+ * AOP dispatch, so rejected requests cost only a trie lookup and the Redis check.
+ * Uses the same RateLimitService (scripts, denial cache, failure policies) as @RateLimit, and hands
+ * rejections to Spring MVC's exception resolvers so GlobalExceptionHandler renders the same 429.
+ * Admitted requests get RateLimit-* headers before the chain runs.
+ * <p>
+ * Rules match the decoded path within the application, without ;parameters and with "." and ".." segments
+ * resolved—the path the handler is mapped by—so /api/%6Cogin or /api/login;jsessionid=x cannot slip past a
+ * rule for /api/login.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rate-limiter.filter", name = "enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)  // After the observation filter, so rejections are still measured
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitService rateLimitService;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final PathRuleTable rules = new PathRuleTable();
+    // Decodes and removes ;parameters (defaults)
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    @Autowired
+    public RateLimitFilter(RateLimitService rateLimitService, RateLimiterProperties properties,
+                           RateLimiterMetrics metrics,
+                           @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        this.rateLimitService = rateLimitService;
+        this.exceptionResolver = exceptionResolver;
+        Set<String> names = new HashSet<>();
+        for (RateLimiterProperties.Rule rule : properties.getFilter().getRules()) {
+            if (rule.getName() == null || rule.getPath() == null || !names.add(rule.getName())) {
+                throw new IllegalStateException("rate-limiter.filter rules need a path and a unique name: "
+                        + rule.getName());
+            }
+            rules.add(rule.getPath(), new FilterRule(rule,
+                    metrics.limitMeters("filter:" + rule.getName(), FilterRule.key(rule.getName()))));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = StringUtils.cleanPath(urlPathHelper.getPathWithinApplication(request));
+        FilterRule rule = rules.match(path, request.getMethod());
+        if (rule != null) {
+            RateLimitResult result = rateLimitService.acquire(rule.resolve(request));
+            if (!result.isAllowed()) {
+                rule.getMeters().denied();
+                exceptionResolver.resolveException(request, response, null,
+                        new RateLimitException("Too many requests, please try again later", result));
+                return;
+            }
+            rule.getMeters().allowed();
+            RateLimitHeaders.write(response, result);
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,143 @@
+package com.ratelimiter.hotkey;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Count-Min Sketch—approximate call counts per key in a fixed depth x width grid of counters,
+ * however many distinct keys are counted.
+ * <p>
+ * A key maps to one counter per row; adding increments all of them and the estimate is the smallest. Rows are
+ * indexed by Kirsch–Mitzenmacher double hashing, h1 + row * h2, of the two halves of the 128-bit MurmurHash3 of
+ * the key's UTF-8 bytes—so keys with equal {@code String.hashCode()}s (such as "Aa" and "BB") still land apart. Collisions only ever add, so estimates never undercount: with width w and total
+ * count N, an estimate exceeds the true count by more than 2N/w with probability at most 2^-depth.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param depth Rows, each an independent estimate
+     * @param width Counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(depth * this.width);
+    }
+
+    /**
+     * Count one call.
+     *
+     * @return the key's estimated count including this call
+     */
+    public long add(String key) {
+        long[] hash = hash(key);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.incrementAndGet(index(row, hash)));
+        }
+        return min;
+    }
+
+    public long estimate(String key) {
+        long[] hash = hash(key);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(index(row, hash)));
+        }
+        return min;
+    }
+
+    /**
+     * Halve every counter, so that old calls weigh half as much as new ones. Calls counted concurrently
+     * are kept.
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            if (counters.get(i) != 0) {
+                counters.updateAndGet(i, count -> count >>> 1);
+            }
+        }
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    private int index(int row, long[] hash) {
+        return row * width + (int) ((hash[0] + row * hash[1]) & mask);
+    }
+
+    /**
+     * MurmurHash3 x64 128 (seed 0) of the key's UTF-8 bytes—h1 and h2, with h2 made odd so every row steps.
+     */
+    static long[] hash(String key) {
+        byte[] data = key.getBytes(StandardCharsets.UTF_8);
+        int blocks = data.length >>> 4;
+        long h1 = 0;
+        long h2 = 0;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i << 4);
+            long k2 = getLong(data, (i << 4) + 8);
+            h1 ^= mixK1(k1);
+            h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52DCE729;
+            h2 ^= mixK2(k2);
+            h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495AB5;
+        }
+
+        int tail = blocks << 4;
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = data.length - 1; i >= tail + 8; i--) {
+            k2 = (k2 << 8) | (data[i] & 0xFFL);
+        }
+        for (int i = Math.min(data.length, tail + 8) - 1; i >= tail; i--) {
+            k1 = (k1 << 8) | (data[i] & 0xFFL);
+        }
+        h1 ^= mixK1(k1);
+        h2 ^= mixK2(k2);
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[] {h1, h2 | 1};
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * 0x87C37B91114253D5L, 31) * 0x4CF5AD432745937FL;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * 0x4CF5AD432745937FL, 33) * 0x87C37B91114253D5L;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        return k ^ (k >>> 33);
+    }
+}
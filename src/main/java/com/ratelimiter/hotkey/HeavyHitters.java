@@ -0,0 +1,271 @@
+package com.ratelimiter.hotkey;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.LocalRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Keys driving this node's rate limit traffic—every limit key checked by RateLimitAspect is counted in a
+ * CountMinSketch, and the keys with the highest estimates are kept in a fixed array of top-K candidates.
+ * Memory is the same however many keys there are: depth x width counters plus top-K entries.
+ * <p>
+ * Counting a call is a few atomic increments; the candidates are scanned only when a key's estimate reaches the
+ * smallest candidate's. Every rate-limiter.heavy-hitters.decay-seconds, the caller that wins a CAS on the decay
+ * deadline halves all counts, so estimates follow recent traffic. A key is a heavy hitter once its share of the
+ * (decayed) calls reaches rate-limiter.heavy-hitters.threshold.
+ * <p>
+ * With rate-limiter.heavy-hitters.throttle, heavy hitters are also checked against this node's share of their
+ * limit (LocalRateLimiter, limit / estimated-nodes) and rejected without a Redis call once it is used up.
+ */
+@Component
+public class HeavyHitters implements MeterBinder {
+
+    private static final String THROTTLE_KEY_PREFIX = "heavy:";
+
+    private final boolean enabled;
+    private final boolean throttle;
+    private final double threshold;
+    private final long minCalls;
+    private final long decayMillis;
+    private final LocalRateLimiter localRateLimiter;
+    private final LongSupplier clock;
+
+    private final CountMinSketch sketch;
+    private final AtomicReferenceArray<Candidate> candidates;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final AtomicLong nextDecay;
+    // Smallest candidate count once every slot is taken; lower estimates skip the candidate scan
+    private volatile long admissionFloor;
+
+    @Autowired
+    public HeavyHitters(RateLimiterProperties properties, LocalRateLimiter localRateLimiter) {
+        this(properties.getHeavyHitters(), localRateLimiter, System::currentTimeMillis);
+    }
+
+    HeavyHitters(RateLimiterProperties.HeavyHitters properties, LocalRateLimiter localRateLimiter,
+                 LongSupplier clock) {
+        validate(properties);
+        this.enabled = properties.isEnabled();
+        this.throttle = properties.isThrottle();
+        this.threshold = properties.getThreshold();
+        this.minCalls = properties.getMinCalls();
+        this.decayMillis = TimeUnit.SECONDS.toMillis(properties.getDecaySeconds());
+        this.localRateLimiter = localRateLimiter;
+        this.clock = clock;
+        this.sketch = new CountMinSketch(properties.getDepth(), properties.getWidth());
+        this.candidates = new AtomicReferenceArray<>(properties.getTopK());
+        this.nextDecay = new AtomicLong(clock.getAsLong() + decayMillis);
+    }
+
+    private static void validate(RateLimiterProperties.HeavyHitters properties) {
+        String problem = null;
+        if (properties.getDepth() < 1 || properties.getWidth() < 1 || properties.getTopK() < 1) {
+            problem = "depth, width and top-k must be at least 1";
+        } else if (properties.getThreshold() <= 0 || properties.getThreshold() > 1) {
+            problem = "threshold must be a share of traffic in (0, 1]";
+        } else if (properties.getDecaySeconds() < 1) {
+            problem = "decay-seconds must be at least 1";
+        }
+        if (problem != null) {
+            throw new IllegalStateException("rate-limiter.heavy-hitters: " + problem);
+        }
+    }
+
+    /**
+     * Count a call for the rule's key and, with throttling on, check a heavy hitter against this node's share.
+     *
+     * @return true if the call must be rejected locally
+     */
+    public boolean throttle(LimitRule rule) {
+        if (!enabled) {
+            return false;
+        }
+        long calls = record(rule.key());
+        if (!throttle || !isHeavy(calls)
+                || localRateLimiter.tryAcquire(THROTTLE_KEY_PREFIX + rule.key(), rule.limit(), rule.windowMillis(),
+                        rule.cost())) {
+            return false;
+        }
+        throttled.increment();
+        return true;
+    }
+
+    /**
+     * Count one call for key.
+     *
+     * @return the key's estimated (decayed) call count
+     */
+    long record(String key) {
+        long now = clock.getAsLong();
+        long due = nextDecay.get();
+        if (now >= due && nextDecay.compareAndSet(due, now + decayMillis)) {
+            decay();
+        }
+        total.increment();
+        long calls = sketch.add(key);
+        if (calls >= admissionFloor) {
+            offer(key, calls);
+        }
+        return calls;
+    }
+
+    /**
+     * Raise key's candidate, or replace the smallest candidate with it. Racing callers may leave the same key in
+     * two slots or lose an update to another key; reads merge duplicates, and the next call corrects the rest.
+     */
+    private void offer(String key, long calls) {
+        int smallest = -1;
+        Candidate smallestCandidate = null;
+        long floor = Long.MAX_VALUE;
+        for (int i = 0; i < candidates.length(); i++) {
+            Candidate candidate = candidates.get(i);
+            if (candidate == null) {
+                if (candidates.compareAndSet(i, null, new Candidate(key, calls))) {
+                    return;
+                }
+                candidate = candidates.get(i);
+                if (candidate == null) {
+                    continue;
+                }
+            }
+            if (candidate.key.equals(key)) {
+                if (calls > candidate.calls) {
+                    candidates.compareAndSet(i, candidate, new Candidate(key, calls));
+                }
+                return;
+            }
+            if (candidate.calls < floor) {
+                floor = candidate.calls;
+                smallest = i;
+                smallestCandidate = candidate;
+            }
+        }
+        if (calls > floor) {
+            candidates.compareAndSet(smallest, smallestCandidate, new Candidate(key, calls));
+        }
+        admissionFloor = floor;
+    }
+
+    private void decay() {
+        sketch.decay();
+        long sum = total.sumThenReset();
+        total.add(sum / 2);
+        for (int i = 0; i < candidates.length(); i++) {
+            Candidate candidate = candidates.get(i);
+            if (candidate != null) {
+                candidates.compareAndSet(i, candidate,
+                        candidate.calls > 1 ? new Candidate(candidate.key, candidate.calls / 2) : null);
+            }
+        }
+        admissionFloor = 0;
+    }
+
+    private boolean isHeavy(long calls) {
+        return calls >= minCalls && calls >= threshold * total.sum();
+    }
+
+    /**
+     * Top-K candidates by estimated calls, highest first.
+     */
+    public List<HeavyHitter> getTopKeys() {
+        Map<String, Long> byKey = new HashMap<>();
+        for (int i = 0; i < candidates.length(); i++) {
+            Candidate candidate = candidates.get(i);
+            if (candidate != null) {
+                byKey.merge(candidate.key, candidate.calls, Math::max);
+            }
+        }
+        long totalCalls = Math.max(1, total.sum());
+        List<HeavyHitter> keys = new ArrayList<>(byKey.size());
+        byKey.forEach((key, calls) ->
+                keys.add(new HeavyHitter(key, calls, (double) calls / totalCalls, isHeavy(calls))));
+        keys.sort(Comparator.comparingLong(HeavyHitter::calls).reversed());
+        return keys;
+    }
+
+    /**
+     * Candidates currently over the threshold, highest first.
+     */
+    public List<HeavyHitter> getHeavyHitters() {
+        return getTopKeys().stream().filter(HeavyHitter::heavy).toList();
+    }
+
+    /**
+     * Calls counted, halved at every decay
+     */
+    public long getTotalCalls() {
+        return total.sum();
+    }
+
+    /**
+     * Calls rejected locally by the pre-throttle
+     */
+    public long getThrottledCalls() {
+        return throttled.sum();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isThrottling() {
+        return throttle;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Per-key tags would grow without bound: keys are listed by /actuator/heavyhitters instead
+        Gauge.builder("ratelimiter.heavy.hitters", this, hitters -> hitters.getHeavyHitters().size())
+                .description("Rate limit keys whose share of calls is over the heavy hitter threshold")
+                .register(registry);
+        Gauge.builder("ratelimiter.heavy.hitters.top.share", this, hitters -> hitters.getTopKeys().stream()
+                        .mapToDouble(HeavyHitter::share).max().orElse(0))
+                .description("Estimated share of calls of the busiest rate limit key")
+                .register(registry);
+        FunctionCounter.builder("ratelimiter.heavy.hitters.throttled", this, HeavyHitters::getThrottledCalls)
+                .description("Calls of heavy hitter keys rejected locally without calling Redis")
+                .register(registry);
+    }
+
+    /**
+     * One top-K key.
+     *
+     * @param calls Estimated (decayed) calls; may overcount, never undercounts
+     * @param share calls / all calls counted
+     * @param heavy Whether share is over the threshold
+     */
+    public record HeavyHitter(String key, long calls, double share, boolean heavy) {
+    }
+
+    private static final class Candidate {
+        final String key;
+        final long calls;
+
+        Candidate(String key, long calls) {
+            this.key = key;
+            this.calls = calls;
+        }
+    }
+}
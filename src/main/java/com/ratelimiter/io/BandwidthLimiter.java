@@ -0,0 +1,193 @@
+package com.ratelimiter.io;
+
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.RateLimitResult;
+import com.ratelimiter.service.RateLimitService;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Byte permits for throttled streams and channels—a local lease refilled through RateLimitService one chunk at a
+ * time (LimitRule.withCost(chunk), one script call per chunk rather than per buffer), spent at no more than the
+ * rule's rate.
+ * <p>
+ * When Redis has fewer permits left than a chunk, what is left is leased instead; when it has none, the caller
+ * sleeps for the reset time the script reported. Leased bytes are paced like a local token bucket holding one
+ * chunk and refilled at limit bytes per window, so a transfer runs smoothly instead of a window's worth at a
+ * time. TOKEN_BUCKET and GCRA rules (LimitRule.tokenBucket) also refill Redis continuously, so concurrent
+ * transfers sharing a key are paced as well.
+ * <p>
+ * Permits still leased when a transfer ends are not given back; they expire with the window in Redis.
+ * Thread-safe: a lock guards only the leased count and the pacing deadline. Redis calls and sleeps happen outside
+ * it, so threads sharing a limiter reserve their pacing in turn but wait concurrently.
+ */
+public final class BandwidthLimiter {
+
+    /**
+     * Default chunk: this fraction of the limit is leased per Redis call
+     */
+    public static final int DEFAULT_CHUNKS_PER_LIMIT = 20;
+
+    private final RateLimitService rateLimitService;
+    private final LimitRule rule;
+    private final long chunkBytes;
+    private final double nanosPerByte;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final Pause pause;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private long leased;
+    private long pacedUntil;
+
+    /**
+     * Limiter leasing a twentieth of the limit per Redis call.
+     *
+     * @param rule Byte limit: limit bytes per window
+     */
+    public BandwidthLimiter(RateLimitService rateLimitService, LimitRule rule) {
+        this(rateLimitService, rule, rule.limit() / DEFAULT_CHUNKS_PER_LIMIT);
+    }
+
+    /**
+     * @param rule       Byte limit: limit bytes per window
+     * @param chunkBytes Bytes leased per Redis call, between 1 and the limit—of one shard for sharded rules, as a
+     *                   larger chunk would be rejected by every shard
+     */
+    public BandwidthLimiter(RateLimitService rateLimitService, LimitRule rule, long chunkBytes) {
+        this(rateLimitService, rule, chunkBytes, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    BandwidthLimiter(RateLimitService rateLimitService, LimitRule rule, long chunkBytes,
+                     LongSupplier nanoClock, Pause pause) {
+        this.rateLimitService = rateLimitService;
+        this.rule = rule;
+        this.chunkBytes = Math.max(1, Math.min(chunkBytes, rule.limit() / rule.shards()));
+        this.nanosPerByte = (double) TimeUnit.MILLISECONDS.toNanos(rule.windowMillis()) / rule.limit();
+        this.burstNanos = (long) (this.chunkBytes * nanosPerByte);
+        this.nanoClock = nanoClock;
+        this.pause = pause;
+        this.pacedUntil = nanoClock.getAsLong() - burstNanos;
+    }
+
+    /**
+     * Take bytes permits, waiting for Redis and for pacing as needed.
+     *
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    public void acquire(long bytes) throws InterruptedIOException {
+        long needed = bytes;
+        while (needed > 0) {
+            long taken;
+            long wait = 0;
+            lock.lock();
+            try {
+                taken = Math.min(needed, leased);
+                if (taken > 0) {
+                    leased -= taken;
+                    wait = pace(taken);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (taken == 0) {
+                long chunk = lease();
+                lock.lock();
+                try {
+                    leased += chunk;
+                } finally {
+                    lock.unlock();
+                }
+                continue;
+            }
+            needed -= taken;
+            if (wait > 0) {
+                sleep(wait);
+            }
+        }
+    }
+
+    /**
+     * Give back permits taken but not used, e.g. when a non-blocking channel accepted fewer bytes.
+     */
+    public void release(long bytes) {
+        if (bytes > 0) {
+            lock.lock();
+            try {
+                leased += bytes;
+                pacedUntil -= (long) (bytes * nanosPerByte);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lease a chunk from Redis, or whatever is left of it, waiting for a reset when nothing is. Called without the
+     * lock: concurrent callers may each lease a chunk, and the extra permits are spent by later calls.
+     *
+     * @return bytes leased
+     */
+    private long lease() throws InterruptedIOException {
+        long request = chunkBytes;
+        while (true) {
+            RateLimitResult result = rateLimitService.acquire(rule.withCost(request));
+            if (result.isAllowed()) {
+                return request;
+            }
+            if (result.getRemaining() > 0 && result.getRemaining() < request) {
+                // Fewer permits left than a chunk: take those rather than wait for the whole chunk
+                request = result.getRemaining();
+                continue;
+            }
+            request = chunkBytes;
+            // Failure policies report no reset time: retry after the time the chunk would take at the limit
+            sleep(result.getResetMillis() > 0 ? TimeUnit.MILLISECONDS.toNanos(result.getResetMillis()) : burstNanos);
+        }
+    }
+
+    /**
+     * GCRA over leased bytes: each byte moves pacedUntil on by nanosPerByte, and the caller waits for whatever
+     * runs more than one chunk ahead of now. Called with the lock held; the caller sleeps after releasing it.
+     *
+     * @return nanos to wait
+     */
+    private long pace(long bytes) {
+        long now = nanoClock.getAsLong();
+        pacedUntil = Math.max(pacedUntil, now - burstNanos) + (long) (bytes * nanosPerByte);
+        return pacedUntil - now;
+    }
+
+    private void sleep(long nanos) throws InterruptedIOException {
+        try {
+            pause.pause(Math.max(1, nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting for byte permits");
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+    }
+
+    /**
+     * Bytes leased per Redis call—also the largest piece the throttled streams pass on at once
+     */
+    public long getChunkBytes() {
+        return chunkBytes;
+    }
+
+    public LimitRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Sleep, replaceable in tests.
+     */
+    interface Pause {
+        void pause(long nanos) throws InterruptedException;
+    }
+}
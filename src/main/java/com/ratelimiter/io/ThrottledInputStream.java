@@ -0,0 +1,46 @@
+package com.ratelimiter.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * InputStream paced by a BandwidthLimiter—bytes are paid for once read (and skipped), reads are capped at one
+ * chunk so a large buffer cannot run far ahead of the limit.
+ */
+public class ThrottledInputStream extends FilterInputStream {
+
+    private final BandwidthLimiter limiter;
+
+    public ThrottledInputStream(InputStream in, BandwidthLimiter limiter) {
+        super(in);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            limiter.acquire(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, (int) Math.min(len, limiter.getChunkBytes()));
+        if (read > 0) {
+            limiter.acquire(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(Math.min(n, limiter.getChunkBytes()));
+        if (skipped > 0) {
+            limiter.acquire(skipped);
+        }
+        return skipped;
+    }
+}
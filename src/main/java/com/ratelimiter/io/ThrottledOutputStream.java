@@ -0,0 +1,38 @@
+package com.ratelimiter.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * OutputStream paced by a BandwidthLimiter—writes are passed on in pieces of at most one chunk, each once its
+ * bytes are paid for.
+ */
+public class ThrottledOutputStream extends FilterOutputStream {
+
+    private final BandwidthLimiter limiter;
+
+    public ThrottledOutputStream(OutputStream out, BandwidthLimiter limiter) {
+        super(out);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        limiter.acquire(1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        while (len > 0) {
+            int piece = (int) Math.min(len, limiter.getChunkBytes());
+            limiter.acquire(piece);
+            out.write(b, off, piece);
+            off += piece;
+            len -= piece;
+        }
+    }
+}
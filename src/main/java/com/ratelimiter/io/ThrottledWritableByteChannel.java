@@ -0,0 +1,54 @@
+package com.ratelimiter.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * WritableByteChannel paced by a BandwidthLimiter—the buffer is written in pieces of at most one chunk, each
+ * once its bytes are paid for. Bytes a non-blocking channel does not accept are given back to the limiter, and
+ * the write returns early as the channel's own would.
+ */
+public class ThrottledWritableByteChannel implements WritableByteChannel {
+
+    private final WritableByteChannel channel;
+    private final BandwidthLimiter limiter;
+
+    public ThrottledWritableByteChannel(WritableByteChannel channel, BandwidthLimiter limiter) {
+        this.channel = channel;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        int total = 0;
+        while (src.hasRemaining()) {
+            int piece = (int) Math.min(src.remaining(), limiter.getChunkBytes());
+            limiter.acquire(piece);
+            int limit = src.limit();
+            int written = 0;
+            src.limit(src.position() + piece);
+            try {
+                written = channel.write(src);
+            } finally {
+                src.limit(limit);
+                limiter.release(piece - written);
+            }
+            total += written;
+            if (written < piece) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
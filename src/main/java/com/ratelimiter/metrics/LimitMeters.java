@@ -0,0 +1,31 @@
+package com.ratelimiter.metrics;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Counters of one @RateLimit (or @Bulkhead), registered once at startup so the aspect only increments them.
+ */
+public final class LimitMeters {
+
+    private final Counter allowed;
+    private final Counter denied;
+    private final Counter fallback;
+
+    LimitMeters(Counter allowed, Counter denied, Counter fallback) {
+        this.allowed = allowed;
+        this.denied = denied;
+        this.fallback = fallback;
+    }
+
+    public void allowed() {
+        allowed.increment();
+    }
+
+    public void denied() {
+        denied.increment();
+    }
+
+    public void fallback() {
+        fallback.increment();
+    }
+}
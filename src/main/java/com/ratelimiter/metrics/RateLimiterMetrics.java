@@ -0,0 +1,166 @@
+package com.ratelimiter.metrics;
+
+import com.ratelimiter.adaptive.AdaptiveLimiter;
+import com.ratelimiter.breaker.CircuitState;
+import com.ratelimiter.bulkhead.LocalBulkhead;
+import com.ratelimiter.breaker.CircuitState.State;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Registers the limiter's meters—called while metadata is built at startup, never on the hot path.
+ * <ul>
+ *     <li>ratelimiter.calls (method, key, outcome=allowed|denied) and ratelimiter.fallbacks (method, key)</li>
+ *     <li>ratelimiter.redis.script (script)—script latency with p50/p95/p99 and a percentile histogram</li>
+ *     <li>ratelimiter.circuit.state (name)—0 CLOSED, 1 OPEN, 2 HALF_OPEN</li>
+ *     <li>ratelimiter.circuit.transitions (name, from, to)</li>
+ *     <li>ratelimiter.bulkhead.calls (method, outcome=permitted|rejected), ratelimiter.bulkhead.fallbacks (method)
+ *     and ratelimiter.bulkhead.in.flight (method)—LOCAL bulkheads only</li>
+ *     <li>ratelimiter.adaptive.calls (method, outcome=allowed|rejected), ratelimiter.adaptive.fallbacks (method),
+ *     ratelimiter.adaptive.limit (method) and ratelimiter.adaptive.in.flight (method)</li>
+ * </ul>
+ */
+@Component
+public class RateLimiterMetrics {
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public RateLimiterMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Counters of one @RateLimit.
+     *
+     * @param methodKey className.methodName
+     * @param key       Precomputed Redis key (without per-call key expression suffix)
+     */
+    public LimitMeters limitMeters(String methodKey, String key) {
+        return new LimitMeters(
+                Counter.builder("ratelimiter.calls")
+                        .description("Rate limit checks by outcome")
+                        .tags("method", methodKey, "key", key, "outcome", "allowed")
+                        .register(registry),
+                Counter.builder("ratelimiter.calls")
+                        .description("Rate limit checks by outcome")
+                        .tags("method", methodKey, "key", key, "outcome", "denied")
+                        .register(registry),
+                Counter.builder("ratelimiter.fallbacks")
+                        .description("Fallback methods invoked after a rejection")
+                        .tags("method", methodKey, "key", key)
+                        .register(registry));
+    }
+
+    /**
+     * Counters of one @Bulkhead—permitted and rejected calls, and fallbacks.
+     *
+     * @param methodKey className.methodName
+     */
+    public LimitMeters bulkheadMeters(String methodKey) {
+        return new LimitMeters(
+                Counter.builder("ratelimiter.bulkhead.calls")
+                        .description("Bulkhead admissions by outcome")
+                        .tags("method", methodKey, "outcome", "permitted")
+                        .register(registry),
+                Counter.builder("ratelimiter.bulkhead.calls")
+                        .description("Bulkhead admissions by outcome")
+                        .tags("method", methodKey, "outcome", "rejected")
+                        .register(registry),
+                Counter.builder("ratelimiter.bulkhead.fallbacks")
+                        .description("Fallback methods invoked after a full bulkhead")
+                        .tags("method", methodKey)
+                        .register(registry));
+    }
+
+    /**
+     * In-flight gauge of a LOCAL bulkhead.
+     */
+    public void bindBulkhead(String methodKey, LocalBulkhead bulkhead) {
+        Gauge.builder("ratelimiter.bulkhead.in.flight", bulkhead, LocalBulkhead::inFlight)
+                .description("Calls currently holding a bulkhead permit")
+                .tag("method", methodKey)
+                .register(registry);
+    }
+
+    /**
+     * Counters of one @AdaptiveLimit—admitted and rejected calls, and fallbacks.
+     *
+     * @param methodKey className.methodName
+     */
+    public LimitMeters adaptiveLimitMeters(String methodKey) {
+        return new LimitMeters(
+                Counter.builder("ratelimiter.adaptive.calls")
+                        .description("Adaptive limit admissions by outcome")
+                        .tags("method", methodKey, "outcome", "allowed")
+                        .register(registry),
+                Counter.builder("ratelimiter.adaptive.calls")
+                        .description("Adaptive limit admissions by outcome")
+                        .tags("method", methodKey, "outcome", "rejected")
+                        .register(registry),
+                Counter.builder("ratelimiter.adaptive.fallbacks")
+                        .description("Fallback methods invoked after an adaptive limit rejection")
+                        .tags("method", methodKey)
+                        .register(registry));
+    }
+
+    /**
+     * Current limit and in-flight gauges of an @AdaptiveLimit.
+     */
+    public void bindAdaptiveLimit(String methodKey, AdaptiveLimiter limiter) {
+        Gauge.builder("ratelimiter.adaptive.limit", limiter, AdaptiveLimiter::getLimit)
+                .description("Concurrent calls currently allowed by the adaptive limit")
+                .tag("method", methodKey)
+                .register(registry);
+        Gauge.builder("ratelimiter.adaptive.in.flight", limiter, AdaptiveLimiter::getInFlight)
+                .description("Calls currently admitted by the adaptive limit")
+                .tag("method", methodKey)
+                .register(registry);
+    }
+
+    /**
+     * Latency of one Lua script.
+     */
+    public Timer scriptTimer(String script) {
+        return Timer.builder("ratelimiter.redis.script")
+                .description("Redis Lua script round trip")
+                .tag("script", script)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * State gauge and transition counters of a circuit breaker.
+     *
+     * @param name Protected method key, or "redis" for the breaker around Redis
+     */
+    public void bindCircuit(String name, CircuitState state) {
+        Gauge.builder("ratelimiter.circuit.state", state, circuit -> circuit.getState().ordinal())
+                .description("Circuit state: 0 CLOSED, 1 OPEN, 2 HALF_OPEN")
+                .tag("name", name)
+                .register(registry);
+
+        Map<State, Map<State, Counter>> transitions = new EnumMap<>(State.class);
+        for (State from : State.values()) {
+            Map<State, Counter> byTarget = new EnumMap<>(State.class);
+            for (State to : State.values()) {
+                if (from != to) {
+                    byTarget.put(to, Counter.builder("ratelimiter.circuit.transitions")
+                            .description("Circuit state transitions")
+                            .tags("name", name, "from", from.name(), "to", to.name())
+                            .register(registry));
+                }
+            }
+            transitions.put(from, byTarget);
+        }
+        state.setTransitionListener((from, to) -> transitions.get(from).get(to).increment());
+    }
+}
@@ -0,0 +1,156 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local "denied until" near-cache—when a script rejects a key it reports how long the rejection will last,
+ * and later calls for that key are rejected in-process until then, without a Redis round trip.
+ * Bounded by rate-limiter.denial-cache-max-keys; entries expire on read, and a full cache evicts a tenth of its
+ * entries at a time.
+ */
+@Component
+public class DenialCache implements MeterBinder {
+
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, Long> deniedUntil = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    @Autowired
+    public DenialCache(RateLimiterProperties properties) {
+        this.maxKeys = properties.getDenialCacheMaxKeys();
+    }
+
+    /**
+     * @return true if the key was rejected by Redis and its rejection has not expired yet
+     */
+    public boolean isDenied(String key) {
+        return deniedMillis(key) > 0;
+    }
+
+    /**
+     * @return milliseconds the key's rejection still lasts (at least 1), or 0 if it is not denied
+     */
+    public long deniedMillis(String key) {
+        Long until = deniedUntil.get(key);
+        if (until != null) {
+            long left = until - System.nanoTime();
+            if (left > 0) {
+                hits.increment();
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(left));
+            }
+            deniedUntil.remove(key, until);
+        }
+        misses.increment();
+        return 0;
+    }
+
+    /**
+     * Remember a rejection.
+     *
+     * @param key          Rate limit key
+     * @param deniedMillis How long Redis will keep rejecting the key, 0 = unknown (not cached)
+     */
+    public void deny(String key, long deniedMillis) {
+        if (deniedMillis <= 0 || maxKeys <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (deniedUntil.size() >= maxKeys) {
+            evict(now);
+            if (deniedUntil.size() >= maxKeys) {
+                // Another caller is evicting: the key is still protected by Redis itself
+                return;
+            }
+        }
+        deniedUntil.put(key, now + TimeUnit.MILLISECONDS.toNanos(deniedMillis));
+    }
+
+    /**
+     * Make room for new denials. One caller evicts at a time and frees a batch, so a full cache is not rescanned
+     * on every rejection; the others skip caching meanwhile.
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            deniedUntil.values().removeIf(until -> until - now <= 0);
+            int excess = deniedUntil.size() - maxKeys + Math.max(1, maxKeys / 10);
+            if (excess <= 0) {
+                return;
+            }
+            // Still full of live denials: drop those ending soonest, the fewest Redis calls to lose
+            Denial[] denials = deniedUntil.entrySet().stream()
+                    .map(entry -> new Denial(entry.getKey(), entry.getValue()))
+                    .toArray(Denial[]::new);
+            Arrays.sort(denials, Comparator.comparingLong(denial -> denial.until() - now));
+            for (int i = 0; i < Math.min(excess, denials.length); i++) {
+                deniedUntil.remove(denials[i].key(), denials[i].until());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Forget every rejection—limits changed, so the remembered windows may no longer apply.
+     */
+    public void clear() {
+        deniedUntil.clear();
+    }
+
+    /**
+     * Calls answered locally—each one is a Redis round trip saved.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        return deniedUntil.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ratelimiter.denial.cache.redis.calls.saved", this, DenialCache::getHits)
+                .description("Rate limit checks rejected from the local denial cache without calling Redis")
+                .register(registry);
+        FunctionCounter.builder("ratelimiter.denial.cache.misses", this, DenialCache::getMisses)
+                .description("Rate limit checks not answered by the local denial cache")
+                .register(registry);
+        Gauge.builder("ratelimiter.denial.cache.hit.ratio", this, DenialCache::getHitRatio)
+                .description("Share of rate limit checks answered by the local denial cache")
+                .register(registry);
+        Gauge.builder("ratelimiter.denial.cache.size", this, DenialCache::size)
+                .description("Keys currently denied locally")
+                .register(registry);
+    }
+
+    private record Denial(String key, long until) {
+    }
+}
@@ -0,0 +1,361 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.annotation.FailurePolicy;
+import com.ratelimiter.annotation.KeyLayout;
+import com.ratelimiter.annotation.RateLimit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Resolved rate limit for one key—what RateLimitService evaluates.
+ * Immutable; the script arguments are serialized once at construction instead of on every call.
+ * Built with {@link #of(String, int, long, Algorithm)} and the withX copies, e.g.
+ * {@code LimitRule.of(key, 100, 60_000, Algorithm.FIXED_WINDOW).withShards(4)}.
+ */
+public final class LimitRule {
+
+    private final String key;
+    private final int limit;
+    private final long windowMillis;
+    private final Algorithm algorithm;
+    private final int leaseSize;
+    private final long leaseMaxStalenessMillis;
+    private final long coalesceMicros;
+    private final int coalesceMaxBatch;
+    private final FailurePolicy failurePolicy;
+    private final long redisTimeoutMillis;
+    private final int shards;
+    private final LimitRule[] shardRules;
+    private final KeyLayout layout;
+    private final int compactBuckets;
+    private final String compactPrefix;
+    private final String hashKey;
+    private final String field;
+    private final long cost;
+    private final String limitArg;
+    private final String windowArg;
+    private final String costArg;
+
+    private LimitRule(String key, int limit, long windowMillis, Algorithm algorithm,
+                      int leaseSize, long leaseMaxStalenessMillis,
+                      long coalesceMicros, int coalesceMaxBatch,
+                      FailurePolicy failurePolicy, long redisTimeoutMillis, int shards,
+                      KeyLayout layout, int compactBuckets, String compactPrefix, String field, long cost) {
+        this.key = key;
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.algorithm = algorithm;
+        this.leaseSize = leaseSize;
+        this.leaseMaxStalenessMillis = leaseMaxStalenessMillis;
+        this.coalesceMicros = coalesceMicros;
+        this.coalesceMaxBatch = coalesceMaxBatch;
+        this.failurePolicy = failurePolicy;
+        this.redisTimeoutMillis = redisTimeoutMillis;
+        this.shards = Math.max(1, shards);
+        this.shardRules = this.shards > 1 ? shardRules(this.shards) : null;
+        this.layout = layout;
+        this.compactBuckets = Math.max(1, compactBuckets);
+        this.compactPrefix = compactPrefix;
+        this.field = field;
+        this.hashKey = field == null
+                ? null
+                : compactPrefix + ":" + Integer.toString(Math.floorMod(field.hashCode(), this.compactBuckets), 36);
+        this.cost = cost;
+        this.limitArg = String.valueOf(limit);
+        this.windowArg = String.valueOf(windowMillis);
+        this.costArg = String.valueOf(cost);
+    }
+
+    /**
+     * Rule with no leasing, coalescing or shards, a STANDARD layout, LOCAL_APPROXIMATE failure policy and the
+     * configured Redis latency budget.
+     *
+     * @param key          Full Redis key
+     * @param limit        Max requests allowed in the window
+     * @param windowMillis Time window in milliseconds
+     * @param algorithm    Limiting algorithm
+     */
+    public static LimitRule of(String key, int limit, long windowMillis, Algorithm algorithm) {
+        return new LimitRule(key, limit, windowMillis, algorithm, 0, 0, 0, 0, FailurePolicy.LOCAL_APPROXIMATE, -1, 1,
+                KeyLayout.STANDARD, 1, null, null, 1);
+    }
+
+    /**
+     * Plain fixed window rule—one script call per acquisition.
+     *
+     * @param period Time window in seconds
+     */
+    public static LimitRule fixedWindow(String key, int limit, int period) {
+        return fixedWindow(key, limit, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Plain fixed window rule with a window in any unit down to milliseconds, e.g. 50 per 100ms.
+     */
+    public static LimitRule fixedWindow(String key, int limit, long window, TimeUnit unit) {
+        return of(key, limit, unit.toMillis(window), Algorithm.FIXED_WINDOW);
+    }
+
+    /**
+     * Token bucket rule holding up to limit permits, refilled at limit per window—smooth pacing for byte limits.
+     */
+    public static LimitRule tokenBucket(String key, int limit, long window, TimeUnit unit) {
+        return of(key, limit, unit.toMillis(window), Algorithm.TOKEN_BUCKET);
+    }
+
+    /**
+     * Rule described by a @RateLimit annotation for the given full key.
+     */
+    public static LimitRule of(String key, RateLimit rateLimit) {
+        return of(key, rateLimit.count(), windowMillis(rateLimit), rateLimit.algorithm())
+                .withLeasing(rateLimit.leaseSize(), rateLimit.leaseMaxStalenessMillis())
+                .withCoalescing(rateLimit.coalesceMicros(), rateLimit.coalesceMaxBatch())
+                .withFailurePolicy(rateLimit.failurePolicy(), rateLimit.redisTimeoutMillis())
+                .withLayout(rateLimit.layout(), rateLimit.compactBuckets())
+                .withShards(rateLimit.shards());
+    }
+
+    /**
+     * Short, stable stand-in for a COMPACT limit's key in Redis: "rl:" + CRC32 of the key in base 36,
+     * the same on every node.
+     */
+    public static String compactPrefix(String key) {
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return "rl:" + Long.toString(crc.getValue(), 36);
+    }
+
+    /**
+     * Window of a @RateLimit in milliseconds—window() in timeUnit() when set, otherwise time() seconds.
+     */
+    public static long windowMillis(RateLimit rateLimit) {
+        return rateLimit.window() > 0
+                ? rateLimit.timeUnit().toMillis(rateLimit.window())
+                : TimeUnit.SECONDS.toMillis(rateLimit.time());
+    }
+
+    /**
+     * Same rule for another key—used for keys resolved per call.
+     */
+    public LimitRule withKey(String key) {
+        return new LimitRule(key, limit, windowMillis, algorithm, leaseSize, leaseMaxStalenessMillis,
+                coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, shards, layout, compactBuckets,
+                compactPrefix, null, cost);
+    }
+
+    /**
+     * Same rule for one caller—key + ":" + entity, and for COMPACT rules the hash and field holding its counter.
+     */
+    public LimitRule withEntity(String entity) {
+        return new LimitRule(key + ":" + entity, limit, windowMillis, algorithm, leaseSize, leaseMaxStalenessMillis,
+                coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, shards, layout, compactBuckets,
+                compactPrefix, layout == KeyLayout.COMPACT ? entity : null, cost);
+    }
+
+    /**
+     * Same rule with another limit and window—used for runtime overrides.
+     */
+    public LimitRule withLimit(int limit, long windowMillis) {
+        return new LimitRule(key, limit, windowMillis, algorithm, leaseSize, leaseMaxStalenessMillis,
+                coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, shards, layout, compactBuckets,
+                compactPrefix, field, cost);
+    }
+
+    /**
+     * Same rule for a call taking cost permits (at least 1)—e.g. the bytes of a transfer.
+     */
+    public LimitRule withCost(long cost) {
+        long permits = Math.max(1, cost);
+        if (permits == this.cost) {
+            return this;
+        }
+        return new LimitRule(key, limit, windowMillis, algorithm, leaseSize, leaseMaxStalenessMillis,
+                coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, shards, layout, compactBuckets,
+                compactPrefix, field, permits);
+    }
+
+    /**
+     * Same rule leasing leaseSize permits per Redis round trip (0 = no leasing), each lease used for at most
+     * leaseMaxStalenessMillis.
+     */
+    public LimitRule withLeasing(int leaseSize, long leaseMaxStalenessMillis) {
+        return new LimitRule(key, limit, windowMillis, algorithm, leaseSize, leaseMaxStalenessMillis,
+                coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, shards, layout, compactBuckets,
+                compactPrefix, field, cost);
+    }
+
+    /**
+     * Same rule coalescing concurrent calls for coalesceMicros (0 = no coalescing), sent early at
+     * coalesceMaxBatch calls.
+     */
+    public LimitRule withCoalescing(long coalesceMicros, int coalesceMaxBatch) {
+        return new LimitRule(key, limit, windowMillis, algorithm, leaseSize, leaseMaxStalenessMillis,
+                coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, shards, layout, compactBuckets,
+                compactPrefix, field, cost);
+    }
+
+    /**
+     * Same rule with another behaviour when Redis is unavailable.
+     *
+     * @param redisTimeoutMillis Redis latency budget, -1 = configured default, 0 = none
+     */
+    public LimitRule withFailurePolicy(FailurePolicy failurePolicy, long redisTimeoutMillis) {
+        return new LimitRule(key, limit, windowMillis, algorithm, leaseSize, leaseMaxStalenessMillis,
+                coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, shards, layout, compactBuckets,
+                compactPrefix, field, cost);
+    }
+
+    /**
+     * Same rule split over shards sub-keys sharing the limit, 1 = unsharded.
+     */
+    public LimitRule withShards(int shards) {
+        return new LimitRule(key, limit, windowMillis, algorithm, leaseSize, leaseMaxStalenessMillis,
+                coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, shards, layout, compactBuckets,
+                compactPrefix, field, cost);
+    }
+
+    /**
+     * Same rule with another Redis layout for per-caller counters; COMPACT counters are spread over
+     * compactBuckets hashes named after this rule's key.
+     */
+    public LimitRule withLayout(KeyLayout layout, int compactBuckets) {
+        return new LimitRule(key, limit, windowMillis, algorithm, leaseSize, leaseMaxStalenessMillis,
+                coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, shards, layout, compactBuckets,
+                layout == KeyLayout.COMPACT ? compactPrefix(key) : null, null, cost);
+    }
+
+    /**
+     * Unsharded rule for shard index—key "{key:index}" (its own hash slot), limit / shards with the
+     * remainder spread over the first shards so that the shard limits add up to limit.
+     */
+    public LimitRule shard(int index) {
+        return shardRules[index];
+    }
+
+    private LimitRule[] shardRules(int count) {
+        LimitRule[] rules = new LimitRule[count];
+        for (int i = 0; i < count; i++) {
+            int shardLimit = limit / count + (i < limit % count ? 1 : 0);
+            rules[i] = new LimitRule("{" + key + ":" + i + "}", shardLimit, windowMillis, algorithm, leaseSize,
+                    leaseMaxStalenessMillis, coalesceMicros, coalesceMaxBatch, failurePolicy, redisTimeoutMillis, 1,
+                    KeyLayout.STANDARD, 1, null, null, 1);
+        }
+        return rules;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Time window in milliseconds
+     */
+    public long windowMillis() {
+        return windowMillis;
+    }
+
+    public Algorithm algorithm() {
+        return algorithm;
+    }
+
+    public int leaseSize() {
+        return leaseSize;
+    }
+
+    public long leaseMaxStalenessMillis() {
+        return leaseMaxStalenessMillis;
+    }
+
+    public long coalesceMicros() {
+        return coalesceMicros;
+    }
+
+    public int coalesceMaxBatch() {
+        return coalesceMaxBatch;
+    }
+
+    public FailurePolicy failurePolicy() {
+        return failurePolicy;
+    }
+
+    public long redisTimeoutMillis() {
+        return redisTimeoutMillis;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public KeyLayout layout() {
+        return layout;
+    }
+
+    /**
+     * True when the counter is a field of a hash (COMPACT rule resolved for one caller)
+     */
+    public boolean isCompact() {
+        return field != null;
+    }
+
+    /**
+     * Hash holding a COMPACT counter, null otherwise
+     */
+    public String hashKey() {
+        return hashKey;
+    }
+
+    /**
+     * Field of the counter in hashKey, null unless COMPACT
+     */
+    public String field() {
+        return field;
+    }
+
+    /**
+     * Identity of a COMPACT limit in Redis, null for STANDARD
+     */
+    public String compactPrefix() {
+        return compactPrefix;
+    }
+
+    /**
+     * Permits one call takes, 1 unless set by withCost
+     */
+    public long cost() {
+        return cost;
+    }
+
+    /**
+     * limit serialized as the script's ARGV value
+     */
+    public String limitArg() {
+        return limitArg;
+    }
+
+    /**
+     * windowMillis serialized as the script's ARGV value
+     */
+    public String windowArg() {
+        return windowArg;
+    }
+
+    /**
+     * cost serialized as the script's ARGV value
+     */
+    public String costArg() {
+        return costArg;
+    }
+
+    @Override
+    public String toString() {
+        return "LimitRule[key=" + key + ", limit=" + limit + ", windowMillis=" + windowMillis + ", algorithm=" + algorithm
+                + (cost != 1 ? ", cost=" + cost : "") + "]";
+    }
+}
@@ -0,0 +1,129 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory fixed window limiter—the LOCAL_APPROXIMATE fallback while Redis is unavailable.
+ * Each node enforces its share of the global limit (limit / rate-limiter.estimated-nodes, rounded up),
+ * so the cluster as a whole stays close to the configured limit without coordination.
+ * <p>
+ * At most rate-limiter.local-max-keys windows are kept. When full, expired windows go first, then the least
+ * recently used tenth, so a flood of new keys during an outage cannot reset the counters of busy keys.
+ */
+@Component
+public class LocalRateLimiter {
+
+    private final int estimatedNodes;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    @Autowired
+    public LocalRateLimiter(RateLimiterProperties properties) {
+        this.estimatedNodes = Math.max(1, properties.getEstimatedNodes());
+        this.maxKeys = properties.getLocalMaxKeys();
+    }
+
+    /**
+     * @param key          Rate limit key
+     * @param limit        Global max requests in the window
+     * @param windowMillis Time window in milliseconds
+     * @return true if this node's share of the limit is not yet used up
+     */
+    public boolean tryAcquire(String key, int limit, long windowMillis) {
+        return tryAcquire(key, limit, windowMillis, 1);
+    }
+
+    /**
+     * Variant for a call taking several permits; a rejected call takes none.
+     *
+     * @param permits Permits the call takes
+     */
+    public boolean tryAcquire(String key, int limit, long windowMillis, long permits) {
+        long now = System.currentTimeMillis();
+        long windowId = now / windowMillis;
+        Window window = windows.get(key);
+        if (window == null || window.id != windowId) {
+            if (window == null && windows.size() >= maxKeys) {
+                evict(now);
+            }
+            window = windows.compute(key, (k, old) -> old != null && old.id >= windowId
+                    ? old
+                    : new Window(windowId, (windowId + 1) * windowMillis));
+        }
+        window.lastUsed = System.nanoTime();
+        if (permits == 1) {
+            return window.count.incrementAndGet() <= localLimit(limit);
+        }
+        int localLimit = localLimit(limit);
+        long current;
+        do {
+            current = window.count.get();
+            if (current + permits > localLimit) {
+                return false;
+            }
+        } while (!window.count.compareAndSet(current, current + permits));
+        return true;
+    }
+
+    /**
+     * This node's share of a global limit.
+     */
+    public int localLimit(int limit) {
+        return Math.max(1, (limit + estimatedNodes - 1) / estimatedNodes);
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    /**
+     * Make room for a new key. One caller evicts at a time; the others go ahead, briefly over maxKeys.
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            windows.values().removeIf(window -> window.expiresAt <= now);
+            int excess = windows.size() - maxKeys + Math.max(1, maxKeys / 10);
+            if (excess <= 0) {
+                return;
+            }
+            // Still full of live windows: drop the least recently used ones rather than every counter.
+            // Sorted on a snapshot of lastUsed, which callers keep updating.
+            Used[] used = windows.entrySet().stream()
+                    .map(entry -> new Used(entry.getKey(), entry.getValue(), entry.getValue().lastUsed))
+                    .toArray(Used[]::new);
+            Arrays.sort(used, Comparator.comparingLong(Used::lastUsed));
+            for (int i = 0; i < Math.min(excess, used.length); i++) {
+                windows.remove(used[i].key(), used[i].window());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private record Used(String key, Window window, long lastUsed) {
+    }
+
+    private static final class Window {
+        final long id;
+        final long expiresAt;
+        final AtomicLong count = new AtomicLong();
+        volatile long lastUsed;
+
+        Window(long id, long expiresAt) {
+            this.id = id;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
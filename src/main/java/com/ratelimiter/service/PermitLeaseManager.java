@@ -0,0 +1,133 @@
+package com.ratelimiter.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Local permit leasing—reserves a block of permits from Redis in one acquireScript call
+ * and serves them from a lock-free local counter until the lease runs out or goes stale.
+ * <p>
+ * Only one thread per key refills at a time; concurrent callers that find the lease empty
+ * meanwhile take a single permit directly, so nobody waits on another thread's round trip.
+ * Leased permits are already counted in Redis, so the cluster never admits more than the limit
+ * within a window. A lease expires after leaseMaxStalenessMillis or when its Redis window resets,
+ * whichever comes first, so leftover permits are never spent in the next window.
+ */
+@Component
+public class PermitLeaseManager {
+
+    private static final List<Long> NO_GRANT = List.of(0L, 0L);
+
+    private final StringRedisTemplate redisTemplate;
+    private final DefaultRedisScript<List<Long>> acquireScript;
+    private final ConcurrentHashMap<String, LeaseSlot> slots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PermitLeaseManager(StringRedisTemplate redisTemplate,
+                              @Qualifier("acquireScript") DefaultRedisScript<List<Long>> acquireScript) {
+        this.redisTemplate = redisTemplate;
+        this.acquireScript = acquireScript;
+    }
+
+    /**
+     * Take one permit, from the local lease when possible.
+     *
+     * @param key                Rate limit key
+     * @param limit              Max requests allowed in the window
+     * @param windowMillis       Time window in milliseconds
+     * @param leaseSize          Permits to reserve per Redis round trip
+     * @param maxStalenessMillis Maximum lease age before leftover permits are discarded
+     * @return true if allowed
+     */
+    public boolean tryAcquire(String key, int limit, long windowMillis, int leaseSize, long maxStalenessMillis) {
+        LeaseSlot slot = slots.computeIfAbsent(key, k -> new LeaseSlot());
+        if (slot.current.get().tryTake()) {
+            return true;
+        }
+
+        // Lease empty or stale: one thread refills, the rest go straight to Redis for a single permit
+        if (!slot.refilling.compareAndSet(false, true)) {
+            return acquire(key, limit, windowMillis, 1).get(0) > 0;
+        }
+        try {
+            // Another thread may have refilled between our miss and winning the flag
+            if (slot.current.get().tryTake()) {
+                return true;
+            }
+            List<Long> reply = acquire(key, limit, windowMillis, leaseSize);
+            long granted = reply.get(0);
+            if (granted <= 0) {
+                return false;
+            }
+            // Keep one permit for this caller and publish the rest until the window resets at the latest
+            long ttlMillis = Math.min(maxStalenessMillis, reply.get(1));
+            long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+            slot.current.set(new Lease(granted - 1, expiresAt));
+            return true;
+        } finally {
+            slot.refilling.set(false);
+        }
+    }
+
+    /**
+     * @return {permits granted, milliseconds until the window resets}
+     */
+    private List<Long> acquire(String key, int limit, long windowMillis, int permits) {
+        List<Long> reply = redisTemplate.execute(
+                acquireScript,
+                Collections.singletonList(key),
+                String.valueOf(limit),
+                String.valueOf(windowMillis),
+                String.valueOf(permits)
+        );
+        return reply != null && reply.size() == 2 ? reply : NO_GRANT;
+    }
+
+    /**
+     * Per-key lease holder—the refilling flag elects a single refilling thread.
+     */
+    private static class LeaseSlot {
+        private final AtomicReference<Lease> current = new AtomicReference<>(Lease.EMPTY);
+        private final AtomicBoolean refilling = new AtomicBoolean();
+    }
+
+    /**
+     * Block of permits already counted in Redis; remaining is decremented with CAS only.
+     */
+    private static class Lease {
+        private static final Lease EMPTY = new Lease(0, 0L);
+
+        private final AtomicLong remaining;
+        private final long expiresAt;
+
+        Lease(long permits, long expiresAt) {
+            this.remaining = new AtomicLong(permits);
+            this.expiresAt = expiresAt;
+        }
+
+        boolean tryTake() {
+            if (System.nanoTime() - expiresAt >= 0) {
+                return false;
+            }
+            long left;
+            do {
+                left = remaining.get();
+                if (left <= 0) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(left, left - 1));
+            return true;
+        }
+    }
+}
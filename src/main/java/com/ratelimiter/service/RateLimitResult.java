@@ -0,0 +1,114 @@
+package com.ratelimiter.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a rate limit check—the verdict plus the window figures the script reported in the same call,
+ * so responses can carry RateLimit-* and Retry-After headers without another Redis round trip.
+ * Remaining and reset are {@link #UNKNOWN} when the verdict did not come from a script (leasing, coalescing,
+ * failure policies).
+ */
+public final class RateLimitResult {
+
+    public static final long UNKNOWN = -1;
+
+    private final boolean allowed;
+    private final int index;
+    private final int limit;
+    private final long remaining;
+    private final long resetMillis;
+
+    /**
+     * @param allowed     Whether the call is admitted
+     * @param index       Rule the figures describe, for combined limits
+     * @param limit       That rule's limit
+     * @param remaining   Permits left in its window
+     * @param resetMillis Milliseconds until its window resets or, when rejected, until a retry can succeed
+     */
+    public RateLimitResult(boolean allowed, int index, int limit, long remaining, long resetMillis) {
+        this.allowed = allowed;
+        this.index = index;
+        this.limit = limit;
+        this.remaining = remaining;
+        this.resetMillis = resetMillis;
+    }
+
+    /**
+     * Verdict without window figures.
+     */
+    public static RateLimitResult of(boolean allowed, LimitRule rule) {
+        return of(allowed, 0, rule);
+    }
+
+    /**
+     * Verdict without window figures for rule index of a combined limit.
+     */
+    public static RateLimitResult of(boolean allowed, int index, LimitRule rule) {
+        return new RateLimitResult(allowed, index, rule.limit(), allowed ? UNKNOWN : 0, UNKNOWN);
+    }
+
+    public static RateLimitResult rejected(LimitRule rule, long resetMillis) {
+        return new RateLimitResult(false, 0, rule.limit(), 0, resetMillis);
+    }
+
+    /**
+     * Parse a single-key script reply {allowed, remaining, resetMillis}; a missing reply (pipelines,
+     * transactions) admits the call.
+     */
+    public static RateLimitResult fromScript(LimitRule rule, List<Long> reply) {
+        if (reply == null || reply.size() < 3) {
+            return of(true, rule);
+        }
+        return new RateLimitResult(reply.get(0) == 1, 0, rule.limit(), reply.get(1), reply.get(2));
+    }
+
+    /**
+     * Parse a multi_limit.lua reply {allowed, 1-based index, remaining, resetMillis}.
+     */
+    public static RateLimitResult fromMultiScript(List<LimitRule> rules, List<Long> reply) {
+        if (reply == null || reply.size() < 4) {
+            return of(true, rules.get(0));
+        }
+        int index = (int) (reply.get(1) - 1);
+        return new RateLimitResult(reply.get(0) == 1, index, rules.get(index).limit(), reply.get(2), reply.get(3));
+    }
+
+    public boolean isAllowed() {
+        return allowed;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return index of the rejecting rule, or -1 if allowed
+     */
+    public int rejectedIndex() {
+        return allowed ? -1 : index;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Permits left, or UNKNOWN
+     */
+    public long getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Milliseconds until the window resets (until a retry can succeed when rejected), 0 or UNKNOWN if unknown
+     */
+    public long getResetMillis() {
+        return resetMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitResult[allowed=" + allowed + ", index=" + index + ", limit=" + limit
+                + ", remaining=" + remaining + ", resetMillis=" + resetMillis + "]";
+    }
+}
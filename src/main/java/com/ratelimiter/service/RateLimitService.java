@@ -1,7 +1,15 @@
 package com.ratelimiter.service;
 
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Rate limiting core service interface.
+ * <p>
+ * The acquire methods report the remaining permits and reset time along with the verdict; the tryAcquire
+ * variants only return the verdict.
  */
 public interface RateLimitService {
 
@@ -13,5 +21,89 @@ public interface RateLimitService {
      * @param period Time window in seconds
      * @return true if allowed
      */
-    boolean tryAcquire(String key, int limit, int period);
+    default boolean tryAcquire(String key, int limit, int period) {
+        return tryAcquire(LimitRule.fixedWindow(key, limit, period));
+    }
+
+    /**
+     * Check if request is allowed under the given rule.
+     *
+     * @param rule Resolved rate limit
+     * @return true if allowed
+     */
+    default boolean tryAcquire(LimitRule rule) {
+        return acquire(rule).isAllowed();
+    }
+
+    /**
+     * Check if request is allowed under the given rule.
+     *
+     * @param rule Resolved rate limit
+     * @return verdict with the window's remaining permits and reset time
+     */
+    RateLimitResult acquire(LimitRule rule);
+
+    /**
+     * Check several fixed-window limits atomically—either all are incremented or none is.
+     * Keys must hash to the same cluster slot.
+     *
+     * @param rules Limits to enforce together
+     * @return index of the first rule that rejected the request, or -1 if allowed
+     */
+    default int tryAcquireAll(List<LimitRule> rules) {
+        return acquireAll(rules).rejectedIndex();
+    }
+
+    /**
+     * Variant of {@link #tryAcquireAll(List)} with window figures.
+     *
+     * @return verdict describing the rejecting rule, or the rule with the fewest permits left if allowed
+     */
+    RateLimitResult acquireAll(List<LimitRule> rules);
+
+    /**
+     * Non-blocking variant of {@link #tryAcquire(String, int, int)}.
+     *
+     * @return future completed with true if allowed
+     */
+    default CompletableFuture<Boolean> tryAcquireAsync(String key, int limit, int period) {
+        return tryAcquireAsync(LimitRule.fixedWindow(key, limit, period));
+    }
+
+    /**
+     * Non-blocking variant of {@link #tryAcquire(LimitRule)}.
+     *
+     * @return future completed with true if allowed
+     */
+    default CompletableFuture<Boolean> tryAcquireAsync(LimitRule rule) {
+        return tryAcquireReactive(rule).toFuture();
+    }
+
+    /**
+     * Reactive variant of {@link #tryAcquire(LimitRule)}—no thread is parked on Redis I/O.
+     *
+     * @return Mono emitting true if allowed
+     */
+    default Mono<Boolean> tryAcquireReactive(LimitRule rule) {
+        return acquireReactive(rule).map(RateLimitResult::isAllowed);
+    }
+
+    /**
+     * Reactive variant of {@link #acquire(LimitRule)}.
+     */
+    Mono<RateLimitResult> acquireReactive(LimitRule rule);
+
+    /**
+     * Reactive variant of {@link #tryAcquireAll(List)}.
+     *
+     * @return Mono emitting the index of the first rule that rejected the request, or -1 if allowed
+     */
+    default Mono<Integer> tryAcquireAllReactive(List<LimitRule> rules) {
+        return acquireAllReactive(rules).map(RateLimitResult::rejectedIndex);
+    }
+
+    /**
+     * Reactive variant of {@link #acquireAll(List)}.
+     */
+    Mono<RateLimitResult> acquireAllReactive(List<LimitRule> rules);
 }
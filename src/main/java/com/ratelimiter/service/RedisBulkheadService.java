@@ -0,0 +1,174 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.bulkhead.BulkheadPermit;
+import com.ratelimiter.bulkhead.LocalBulkhead;
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DISTRIBUTED @Bulkhead permits—leases in a Redis sorted set (bulkhead.lua), scored by their expiry time.
+ * A lease is removed (ZREM) when its call ends; one whose node died is purged by the next acquisition once its
+ * leaseMillis has passed, so a crash never leaks a permit for longer than that.
+ * <p>
+ * Script calls share RedisCallGuard with rate limits: rate-limiter.redis-timeout-millis bounds each one and
+ * the Redis breaker skips them while Redis is unhealthy. While Redis is unavailable, slow or returns no reply,
+ * each node falls back to a local semaphore of maxConcurrent / estimated-nodes (rounded up), like
+ * LOCAL_APPROXIMATE rate limits.
+ */
+@Service
+public class RedisBulkheadService {
+
+    /**
+     * Longest pause between two acquisition attempts while waiting for a lease
+     */
+    static final long MAX_POLL_MILLIS = 50;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectProvider<ReactiveStringRedisTemplate> reactiveRedisTemplate;
+    private final DefaultRedisScript<Long> bulkheadScript;
+    private final RedisCallGuard guard;
+    private final Timer scriptTimer;
+    private final int estimatedNodes;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong leaseSequence = new AtomicLong();
+    private final ConcurrentHashMap<String, LocalBulkhead> degraded = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RedisBulkheadService(StringRedisTemplate redisTemplate,
+                                ObjectProvider<ReactiveStringRedisTemplate> reactiveRedisTemplate,
+                                @Qualifier("bulkheadScript") DefaultRedisScript<Long> bulkheadScript,
+                                RedisCallGuard guard,
+                                RateLimiterProperties properties,
+                                RateLimiterMetrics metrics) {
+        this.redisTemplate = redisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.bulkheadScript = bulkheadScript;
+        this.guard = guard;
+        this.scriptTimer = metrics.scriptTimer("bulkhead");
+        this.estimatedNodes = Math.max(1, properties.getEstimatedNodes());
+    }
+
+    /**
+     * Take a lease without waiting.
+     *
+     * @return a permit whose release removes the lease, or REJECTED if maxConcurrent leases are live
+     */
+    public BulkheadPermit tryAcquire(String key, int maxConcurrent, long leaseMillis) {
+        BulkheadPermit permit = tryAcquireReactive(key, maxConcurrent, leaseMillis).block();
+        return permit != null ? permit : degraded(key, maxConcurrent).tryAcquire();
+    }
+
+    /**
+     * Take a lease, polling with backoff for up to waitMillis while the bulkhead is full.
+     */
+    public BulkheadPermit acquire(String key, int maxConcurrent, long leaseMillis, long waitMillis)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        for (int attempt = 0; ; attempt++) {
+            BulkheadPermit permit = tryAcquire(key, maxConcurrent, leaseMillis);
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (permit.isGranted() || remaining <= 0) {
+                return permit;
+            }
+            Thread.sleep(pollDelayMillis(attempt, remaining));
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #tryAcquire(String, int, long)}.
+     *
+     * @return Mono emitting a permit, or REJECTED if maxConcurrent leases are live
+     */
+    public Mono<BulkheadPermit> tryAcquireReactive(String key, int maxConcurrent, long leaseMillis) {
+        return guard.guard(() -> evaluate(key, maxConcurrent, leaseMillis), guard.getDefaultTimeoutMillis(),
+                () -> degraded(key, maxConcurrent).tryAcquire());
+    }
+
+    /**
+     * Leases currently live according to the local clock—approximate, for monitoring only.
+     */
+    public long inFlight(String key) {
+        Long live = redisTemplate.opsForZSet().count(key, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return live == null ? 0 : live;
+    }
+
+    /**
+     * Pause before the next attempt: 1, 2, 4 ... MAX_POLL_MILLIS, never past the deadline.
+     */
+    public static long pollDelayMillis(int attempt, long remainingMillis) {
+        return Math.max(1, Math.min(remainingMillis, Math.min(MAX_POLL_MILLIS, 1L << Math.min(attempt, 6))));
+    }
+
+    /**
+     * A missing reply (pipelines, transactions) says nothing about the lease set: callers treat it like
+     * unavailable Redis and use the local share.
+     */
+    private BulkheadPermit permit(String key, String lease, long granted) {
+        if (granted == 0) {
+            return BulkheadPermit.REJECTED;
+        }
+        return new BulkheadPermit(() -> release(key, lease));
+    }
+
+    /**
+     * One bulkhead.lua call, reactive when a reactive template is available. A call abandoned on the budget
+     * removes its lease, in case Redis granted it after all.
+     */
+    private Mono<BulkheadPermit> evaluate(String key, int maxConcurrent, long leaseMillis) {
+        String lease = nextLease();
+        List<String> keys = Collections.singletonList(key);
+        List<String> args = List.of(String.valueOf(maxConcurrent), String.valueOf(leaseMillis), lease);
+        ReactiveStringRedisTemplate reactive = reactiveRedisTemplate.getIfAvailable();
+        Mono<Long> reply = reactive != null
+                ? reactive.execute(bulkheadScript, keys, args).next()
+                : Mono.fromCallable(() -> redisTemplate.execute(bulkheadScript, keys, args.toArray()))
+                        .subscribeOn(Schedulers.boundedElastic());
+        long start = System.nanoTime();
+        return reply
+                .doOnSuccess(granted -> scriptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                .map(granted -> permit(key, lease, granted))
+                .switchIfEmpty(Mono.fromSupplier(() -> degraded(key, maxConcurrent).tryAcquire()))
+                .doOnCancel(() -> release(key, lease));
+    }
+
+    private void release(String key, String lease) {
+        ReactiveStringRedisTemplate reactive = reactiveRedisTemplate.getIfAvailable();
+        if (reactive != null) {
+            // Never block the thread that finished the call; a lost ZREM only delays reuse until the lease lapses
+            reactive.opsForZSet().remove(key, lease).subscribe(removed -> { }, error -> { });
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().remove(key, lease);
+        } catch (DataAccessException e) {
+            // The lease lapses on its own
+        }
+    }
+
+    private LocalBulkhead degraded(String key, int maxConcurrent) {
+        return degraded.computeIfAbsent(key,
+                k -> new LocalBulkhead(Math.max(1, (maxConcurrent + estimatedNodes - 1) / estimatedNodes)));
+    }
+
+    private String nextLease() {
+        return nodeId + ":" + leaseSequence.incrementAndGet();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.breaker.CircuitState;
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Latency budget and health breaker shared by every Redis call made on a caller's behalf—rate limits and
+ * DISTRIBUTED bulkheads alike, so one slow or unreachable Redis degrades all of them the same way.
+ * <p>
+ * While the breaker is open no call is attempted and the degraded answer is returned straight away.
+ */
+@Component
+public class RedisCallGuard {
+
+    private final long defaultTimeoutMillis;
+    private final CircuitState redisHealth;
+
+    @Autowired
+    public RedisCallGuard(RateLimiterProperties properties, RateLimiterMetrics metrics) {
+        this.defaultTimeoutMillis = properties.getRedisTimeoutMillis();
+        RateLimiterProperties.Health health = properties.getHealth();
+        this.redisHealth = new CircuitState(health.getFailureThreshold(), health.getWindowSeconds(),
+                health.getOpenSeconds(), health.getMinRequests());
+        metrics.bindCircuit("redis", redisHealth);
+    }
+
+    /**
+     * Run a reactive Redis call within timeoutMillis (0 = no budget); errors, timeouts and an open breaker
+     * answer from degraded instead.
+     */
+    public <T> Mono<T> guard(Supplier<Mono<T>> call, long timeoutMillis, Supplier<T> degraded) {
+        return Mono.defer(() -> {
+            if (!redisHealth.tryAcquirePermission()) {
+                return Mono.fromSupplier(degraded);
+            }
+            long start = System.nanoTime();
+            Mono<T> result = call.get();
+            if (timeoutMillis > 0) {
+                result = result.timeout(Duration.ofMillis(timeoutMillis));
+            }
+            return result
+                    .doOnSuccess(value -> redisHealth.recordSuccess(System.nanoTime() - start))
+                    // A cancelled call must still be recorded, or a Half-Open permit would never come back
+                    .doOnCancel(() -> redisHealth.recordFailure(System.nanoTime() - start))
+                    .onErrorResume(e -> {
+                        redisHealth.recordFailure(System.nanoTime() - start);
+                        return Mono.fromSupplier(degraded);
+                    });
+        });
+    }
+
+    /**
+     * Run a blocking Redis call without a budget—for callers that keep local state around it.
+     * Redis failures and an open breaker still answer from degraded.
+     */
+    public <T> T guardBlocking(Supplier<T> call, Supplier<T> degraded) {
+        if (!redisHealth.tryAcquirePermission()) {
+            return degraded.get();
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            redisHealth.recordSuccess(System.nanoTime() - start);
+            return result;
+        } catch (DataAccessException e) {
+            redisHealth.recordFailure(System.nanoTime() - start);
+            return degraded.get();
+        }
+    }
+
+    /**
+     * rate-limiter.redis-timeout-millis—the budget of calls that do not set their own.
+     */
+    public long getDefaultTimeoutMillis() {
+        return defaultTimeoutMillis;
+    }
+
+    /**
+     * Breaker guarding Redis calls—exposed for monitoring.
+     */
+    public CircuitState getRedisHealth() {
+        return redisHealth;
+    }
+}
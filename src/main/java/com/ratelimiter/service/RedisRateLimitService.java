@@ -0,0 +1,335 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Redis-backed RateLimitService—one preloaded script Bean per Algorithm, evaluated with EVALSHA.
+ * <p>
+ * Blocking calls go through StringRedisTemplate and may use local leasing or request coalescing.
+ * Reactive and async calls always evaluate the script through Lettuce's reactive commands
+ * (ReactiveStringRedisTemplate); without a reactive connection they run the blocking call
+ * on the bounded elastic scheduler instead.
+ * <p>
+ * Scripts return {allowed, remaining, resetMillis} in the same call as the check. For single keys, how long a
+ * rejection lasts is recorded in DenialCache, which ResilientRateLimitService consults before calling Redis.
+ * <p>
+ * Sharded rules (@RateLimit(shards)) start at a random shard and move on to the neighbouring ones while
+ * a shard rejects. Shards already in DenialCache are skipped without a Redis call, and a call evaluates at most
+ * MAX_SHARD_PROBES shards, so its latency does not grow with the shard count. A call may therefore be denied
+ * while shards it did not probe still have permits; each rejection is cached, so later calls go straight to
+ * those shards. Results report the admitting shard's remaining permits.
+ * <p>
+ * COMPACT rules (KeyLayout) keep their fixed window in a field of a bucket hash, evaluated by compact_limit.lua.
+ * <p>
+ * A rule's cost (LimitRule.withCost) is sent as an extra script argument only when it is not 1. A call rejected
+ * while cheaper calls could still pass is not recorded in DenialCache.
+ */
+@Service
+public class RedisRateLimitService implements RateLimitService {
+
+    /**
+     * Shards one sharded call evaluates in Redis before it is denied—the home shard and one alternative
+     */
+    static final int MAX_SHARD_PROBES = 2;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectProvider<ReactiveStringRedisTemplate> reactiveRedisTemplate;
+    private final Map<Algorithm, DefaultRedisScript<List<Long>>> scripts = new EnumMap<>(Algorithm.class);
+    private final DefaultRedisScript<List<Long>> multiLimitScript;
+    private final DefaultRedisScript<List<Long>> compactLimitScript;
+    private final Map<Algorithm, Timer> scriptTimers = new EnumMap<>(Algorithm.class);
+    private final Timer multiLimitTimer;
+    private final Timer compactLimitTimer;
+    private final PermitLeaseManager permitLeaseManager;
+    private final RequestCoalescer requestCoalescer;
+    private final DenialCache denialCache;
+
+    @Autowired
+    public RedisRateLimitService(StringRedisTemplate redisTemplate,
+                                 ObjectProvider<ReactiveStringRedisTemplate> reactiveRedisTemplate,
+                                 @Qualifier("limitScript") DefaultRedisScript<List<Long>> limitScript,
+                                 @Qualifier("slidingWindowScript") DefaultRedisScript<List<Long>> slidingWindowScript,
+                                 @Qualifier("tokenBucketScript") DefaultRedisScript<List<Long>> tokenBucketScript,
+                                 @Qualifier("gcraScript") DefaultRedisScript<List<Long>> gcraScript,
+                                 @Qualifier("multiLimitScript") DefaultRedisScript<List<Long>> multiLimitScript,
+                                 @Qualifier("compactLimitScript") DefaultRedisScript<List<Long>> compactLimitScript,
+                                 PermitLeaseManager permitLeaseManager,
+                                 RequestCoalescer requestCoalescer,
+                                 DenialCache denialCache,
+                                 RateLimiterMetrics metrics) {
+        this.redisTemplate = redisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.scripts.put(Algorithm.FIXED_WINDOW, limitScript);
+        this.scripts.put(Algorithm.SLIDING_WINDOW_COUNTER, slidingWindowScript);
+        this.scripts.put(Algorithm.TOKEN_BUCKET, tokenBucketScript);
+        this.scripts.put(Algorithm.GCRA, gcraScript);
+        this.multiLimitScript = multiLimitScript;
+        this.compactLimitScript = compactLimitScript;
+        this.permitLeaseManager = permitLeaseManager;
+        this.requestCoalescer = requestCoalescer;
+        this.denialCache = denialCache;
+        this.scriptTimers.put(Algorithm.FIXED_WINDOW, metrics.scriptTimer("limit"));
+        this.scriptTimers.put(Algorithm.SLIDING_WINDOW_COUNTER, metrics.scriptTimer("sliding_window"));
+        this.scriptTimers.put(Algorithm.TOKEN_BUCKET, metrics.scriptTimer("token_bucket"));
+        this.scriptTimers.put(Algorithm.GCRA, metrics.scriptTimer("gcra"));
+        this.multiLimitTimer = metrics.scriptTimer("multi_limit");
+        this.compactLimitTimer = metrics.scriptTimer("compact_limit");
+    }
+
+    @Override
+    public RateLimitResult acquire(LimitRule rule) {
+        // Leases and coalesced batches count single permits: calls with a cost go to the script
+        if (rule.algorithm() == Algorithm.FIXED_WINDOW && rule.leaseSize() > 0 && rule.cost() == 1) {
+            // Leasing mode: serve from the local lease, refill from Redis in blocks
+            return RateLimitResult.of(permitLeaseManager.tryAcquire(rule.key(), rule.limit(), rule.windowMillis(),
+                    rule.leaseSize(), rule.leaseMaxStalenessMillis()), rule);
+        }
+        if (rule.algorithm() == Algorithm.FIXED_WINDOW && rule.coalesceMicros() > 0 && rule.cost() == 1) {
+            // Coalescing mode: concurrent calls for this key share one batched Redis call
+            return RateLimitResult.of(requestCoalescer.tryAcquire(rule.key(), rule.limit(), rule.windowMillis(),
+                    rule.coalesceMicros(), rule.coalesceMaxBatch()), rule);
+        }
+        if (rule.shards() > 1) {
+            int home = ThreadLocalRandom.current().nextInt(rule.shards());
+            long resetMillis = Long.MAX_VALUE;
+            int probes = 0;
+            for (int i = 0; i < rule.shards() && probes < MAX_SHARD_PROBES; i++) {
+                LimitRule shard = rule.shard((home + i) % rule.shards()).withCost(rule.cost());
+                long deniedMillis = denialCache.deniedMillis(shard.key());
+                if (deniedMillis > 0) {
+                    resetMillis = Math.min(resetMillis, deniedMillis);
+                    continue;
+                }
+                probes++;
+                RateLimitResult result = evaluate(shard);
+                if (result.isAllowed()) {
+                    return shardResult(rule, result);
+                }
+                resetMillis = Math.min(resetMillis, result.getResetMillis());
+            }
+            return RateLimitResult.rejected(rule, resetMillis);
+        }
+        return evaluate(rule);
+    }
+
+    private RateLimitResult evaluate(LimitRule rule) {
+        if (rule.isCompact()) {
+            long start = System.nanoTime();
+            List<Long> reply = redisTemplate.execute(compactLimitScript, Collections.singletonList(rule.hashKey()),
+                    compactArgs(rule));
+            compactLimitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return recordDenial(rule, RateLimitResult.fromScript(rule, reply));
+        }
+        long start = System.nanoTime();
+        List<Long> reply = redisTemplate.execute(
+                scripts.get(rule.algorithm()),
+                Collections.singletonList(rule.key()),
+                args(rule)
+        );
+        scriptTimers.get(rule.algorithm()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return recordDenial(rule, RateLimitResult.fromScript(rule, reply));
+    }
+
+    @Override
+    public RateLimitResult acquireAll(List<LimitRule> rules) {
+        long start = System.nanoTime();
+        List<Long> reply = redisTemplate.execute(multiLimitScript, keysOf(rules), argsOf(rules));
+        multiLimitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return RateLimitResult.fromMultiScript(rules, reply);
+    }
+
+    @Override
+    public Mono<RateLimitResult> acquireReactive(LimitRule rule) {
+        ReactiveStringRedisTemplate reactive = reactiveRedisTemplate.getIfAvailable();
+        if (reactive == null) {
+            return Mono.fromCallable(() -> acquire(rule)).subscribeOn(Schedulers.boundedElastic());
+        }
+        if (rule.shards() > 1) {
+            return Mono.defer(() -> tryShardReactive(reactive, rule,
+                    ThreadLocalRandom.current().nextInt(rule.shards()), 0, 0, Long.MAX_VALUE));
+        }
+        return evaluateReactive(reactive, rule);
+    }
+
+    private Mono<RateLimitResult> tryShardReactive(ReactiveStringRedisTemplate reactive, LimitRule rule,
+                                                   int home, int attempt, int probes, long resetMillis) {
+        if (attempt == rule.shards() || probes == MAX_SHARD_PROBES) {
+            return Mono.just(RateLimitResult.rejected(rule, resetMillis));
+        }
+        LimitRule shard = rule.shard((home + attempt) % rule.shards()).withCost(rule.cost());
+        long deniedMillis = denialCache.deniedMillis(shard.key());
+        if (deniedMillis > 0) {
+            return tryShardReactive(reactive, rule, home, attempt + 1, probes, Math.min(resetMillis, deniedMillis));
+        }
+        return evaluateReactive(reactive, shard).flatMap(result -> result.isAllowed()
+                ? Mono.just(shardResult(rule, result))
+                : tryShardReactive(reactive, rule, home, attempt + 1, probes + 1,
+                        Math.min(resetMillis, result.getResetMillis())));
+    }
+
+    private Mono<RateLimitResult> evaluateReactive(ReactiveStringRedisTemplate reactive, LimitRule rule) {
+        if (rule.isCompact()) {
+            return timed(compactLimitTimer, () -> reply(reactive.execute(compactLimitScript,
+                            Collections.singletonList(rule.hashKey()),
+                            Arrays.asList(compactArgs(rule)))))
+                    .map(reply -> recordDenial(rule, RateLimitResult.fromScript(rule, reply)));
+        }
+        return timed(scriptTimers.get(rule.algorithm()), () -> reply(reactive.execute(
+                        scripts.get(rule.algorithm()),
+                        Collections.singletonList(rule.key()),
+                        Arrays.asList(args(rule))
+                )))
+                .map(reply -> recordDenial(rule, RateLimitResult.fromScript(rule, reply)));
+    }
+
+    @Override
+    public Mono<RateLimitResult> acquireAllReactive(List<LimitRule> rules) {
+        ReactiveStringRedisTemplate reactive = reactiveRedisTemplate.getIfAvailable();
+        if (reactive == null) {
+            return Mono.fromCallable(() -> acquireAll(rules)).subscribeOn(Schedulers.boundedElastic());
+        }
+        return timed(multiLimitTimer,
+                () -> reply(reactive.execute(multiLimitScript, keysOf(rules), Arrays.asList(argsOf(rules)))))
+                .map(reply -> RateLimitResult.fromMultiScript(rules, reply));
+    }
+
+    /**
+     * Permits used in the rule's current window as stored in Redis—approximate, for monitoring only.
+     * Token bucket usage ignores refill since the last call; GCRA usage is derived with the local clock.
+     */
+    public long getUsage(LimitRule rule) {
+        if (rule.isCompact()) {
+            return Math.min(rule.limit(), parseLong(redisTemplate.opsForHash().get(rule.hashKey(), rule.field())));
+        }
+        if (rule.shards() > 1) {
+            long used = 0;
+            for (int i = 0; i < rule.shards(); i++) {
+                used += getUsage(rule.shard(i));
+            }
+            return used;
+        }
+        switch (rule.algorithm()) {
+            case SLIDING_WINDOW_COUNTER:
+                return parseLong(redisTemplate.opsForHash().get(rule.key(), "current"));
+            case TOKEN_BUCKET: {
+                Object tokens = redisTemplate.opsForHash().get(rule.key(), "tokens");
+                return tokens == null ? 0 : rule.limit() - (long) Math.floor(Double.parseDouble(tokens.toString()));
+            }
+            case GCRA: {
+                String tat = redisTemplate.opsForValue().get(rule.key());
+                if (tat == null) {
+                    return 0;
+                }
+                double interval = (double) rule.windowMillis() / rule.limit();
+                double ahead = Double.parseDouble(tat) - System.currentTimeMillis();
+                return Math.max(0, Math.min(rule.limit(), (long) Math.ceil(ahead / interval)));
+            }
+            default:
+                // limit.lua counts rejected calls as well
+                return Math.min(rule.limit(), parseLong(redisTemplate.opsForValue().get(rule.key())));
+        }
+    }
+
+    private static <T> Mono<T> timed(Timer timer, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get().doOnSuccess(result -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Lettuce emits a script's multi-bulk reply element by element; collect it back into one reply.
+     */
+    @SuppressWarnings("unchecked")
+    private static Mono<List<Long>> reply(Flux<?> elements) {
+        return elements.collectList().map(emitted -> emitted.size() == 1 && emitted.get(0) instanceof List<?> nested
+                ? (List<Long>) nested
+                : (List<Long>) emitted);
+    }
+
+    private static long parseLong(Object value) {
+        return value == null ? 0 : Long.parseLong(value.toString());
+    }
+
+    /**
+     * Remember how long a rejected key stays rejected—unless permits are left for cheaper calls.
+     */
+    private RateLimitResult recordDenial(LimitRule rule, RateLimitResult result) {
+        if (!result.isAllowed() && result.getRemaining() <= 0) {
+            denialCache.deny(rule.key(), result.getResetMillis());
+        }
+        return result;
+    }
+
+    /**
+     * A shard's verdict reported against the whole rule's limit.
+     */
+    private static RateLimitResult shardResult(LimitRule rule, RateLimitResult result) {
+        return new RateLimitResult(true, 0, rule.limit(), result.getRemaining(), result.getResetMillis());
+    }
+
+    private static List<String> keysOf(List<LimitRule> rules) {
+        List<String> keys = new ArrayList<>(rules.size());
+        for (LimitRule rule : rules) {
+            keys.add(rule.key());
+        }
+        return keys;
+    }
+
+    /**
+     * {limit, window} or, for calls taking more than one permit, {limit, window, cost}.
+     */
+    private static Object[] args(LimitRule rule) {
+        return rule.cost() == 1
+                ? new Object[]{rule.limitArg(), rule.windowArg()}
+                : new Object[]{rule.limitArg(), rule.windowArg(), rule.costArg()};
+    }
+
+    private static Object[] compactArgs(LimitRule rule) {
+        return rule.cost() == 1
+                ? new Object[]{rule.field(), rule.limitArg(), rule.windowArg()}
+                : new Object[]{rule.field(), rule.limitArg(), rule.windowArg(), rule.costArg()};
+    }
+
+    /**
+     * Limit and window pairs, followed by every rule's cost when any call takes more than one permit.
+     */
+    private static Object[] argsOf(List<LimitRule> rules) {
+        boolean costed = false;
+        for (LimitRule rule : rules) {
+            costed |= rule.cost() != 1;
+        }
+        Object[] args = new Object[rules.size() * (costed ? 3 : 2)];
+        for (int i = 0; i < rules.size(); i++) {
+            LimitRule rule = rules.get(i);
+            args[2 * i] = rule.limitArg();
+            args[2 * i + 1] = rule.windowArg();
+            if (costed) {
+                args[2 * rules.size() + i] = rule.costArg();
+            }
+        }
+        return args;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ratelimiter.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Request coalescing—concurrent acquisitions for the same key are merged into one acquireScript call.
+ * <p>
+ * The first caller becomes the batch leader: it waits up to the coalescing window (or until
+ * maxBatch callers have joined), asks Redis for N permits and publishes the granted count.
+ * Callers are admitted in join order, so the outcome matches N sequential single-permit calls.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final StringRedisTemplate redisTemplate;
+    private final DefaultRedisScript<List<Long>> acquireScript;
+    private final ConcurrentHashMap<String, Batch> batches = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RequestCoalescer(StringRedisTemplate redisTemplate,
+                            @Qualifier("acquireScript") DefaultRedisScript<List<Long>> acquireScript) {
+        this.redisTemplate = redisTemplate;
+        this.acquireScript = acquireScript;
+    }
+
+    /**
+     * Take one permit as part of a batch.
+     *
+     * @param key          Rate limit key
+     * @param limit        Max requests allowed in the window
+     * @param windowMillis Time window in milliseconds
+     * @param windowMicros How long the leader gathers callers before sending the batch
+     * @param maxBatch     Batch size that triggers an early send
+     * @return true if allowed
+     */
+    public boolean tryAcquire(String key, int limit, long windowMillis, long windowMicros, int maxBatch) {
+        while (true) {
+            Batch batch = batches.get(key);
+            if (batch == null) {
+                Batch fresh = new Batch(Thread.currentThread());
+                batch = batches.putIfAbsent(key, fresh);
+                if (batch == null) {
+                    return lead(key, fresh, limit, windowMillis, windowMicros, maxBatch);
+                }
+            }
+            int position = batch.join(maxBatch);
+            if (position >= 0) {
+                return batch.await(position);
+            }
+            // Sealed or full: detach it so the next caller opens a new batch
+            batches.remove(key, batch);
+        }
+    }
+
+    private boolean lead(String key, Batch batch, int limit, long windowMillis, long windowMicros, int maxBatch) {
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        long remaining;
+        while (batch.size() < maxBatch && (remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+
+        int size = batch.seal();
+        batches.remove(key, batch);
+
+        long granted;
+        try {
+            List<Long> reply = redisTemplate.execute(
+                    acquireScript,
+                    Collections.singletonList(key),
+                    String.valueOf(limit),
+                    String.valueOf(windowMillis),
+                    String.valueOf(size)
+            );
+            granted = reply != null && !reply.isEmpty() ? reply.get(0) : 0;
+        } catch (RuntimeException e) {
+            batch.granted.completeExceptionally(e);
+            throw e;
+        }
+        batch.granted.complete(granted);
+        // Leader always holds position 0
+        return granted > 0;
+    }
+
+    /**
+     * One in-flight batch. size is the number of joined callers, negated once the leader seals it.
+     */
+    private static class Batch {
+        private final AtomicInteger size = new AtomicInteger(1);
+        private final CompletableFuture<Long> granted = new CompletableFuture<>();
+        private final Thread leader;
+
+        Batch(Thread leader) {
+            this.leader = leader;
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        /**
+         * @return the caller's position in the batch, or -1 if it is sealed or full
+         */
+        int join(int maxBatch) {
+            int n;
+            do {
+                n = size.get();
+                if (n <= 0 || n >= maxBatch) {
+                    return -1;
+                }
+            } while (!size.compareAndSet(n, n + 1));
+            if (n + 1 >= maxBatch) {
+                LockSupport.unpark(leader);
+            }
+            return n;
+        }
+
+        int seal() {
+            return size.getAndUpdate(n -> -n);
+        }
+
+        boolean await(int position) {
+            try {
+                return granted.join() > position;
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.breaker.CircuitState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * RateLimitService used by the aspects—wraps RedisRateLimitService with a latency budget per limit,
+ * a breaker around Redis itself (both from RedisCallGuard) and each limit's FailurePolicy.
+ * <p>
+ * Script calls go through the reactive path so a call that misses its budget is abandoned instead of
+ * holding the caller for the client timeout. While the Redis breaker is open no call is attempted;
+ * limits answer from their failure policy straight away until the breaker's Half-Open probes succeed.
+ * Keys Redis recently rejected are rejected from DenialCache without any Redis call. Degraded verdicts carry
+ * no remaining/reset figures.
+ */
+@Service
+@Primary
+public class ResilientRateLimitService implements RateLimitService {
+
+    private final RedisRateLimitService delegate;
+    private final LocalRateLimiter localRateLimiter;
+    private final DenialCache denialCache;
+    private final RedisCallGuard guard;
+
+    @Autowired
+    public ResilientRateLimitService(RedisRateLimitService delegate, LocalRateLimiter localRateLimiter,
+                                     DenialCache denialCache, RedisCallGuard guard) {
+        this.delegate = delegate;
+        this.localRateLimiter = localRateLimiter;
+        this.denialCache = denialCache;
+        this.guard = guard;
+    }
+
+    @Override
+    public RateLimitResult acquire(LimitRule rule) {
+        long deniedMillis = denialCache.deniedMillis(rule.key());
+        if (deniedMillis > 0) {
+            return RateLimitResult.rejected(rule, deniedMillis);
+        }
+        if (usesLocalState(rule)) {
+            return acquireBlocking(rule);
+        }
+        RateLimitResult result = acquireFromRedis(rule).block();
+        return result != null ? result : RateLimitResult.of(false, rule);
+    }
+
+    @Override
+    public RateLimitResult acquireAll(List<LimitRule> rules) {
+        RateLimitResult result = acquireAllReactive(rules).block();
+        return result != null ? result : RateLimitResult.of(true, rules.get(0));
+    }
+
+    @Override
+    public Mono<RateLimitResult> acquireReactive(LimitRule rule) {
+        long deniedMillis = denialCache.deniedMillis(rule.key());
+        if (deniedMillis > 0) {
+            return Mono.just(RateLimitResult.rejected(rule, deniedMillis));
+        }
+        return acquireFromRedis(rule);
+    }
+
+    @Override
+    public Mono<RateLimitResult> acquireAllReactive(List<LimitRule> rules) {
+        // One script call for all limits: it gets the most generous of their budgets
+        long timeoutMillis = 0;
+        for (LimitRule rule : rules) {
+            long ruleTimeout = timeoutMillis(rule);
+            if (ruleTimeout == 0) {
+                timeoutMillis = 0;
+                break;
+            }
+            timeoutMillis = Math.max(timeoutMillis, ruleTimeout);
+        }
+        return guard.guard(() -> delegate.acquireAllReactive(rules), timeoutMillis, () -> degradeAll(rules));
+    }
+
+    /**
+     * Breaker guarding Redis calls—exposed for monitoring.
+     */
+    public CircuitState getRedisHealth() {
+        return guard.getRedisHealth();
+    }
+
+    /**
+     * Leasing and coalescing keep local state around blocking calls, so they are not budgeted;
+     * Redis failures still fall back to the failure policy.
+     */
+    private RateLimitResult acquireBlocking(LimitRule rule) {
+        return guard.guardBlocking(() -> delegate.acquire(rule), () -> degrade(rule));
+    }
+
+    private Mono<RateLimitResult> acquireFromRedis(LimitRule rule) {
+        return guard.guard(() -> delegate.acquireReactive(rule), timeoutMillis(rule), () -> degrade(rule));
+    }
+
+    private RateLimitResult degrade(LimitRule rule) {
+        return RateLimitResult.of(degradedVerdict(rule), rule);
+    }
+
+    private boolean degradedVerdict(LimitRule rule) {
+        switch (rule.failurePolicy()) {
+            case FAIL_OPEN:
+                return true;
+            case FAIL_CLOSED:
+                return false;
+            default:
+                return localRateLimiter.tryAcquire(rule.key(), rule.limit(), rule.windowMillis(), rule.cost());
+        }
+    }
+
+    private RateLimitResult degradeAll(List<LimitRule> rules) {
+        for (int i = 0; i < rules.size(); i++) {
+            if (!degradedVerdict(rules.get(i))) {
+                return RateLimitResult.of(false, i, rules.get(i));
+            }
+        }
+        return RateLimitResult.of(true, rules.get(0));
+    }
+
+    private long timeoutMillis(LimitRule rule) {
+        return rule.redisTimeoutMillis() < 0 ? guard.getDefaultTimeoutMillis() : rule.redisTimeoutMillis();
+    }
+
+    private static boolean usesLocalState(LimitRule rule) {
+        return rule.algorithm() == Algorithm.FIXED_WINDOW && rule.cost() == 1
+                && (rule.leaseSize() > 0 || rule.coalesceMicros() > 0);
+    }
+}
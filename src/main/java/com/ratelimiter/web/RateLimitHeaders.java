@@ -0,0 +1,76 @@
+package com.ratelimiter.web;
+
+import com.ratelimiter.service.RateLimitResult;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.function.BiConsumer;
+
+/**
+ * RateLimit-Limit, RateLimit-Remaining and RateLimit-Reset response headers (IETF RateLimit header fields draft)
+ * plus Retry-After on rejections, all in whole seconds. Figures a result does not know are left out.
+ */
+public final class RateLimitHeaders {
+
+    public static final String LIMIT = "RateLimit-Limit";
+    public static final String REMAINING = "RateLimit-Remaining";
+    public static final String RESET = "RateLimit-Reset";
+
+    private RateLimitHeaders() {
+    }
+
+    /**
+     * Headers for a response entity.
+     */
+    public static HttpHeaders of(RateLimitResult result) {
+        HttpHeaders headers = new HttpHeaders();
+        if (result != null) {
+            forEach(result, headers::set);
+        }
+        return headers;
+    }
+
+    /**
+     * @param response Response to write to; null (no servlet request) writes nothing
+     */
+    public static void write(HttpServletResponse response, RateLimitResult result) {
+        if (response != null && !response.isCommitted()) {
+            forEach(result, response::setHeader);
+        }
+    }
+
+    /**
+     * Response of the request bound to the calling thread, or null off a servlet request thread.
+     * Asynchronous callers capture it before the check leaves that thread.
+     */
+    public static HttpServletResponse currentResponse() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes.getResponse()
+                : null;
+    }
+
+    private static void forEach(RateLimitResult result, BiConsumer<String, String> sink) {
+        sink.accept(LIMIT, String.valueOf(result.getLimit()));
+        if (result.getRemaining() >= 0) {
+            sink.accept(REMAINING, String.valueOf(result.getRemaining()));
+        }
+        if (result.getResetMillis() > 0) {
+            String seconds = String.valueOf(toSeconds(result.getResetMillis()));
+            sink.accept(RESET, seconds);
+            if (!result.isAllowed()) {
+                sink.accept(HttpHeaders.RETRY_AFTER, seconds);
+            }
+        }
+    }
+
+    /**
+     * Rounded up, so a client waiting that long is not rejected again.
+     */
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+}
@@ -0,0 +1,31 @@
+-- Batch acquisition: KEYS[1] allows ARGV[1] permits per ARGV[2] milliseconds; the call asks for ARGV[3] of them
+-- Returns {permits granted, milliseconds until the window resets}
+local key = KEYS[1]
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+-- Current request count
+local current = tonumber(redis.call('get', key) or "0")
+local reset = redis.call('PTTL', key)
+if reset == -1 then
+    -- Counter without a TTL (persisted, or written by something other than these scripts): without one it
+    -- would never reset, so start its window now
+    redis.call('PEXPIRE', key, window)
+    reset = window
+end
+
+-- Grant as many of the requested permits as the window still has
+local granted = math.min(requested, limit - current)
+
+if granted <= 0 then
+    return {0, math.max(reset, 0)} -- Window exhausted
+end
+
+redis.call("INCRBY", key, granted)
+if reset < 0 then
+    -- Set expiry on first grant
+    redis.call("PEXPIRE", key, window)
+    reset = window
+end
+return {granted, reset}
@@ -0,0 +1,22 @@
+-- Distributed bulkhead: a sorted set of lease ids scored by their expiry time
+-- Returns 1 if a lease was granted, 0 if maxConcurrent leases are live
+local key = KEYS[1]
+local maxConcurrent = tonumber(ARGV[1])
+local leaseMillis = tonumber(ARGV[2])
+local lease = ARGV[3]
+
+-- Redis server time in milliseconds, so node clock skew doesn't matter
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+-- Leases never released (crashed node, lost connection) lapse instead of leaking permits
+redis.call('ZREMRANGEBYSCORE', key, '-inf', now)
+
+if redis.call('ZCARD', key) >= maxConcurrent then
+    return 0
+end
+
+redis.call('ZADD', key, now + leaseMillis, lease)
+-- Every lease expires by then, so the set itself can go too
+redis.call('PEXPIRE', key, leaseMillis)
+return 1
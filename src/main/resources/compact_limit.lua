@@ -0,0 +1,37 @@
+-- Fixed window for KeyLayout.COMPACT: the counter is field ARGV[1] of hash KEYS[1], with its own expiry
+-- ARGV[1] allows ARGV[2] permits per ARGV[3] milliseconds; the call takes ARGV[4] permits (default 1)
+-- Field expiry needs Redis 7.4+
+-- Returns {allowed (1/0), remaining permits, milliseconds until the window resets}
+local key = KEYS[1]
+local field = ARGV[1]
+local limit = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+local cost = tonumber(ARGV[4]) or 1
+
+-- Rejected calls are counted too, as in limit.lua
+local current = redis.call('HINCRBY', key, field, cost)
+
+local reset
+if current == cost then
+    -- New window
+    redis.call('HPEXPIRE', key, window, 'FIELDS', 1, field)
+    reset = window
+else
+    reset = redis.call('HPTTL', key, 'FIELDS', 1, field)[1]
+    if reset < 0 then
+        -- Field without a TTL would never reset: start its window now
+        redis.call('HPEXPIRE', key, window, 'FIELDS', 1, field)
+        reset = window
+    end
+end
+
+if current > limit then
+    local before = current - cost
+    if before < limit then
+        -- Permits were left, just fewer than this call takes
+        redis.call('HINCRBY', key, field, -cost)
+        return {0, limit - before, reset} -- Reject request
+    end
+    return {0, 0, reset} -- Reject request
+end
+return {1, limit - current, reset} -- Allow request
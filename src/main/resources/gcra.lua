@@ -0,0 +1,29 @@
+-- GCRA: stores only the theoretical arrival time (TAT) per key; a call takes ARGV[3] permits (default 1)
+-- Returns {allowed (1/0), remaining burst, milliseconds until the burst is fully restored or, when rejected,
+-- until the request would conform}
+local key = KEYS[1]
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2]) -- Milliseconds
+local interval = window / limit -- Emission interval in milliseconds
+local cost = tonumber(ARGV[3]) or 1
+
+-- Redis server time in milliseconds, so node clock skew doesn't matter
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local tat = tonumber(redis.call('GET', key) or now)
+if tat < now then
+    tat = now
+end
+
+-- Allow a burst of up to limit requests: the new TAT may run at most one window ahead
+-- (0.001ms slack absorbs float rounding when intervals add up to exactly one window)
+local newTat = tat + interval * cost
+if newTat - now > window + 0.001 then
+    -- Reject request; single permits that would still conform are reported as remaining
+    return {0, math.max(math.floor((window + 0.001 - (tat - now)) / interval), 0), math.floor(newTat - now - window)}
+end
+
+redis.call('SET', key, newTat, 'PX', math.ceil(newTat - now))
+-- Requests that still fit before the TAT would run more than one window ahead
+return {1, math.floor((window + 0.001 - (newTat - now)) / interval), math.ceil(newTat - now)} -- Allow request
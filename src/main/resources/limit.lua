@@ -1,19 +1,36 @@
--- Get key, limit, time window
+-- Fixed window: one INCRBY per call, the window starts with the first request
+-- KEYS[1] allows ARGV[1] permits per ARGV[2] milliseconds; the call takes ARGV[3] permits (default 1)
+-- Returns {allowed (1/0), remaining permits, milliseconds until the window resets}
 local key = KEYS[1]
 local limit = tonumber(ARGV[1])
 local window = tonumber(ARGV[2])
+local cost = tonumber(ARGV[3]) or 1
 
--- Current request count
-local current = tonumber(redis.call('get', key) or "0")
+-- Rejected calls are counted too; the counter only ever has to be compared with limit
+local current = redis.call('INCRBY', key, cost)
 
-if current + 1 > limit then
-    return 0 -- Reject request
+local reset
+if current == cost then
+    -- New window
+    redis.call('PEXPIRE', key, window)
+    reset = window
 else
-    -- Increment count
-    redis.call("INCRBY", key, 1)
-    if current == 0 then
-        -- Set expiry on first request
-        redis.call("EXPIRE", key, window)
+    reset = redis.call('PTTL', key)
+    if reset < 0 then
+        -- Counter without a TTL (persisted, or written by something other than these scripts): without one
+        -- it would never reset, so start its window now
+        redis.call('PEXPIRE', key, window)
+        reset = window
     end
-    return 1 -- Allow request
 end
+
+if current > limit then
+    local before = current - cost
+    if before < limit then
+        -- Permits were left, just fewer than this call takes: give them back to cheaper calls
+        redis.call('DECRBY', key, cost)
+        return {0, limit - before, reset} -- Reject request
+    end
+    return {0, 0, reset} -- Reject request: callers may deny the key locally until the window resets
+end
+return {1, limit - current, reset} -- Allow request
@@ -0,0 +1,45 @@
+-- Several fixed-window limits checked and committed atomically: all increment or none do
+-- KEYS[i] allows ARGV[2i-1] permits per ARGV[2i] milliseconds; keys share a hash tag (one cluster slot)
+-- The call takes ARGV[2n+i] permits of KEYS[i] (n keys), 1 when costs are not sent
+-- Returns {allowed (1/0), 1-based index of the limit described, its remaining permits, milliseconds until
+-- its window resets}: the first exhausted limit when rejected, the one with the fewest permits left otherwise
+local n = #KEYS
+for i, key in ipairs(KEYS) do
+    local limit = tonumber(ARGV[2 * i - 1])
+    local cost = tonumber(ARGV[2 * n + i]) or 1
+    local current = tonumber(redis.call('get', key) or "0")
+    if current + cost > limit then
+        local reset = redis.call('PTTL', key)
+        if reset == -1 then
+            -- Counter without a TTL (persisted, or written by something other than these scripts): without one
+            -- it would never reset, so start its window now
+            reset = tonumber(ARGV[2 * i])
+            redis.call('PEXPIRE', key, reset)
+        end
+        return {0, i, math.max(limit - current, 0), math.max(reset, 0)} -- Reject request
+    end
+end
+
+local tightest, remaining, reset = 1, nil, 0
+for i, key in ipairs(KEYS) do
+    local cost = tonumber(ARGV[2 * n + i]) or 1
+    local current = redis.call("INCRBY", key, cost)
+    local window = tonumber(ARGV[2 * i])
+    local ttl = window
+    if current == cost then
+        -- Set expiry on first request
+        redis.call("PEXPIRE", key, window)
+    else
+        ttl = redis.call('PTTL', key)
+        if ttl < 0 then
+            -- Counter without a TTL: start its window now, as above
+            redis.call("PEXPIRE", key, window)
+            ttl = window
+        end
+    end
+    local left = tonumber(ARGV[2 * i - 1]) - current
+    if remaining == nil or left < remaining then
+        tightest, remaining, reset = i, left, ttl
+    end
+end
+return {1, tightest, remaining, reset} -- Allow request
@@ -0,0 +1,47 @@
+-- Sliding window counter: previous window weighted by overlap + current window, one hash per key
+-- A call takes ARGV[3] permits (default 1)
+-- Returns {allowed (1/0), remaining permits, milliseconds until the current window ends or, when rejected,
+-- until a request could be allowed}
+local key = KEYS[1]
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2]) -- Milliseconds
+local cost = tonumber(ARGV[3]) or 1
+
+-- Redis server time in milliseconds, so node clock skew doesn't matter
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local index = math.floor(now / window)
+
+local state = redis.call('HMGET', key, 'index', 'current', 'previous')
+local storedIndex = tonumber(state[1])
+local current = tonumber(state[2]) or 0
+local previous = tonumber(state[3]) or 0
+
+if storedIndex ~= index then
+    -- Roll over: the old current window only counts if it is the adjacent one
+    if storedIndex == index - 1 then
+        previous = current
+    else
+        previous = 0
+    end
+    current = 0
+end
+
+-- Share of the previous window still covered by the sliding window
+local elapsed = now % window
+local overlap = 1 - elapsed / window
+local estimate = previous * overlap + current + cost
+
+if estimate > limit then
+    -- Reject request: wait for the current window to end, or for enough of the previous one to slide out
+    local wait = window - elapsed
+    if current + cost <= limit and previous > 0 then
+        wait = math.min(wait, window * (1 - (limit - current - cost) / previous) - elapsed)
+    end
+    -- Permits left for cheaper calls are still reported
+    return {0, math.max(math.floor(limit - (estimate - cost)), 0), math.max(math.floor(wait), 0)}
+end
+
+redis.call('HSET', key, 'index', index, 'current', current + cost, 'previous', previous)
+redis.call('PEXPIRE', key, window * 2)
+return {1, math.floor(limit - estimate), window - elapsed} -- Allow request
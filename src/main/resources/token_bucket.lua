@@ -0,0 +1,32 @@
+-- Token bucket: capacity = limit, refilled continuously at limit tokens per window; a call takes ARGV[3]
+-- tokens (default 1)
+-- Returns {allowed (1/0), remaining tokens, milliseconds until the bucket is full or, when rejected,
+-- until enough tokens for the call}
+local key = KEYS[1]
+local capacity = tonumber(ARGV[1])
+local window = tonumber(ARGV[2]) -- Milliseconds
+local cost = tonumber(ARGV[3]) or 1
+local rate = capacity / window -- Tokens per millisecond
+
+-- Redis server time in milliseconds, so node clock skew doesn't matter
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+-- A missing key is a full bucket
+local state = redis.call('HMGET', key, 'tokens', 'ts')
+local tokens = tonumber(state[1]) or capacity
+local ts = tonumber(state[2]) or now
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+
+if tokens < cost then
+    -- Reject request; tokens left for cheaper calls are still reported
+    return {0, math.floor(tokens), math.ceil((cost - tokens) / rate)}
+end
+
+tokens = tokens - cost
+redis.call('HSET', key, 'tokens', tokens, 'ts', now)
+-- Expire once the bucket would be full again
+local full = math.ceil((capacity - tokens) / rate)
+redis.call('PEXPIRE', key, full + 1)
+return {1, math.floor(tokens), full} -- Allow request
@@ -1,8 +1,11 @@
 package com.ratelimiter;
 
+import com.ratelimiter.exception.BulkheadFullException;
 import com.ratelimiter.exception.CircuitBreakerException;
 import com.ratelimiter.exception.GlobalExceptionHandler;
 import com.ratelimiter.exception.RateLimitException;
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.RateLimitResult;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
@@ -45,6 +48,18 @@ class GlobalExceptionHandlerTest {
         assertThat(result.getBody()).containsEntry("message", "Too many requests, please try again later");
     }
 
+    @Test
+    @DisplayName("RateLimitException with a result sets RateLimit-* and Retry-After headers")
+    void handleRateLimitException_withResult() {
+        ResponseEntity<Map<String, Object>> result = handler.handleRateLimitException(new RateLimitException("busy",
+                RateLimitResult.rejected(LimitRule.fixedWindow("rate:limit:k", 5, 60), 1500)));
+
+        assertThat(result.getHeaders().getFirst("RateLimit-Limit")).isEqualTo("5");
+        assertThat(result.getHeaders().getFirst("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(result.getHeaders().getFirst("RateLimit-Reset")).isEqualTo("2");
+        assertThat(result.getHeaders().getFirst("Retry-After")).isEqualTo("2");
+    }
+
     @Test
     @DisplayName("CircuitBreakerException with message returns that message")
     void handleCircuitBreakerException_withMessage() {
@@ -70,4 +85,17 @@ class GlobalExceptionHandlerTest {
         assertThat(result.getBody()).containsEntry("code", "CIRCUIT_BREAKER_OPEN");
         assertThat(result.getBody()).containsEntry("message", "Service temporarily unavailable, please try again later");
     }
+
+    @Test
+    @DisplayName("BulkheadFullException returns 503 with BULKHEAD_FULL")
+    void handleBulkheadFullException() {
+        ResponseEntity<Map<String, Object>> result = handler.handleBulkheadFullException(
+                new BulkheadFullException((String) null)
+        );
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(result.getBody()).containsEntry("status", 503);
+        assertThat(result.getBody()).containsEntry("code", "BULKHEAD_FULL");
+        assertThat(result.getBody()).containsEntry("message", "Too many concurrent requests, please try again later");
+    }
 }
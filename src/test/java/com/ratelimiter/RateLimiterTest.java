@@ -1,5 +1,6 @@
 package com.ratelimiter;
 
+import com.ratelimiter.actuator.RateLimiterEndpoint;
 import com.ratelimiter.exception.CircuitBreakerException;
 import com.ratelimiter.exception.RateLimitException;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,21 +13,37 @@ import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.ClassOrderer;
 import org.junit.jupiter.api.TestClassOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Rate limiting and circuit breaker integration tests.
@@ -43,6 +60,13 @@ class RateLimiterTest {
     @Autowired
     private MockMvc mockMvc;
 
+    /**
+     * Single-key script replies {allowed, remaining, resetMillis}; a reset of 0 keeps rejections out of the
+     * denial cache, so each test controls its own verdicts.
+     */
+    private static final List<Long> ALLOWED = List.of(1L, 2L, 60_000L);
+    private static final List<Long> REJECTED = List.of(0L, 0L, 0L);
+
     @MockBean
     private StringRedisTemplate redisTemplate;
 
@@ -54,7 +78,7 @@ class RateLimiterTest {
                 anyList(),
                 any(),
                 any()
-        )).thenReturn(1L);
+        )).thenReturn(ALLOWED);
     }
 
     @Nested
@@ -64,21 +88,25 @@ class RateLimiterTest {
     class RateLimitTests {
 
         @Test
-        @DisplayName("Normal pass: Lua returns 1, expect Success!")
+        @DisplayName("Normal pass: Lua admits, expect Success!")
         void normalPass_shouldReturnSuccess() throws Exception {
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(1L);
+                    .thenReturn(ALLOWED);
 
             mockMvc.perform(get("/api/test"))
                     .andExpect(status().isOk())
-                    .andExpect(content().string("Success!"));
+                    .andExpect(content().string("Success!"))
+                    .andExpect(header().string("RateLimit-Limit", "3"))
+                    .andExpect(header().string("RateLimit-Remaining", "2"))
+                    .andExpect(header().string("RateLimit-Reset", "60"))
+                    .andExpect(header().doesNotExist("Retry-After"));
         }
 
         @Test
-        @DisplayName("Rate limited with fallback: Lua returns 0, expect fallback message")
+        @DisplayName("Rate limited with fallback: Lua rejects, expect fallback message")
         void rateLimitedWithFallback_shouldReturnFallbackMessage() throws Exception {
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(0L);
+                    .thenReturn(REJECTED);
 
             mockMvc.perform(get("/api/test"))
                     .andExpect(status().isOk())
@@ -86,21 +114,21 @@ class RateLimiterTest {
         }
 
         @Test
-        @DisplayName("Rate limited with non-existent fallback: expect 429")
-        void rateLimitedWithBadFallback_shouldReturn429() throws Exception {
+        @DisplayName("Rate limited with argument fallback: fallback receives the original arguments")
+        void rateLimitedWithArgsFallback_shouldPassArguments() throws Exception {
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(0L);
+                    .thenReturn(REJECTED);
 
-            mockMvc.perform(get("/api/test-bad-fallback"))
-                    .andExpect(status().isTooManyRequests())
-                    .andExpect(jsonPath("$.code").value("TOO_MANY_REQUESTS"));
+            mockMvc.perform(get("/api/test-fallback-args").param("name", "alice"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Sorry alice, please try again later"));
         }
 
         @Test
         @DisplayName("test-no-fallback normal pass")
         void testNoFallback_normalPass() throws Exception {
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(1L);
+                    .thenReturn(ALLOWED);
 
             mockMvc.perform(get("/api/test-no-fallback"))
                     .andExpect(status().isOk())
@@ -108,10 +136,10 @@ class RateLimiterTest {
         }
 
         @Test
-        @DisplayName("Rate limited without fallback: Lua returns 0, expect 429 and JSON error")
+        @DisplayName("Rate limited without fallback: Lua rejects, expect 429 and JSON error")
         void rateLimitedWithoutFallback_shouldReturn429() throws Exception {
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(0L);
+                    .thenReturn(REJECTED);
 
             mockMvc.perform(get("/api/test-no-fallback"))
                     .andExpect(status().isTooManyRequests())
@@ -119,6 +147,37 @@ class RateLimiterTest {
                     .andExpect(jsonPath("$.code").value("TOO_MANY_REQUESTS"))
                     .andExpect(jsonPath("$.message").value(containsString("Too many")));
         }
+
+        @Test
+        @DisplayName("Rejection reports when to retry: 429 with RateLimit-Reset and Retry-After rounded up")
+        void rejected_shouldSendRetryAfter() throws Exception {
+            // Own key: the 30s rejection is remembered in the denial cache
+            when(redisTemplate.execute(any(RedisScript.class),
+                    eq(List.of("rate:limit:com.ratelimiter.controller.TestController.testPerUser:retry")), any(), any()))
+                    .thenReturn(List.of(0L, 0L, 29_001L));
+
+            mockMvc.perform(get("/api/test-per-user").header("X-User-Id", "retry"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("RateLimit-Limit", "3"))
+                    .andExpect(header().string("RateLimit-Remaining", "0"))
+                    .andExpect(header().string("RateLimit-Reset", "30"))
+                    .andExpect(header().string("Retry-After", "30"));
+        }
+
+        @Test
+        @DisplayName("Mono endpoint: headers written although the check completes off the request thread")
+        void monoEndpoint_writesHeaders() throws Exception {
+            MvcResult started = mockMvc.perform(get("/api/test-mono"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Success!"))
+                    .andExpect(header().string("RateLimit-Limit", "3"))
+                    .andExpect(header().string("RateLimit-Remaining", "2"))
+                    .andExpect(header().string("RateLimit-Reset", "60"));
+        }
     }
 
     @Nested
@@ -132,7 +191,7 @@ class RateLimiterTest {
         @DisplayName("Closed → Open: after multiple failures, circuit opens and returns 503")
         void closedToOpen_shouldReturn503() throws Exception {
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(0L);
+                    .thenReturn(REJECTED);
 
             mockMvc.perform(get("/api/test-circuit")).andExpect(status().isTooManyRequests());
             mockMvc.perform(get("/api/test-circuit")).andExpect(status().isTooManyRequests());
@@ -149,7 +208,7 @@ class RateLimiterTest {
         @DisplayName("test-circuit normal pass")
         void testCircuit_normalPass() throws Exception {
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(1L);
+                    .thenReturn(ALLOWED);
 
             mockMvc.perform(get("/api/test-circuit"))
                     .andExpect(status().isOk())
@@ -164,7 +223,7 @@ class RateLimiterTest {
             Thread.sleep(1100);
 
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(1L);
+                    .thenReturn(ALLOWED);
 
             mockMvc.perform(get("/api/test-circuit")).andExpect(status().isOk());
             mockMvc.perform(get("/api/test-circuit")).andExpect(status().isOk());
@@ -172,6 +231,105 @@ class RateLimiterTest {
         }
     }
 
+    @Nested
+    @Order(4)
+    @DisplayName("Algorithm tests")
+    class AlgorithmTests {
+
+        @Autowired
+        @Qualifier("gcraScript")
+        private DefaultRedisScript<List<Long>> gcraScript;
+
+        @Test
+        @DisplayName("GCRA endpoint evaluates gcra.lua")
+        void gcraEndpoint_usesGcraScript() throws Exception {
+            mockMvc.perform(get("/api/test-gcra"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Success!"));
+
+            verify(redisTemplate).execute(eq(gcraScript), anyList(), any(), any());
+        }
+
+        @Test
+        @DisplayName("GCRA rejection: Lua rejects, expect 429")
+        void gcraRejected_shouldReturn429() throws Exception {
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                    .thenReturn(REJECTED);
+
+            mockMvc.perform(get("/api/test-gcra"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(jsonPath("$.code").value("TOO_MANY_REQUESTS"));
+        }
+    }
+
+    @Nested
+    @Order(5)
+    @DisplayName("Repeated @RateLimit tests")
+    class MultiLimitTests {
+
+        @Autowired
+        @Qualifier("multiLimitScript")
+        private DefaultRedisScript<List<Long>> multiLimitScript;
+
+        @Test
+        @DisplayName("All limits admit: one multi-key call with hash-tagged keys, expect Success!")
+        void allLimitsAdmit_shouldReturnSuccess() throws Exception {
+            when(redisTemplate.execute(eq(multiLimitScript), anyList(), any(), any(), any(), any()))
+                    .thenReturn(List.of(1L, 1L, 2L, 60_000L));
+
+            mockMvc.perform(get("/api/test-multi"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Success!"));
+
+            verify(redisTemplate).execute(eq(multiLimitScript),
+                    eq(List.of("rate:limit:{rate:global:}com.ratelimiter.controller.TestController.testMulti:0",
+                            "{rate:global:}")),
+                    eq("3"), eq("60000"), eq("100"), eq("3600000"));
+        }
+
+        @Test
+        @DisplayName("First limit rejects without fallback: expect 429")
+        void firstLimitRejects_shouldReturn429() throws Exception {
+            when(redisTemplate.execute(eq(multiLimitScript), anyList(), any(), any(), any(), any()))
+                    .thenReturn(List.of(0L, 1L, 0L, 0L));
+
+            mockMvc.perform(get("/api/test-multi"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(jsonPath("$.code").value("TOO_MANY_REQUESTS"));
+        }
+
+        @Test
+        @DisplayName("Global limit rejects: its own fallback is used")
+        void globalLimitRejects_shouldReturnFallback() throws Exception {
+            when(redisTemplate.execute(eq(multiLimitScript), anyList(), any(), any(), any(), any()))
+                    .thenReturn(List.of(0L, 2L, 0L, 0L));
+
+            mockMvc.perform(get("/api/test-multi"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Please wait, your request is queued..."));
+        }
+    }
+
+    @Nested
+    @Order(6)
+    @DisplayName("keyExpression tests")
+    class KeyExpressionTests {
+
+        @Test
+        @DisplayName("Header-based key: each user gets its own bucket")
+        void headerKey_appendedToMethodKey() throws Exception {
+            mockMvc.perform(get("/api/test-per-user").header("X-User-Id", "alice"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/test-per-user").header("X-User-Id", "bob"))
+                    .andExpect(status().isOk());
+
+            verify(redisTemplate).execute(any(RedisScript.class),
+                    eq(List.of("rate:limit:com.ratelimiter.controller.TestController.testPerUser:alice")), any(), any());
+            verify(redisTemplate).execute(any(RedisScript.class),
+                    eq(List.of("rate:limit:com.ratelimiter.controller.TestController.testPerUser:bob")), any(), any());
+        }
+    }
+
     @Nested
     @Order(3)
     @DisplayName("GlobalExceptionHandler tests")
@@ -181,7 +339,7 @@ class RateLimiterTest {
         @DisplayName("RateLimitException returns 429 with correct JSON")
         void rateLimitException_shouldReturn429() throws Exception {
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(0L);
+                    .thenReturn(REJECTED);
 
             mockMvc.perform(get("/api/test-no-fallback"))
                     .andExpect(status().isTooManyRequests())
@@ -195,7 +353,7 @@ class RateLimiterTest {
         @DisplayName("CircuitBreakerException returns 503 with correct JSON")
         void circuitBreakerException_shouldReturn503() throws Exception {
             when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
-                    .thenReturn(0L);
+                    .thenReturn(REJECTED);
 
             mockMvc.perform(get("/api/test-circuit"));
             mockMvc.perform(get("/api/test-circuit"));
@@ -208,4 +366,67 @@ class RateLimiterTest {
                     .andExpect(jsonPath("$.message").exists());
         }
     }
+
+    @Nested
+    @Order(7)
+    @DisplayName("Metrics and actuator endpoint tests")
+    class MetricsTests {
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Autowired
+        private RateLimiterEndpoint endpoint;
+
+        @Test
+        @DisplayName("Allowed and denied calls are counted per method and key")
+        void callsCountedByOutcome() throws Exception {
+            String method = "com.ratelimiter.controller.TestController.testNoFallback";
+            double allowed = meterRegistry.get("ratelimiter.calls").tags("method", method, "outcome", "allowed")
+                    .counter().count();
+            double denied = meterRegistry.get("ratelimiter.calls").tags("method", method, "outcome", "denied")
+                    .counter().count();
+
+            mockMvc.perform(get("/api/test-no-fallback")).andExpect(status().isOk());
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(REJECTED);
+            mockMvc.perform(get("/api/test-no-fallback")).andExpect(status().isTooManyRequests());
+
+            assertThat(meterRegistry.get("ratelimiter.calls").tags("method", method, "outcome", "allowed")
+                    .counter().count()).isEqualTo(allowed + 1);
+            assertThat(meterRegistry.get("ratelimiter.calls").tags("method", method, "outcome", "denied")
+                    .counter().count()).isEqualTo(denied + 1);
+        }
+
+        @Test
+        @DisplayName("Endpoint lists limits with window usage and breaker state")
+        @SuppressWarnings("unchecked")
+        void endpointListsProtectedMethods() {
+            ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+            when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+            when(valueOperations.get(anyString())).thenReturn("2");
+
+            Map<String, Map<String, Object>> methods = endpoint.rateLimiters();
+
+            Map<String, Object> test = methods.get("com.ratelimiter.controller.TestController.test");
+            List<Map<String, Object>> limits = (List<Map<String, Object>>) test.get("rateLimits");
+            assertThat(limits).singleElement().satisfies(limit -> {
+                assertThat(limit.get("count")).isEqualTo(3);
+                assertThat(limit.get("used")).isEqualTo(2L);
+            });
+            assertThat((Map<String, Object>) test.get("circuitBreaker")).containsKey("state");
+        }
+
+        @Test
+        @DisplayName("Limits cannot be changed over HTTP by default: ratelimiters is read-only, overrides are off")
+        void overrideEndpoint_disabledByDefault() throws Exception {
+            String override = "{\"key\": \"rate:limit:com.ratelimiter.controller.TestController.test\","
+                    + " \"count\": 2147483647, \"time\": 1}";
+
+            mockMvc.perform(post("/actuator/ratelimiters").contentType(MediaType.APPLICATION_JSON).content(override))
+                    .andExpect(status().isMethodNotAllowed());
+            mockMvc.perform(post("/actuator/ratelimiteroverrides").contentType(MediaType.APPLICATION_JSON)
+                            .content(override))
+                    .andExpect(status().isNotFound());
+        }
+    }
 }
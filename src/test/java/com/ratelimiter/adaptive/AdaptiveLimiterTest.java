@@ -0,0 +1,134 @@
+package com.ratelimiter.adaptive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AdaptiveLimiter unit tests—admission, growth at the baseline latency, shrinking under queueing or drops and
+ * app-limited windows.
+ */
+class AdaptiveLimiterTest {
+
+    private static final long WINDOW = 100;
+
+    private final AtomicLong now = new AtomicLong();
+    private long windows;
+
+    // 100ms windows, 1 sample minimum, median latency, tolerance 1.5, smoothing 0.2, backoff 0.9
+    private AdaptiveLimiter limiter(int initialLimit) {
+        return new AdaptiveLimiter(initialLimit, 1, 1000, WINDOW, 1, 0.5, 1.5, 0.2, 0.9, now::get);
+    }
+
+    /**
+     * One window: up to calls are admitted together, then all complete with the given latency; the last completion
+     * falls on the window boundary and updates the limit.
+     */
+    private void window(AdaptiveLimiter limiter, int calls, long latencyMillis) {
+        now.set(windows * WINDOW + WINDOW / 2);
+        int admitted = 0;
+        while (admitted < calls && limiter.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted - 1; i++) {
+            limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+        now.set(++windows * WINDOW);
+        limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    }
+
+    @Test
+    @DisplayName("Admits up to the limit; failed calls give their slot back")
+    void admission() {
+        AdaptiveLimiter limiter = limiter(2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.onIgnore();
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Saturated at the baseline latency: the limit grows")
+    void growsAtBaseline() {
+        AdaptiveLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 10; i++) {
+            window(limiter, 1000, 10);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(15);
+        assertThat(limiter.getLongRttNanos()).isBetween(TimeUnit.MILLISECONDS.toNanos(9),
+                TimeUnit.MILLISECONDS.toNanos(11));
+    }
+
+    @Test
+    @DisplayName("Latency past tolerance x baseline: the limit shrinks")
+    void shrinksWhenLatencyRises() {
+        AdaptiveLimiter limiter = limiter(40);
+        for (int i = 0; i < 3; i++) {
+            window(limiter, 1000, 10);
+        }
+        int beforeSlowdown = limiter.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            window(limiter, 1000, 40);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(beforeSlowdown);
+        assertThat(limiter.getShortRttNanos()).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(35));
+    }
+
+    @Test
+    @DisplayName("Traffic below half the limit: the limit stays put")
+    void appLimitedWindowsKeepLimit() {
+        AdaptiveLimiter limiter = limiter(20);
+
+        for (int i = 0; i < 10; i++) {
+            window(limiter, 3, 10);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Dropped calls free their slot and shrink the limit by backoffRatio, down to minLimit")
+    void dropsShrinkLimit() {
+        AdaptiveLimiter limiter = limiter(100);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.onDropped();
+
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(90);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Never leaves [minLimit, maxLimit]")
+    void bounded() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(6, 5, 7, WINDOW, 1, 0.5, 1.5, 0.2, 0.9, now::get);
+
+        for (int i = 0; i < 20; i++) {
+            window(limiter, 1000, 10);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(7);
+
+        for (int i = 0; i < 40; i++) {
+            window(limiter, 1000, 100);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+}
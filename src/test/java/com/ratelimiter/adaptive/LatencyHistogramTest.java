@@ -0,0 +1,86 @@
+package com.ratelimiter.adaptive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * LatencyHistogram unit tests—bucket precision, percentiles, window expiry and concurrent recording.
+ */
+class LatencyHistogramTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    // 1s window in 4 slices of 250ms
+    private final LatencyHistogram histogram = new LatencyHistogram(1000, 4, now::get);
+
+    @Test
+    @DisplayName("Buckets are monotonic and their midpoints within 12.5% of any value they hold")
+    void bucketPrecision() {
+        int previous = -1;
+        for (long nanos = 1; nanos < TimeUnit.SECONDS.toNanos(100); nanos = nanos * 5 / 4 + 1) {
+            int bucket = LatencyHistogram.bucket(nanos);
+            assertThat(bucket).isGreaterThanOrEqualTo(previous).isLessThan(LatencyHistogram.BUCKETS);
+            assertThat((double) LatencyHistogram.midpoint(bucket)).isCloseTo(nanos, within(nanos * 0.125 + 1));
+            previous = bucket;
+        }
+        assertThat(LatencyHistogram.bucket(Long.MAX_VALUE)).isLessThan(LatencyHistogram.BUCKETS);
+    }
+
+    @Test
+    @DisplayName("Percentiles of the recorded latencies")
+    void percentiles() {
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat((double) histogram.percentile(0.5)).isCloseTo(50e6, within(50e6 * 0.125));
+        assertThat((double) histogram.percentile(0.99)).isCloseTo(99e6, within(99e6 * 0.125));
+    }
+
+    @Test
+    @DisplayName("Window slides: samples older than the window no longer count")
+    void oldSamplesSlideOut() {
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(500));
+        now.addAndGet(600);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(histogram.count()).isEqualTo(2);
+
+        now.addAndGet(600);
+
+        assertThat(histogram.count()).isEqualTo(1);
+        assertThat(histogram.percentile(1.0)).isLessThan(TimeUnit.MILLISECONDS.toNanos(6));
+        assertThat(new LatencyHistogram(1000, 4, now::get).percentile(0.5)).isZero();
+    }
+
+    @Test
+    @DisplayName("Concurrent recording loses no samples")
+    void concurrentRecording() throws InterruptedException {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i);
+                }
+                done.countDown();
+            });
+        }
+        done.await(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(histogram.count()).isEqualTo((long) threads * perThread);
+    }
+}
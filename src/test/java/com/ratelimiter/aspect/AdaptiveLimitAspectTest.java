@@ -0,0 +1,137 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.adaptive.AdaptiveLimiter;
+import com.ratelimiter.annotation.AdaptiveLimit;
+import com.ratelimiter.exception.RateLimitException;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * AdaptiveLimitAspect unit tests—admission against the current limit, fallbacks, slots freed when calls end and
+ * timeouts shrinking the limit.
+ */
+class AdaptiveLimitAspectTest {
+
+    private MethodMetadataRegistry registry;
+    private AdaptiveBean proxy;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MethodMetadataRegistry(mock(ApplicationContext.class), new KeyExpressionResolver(),
+                new RateLimiterMetrics(new SimpleMeterRegistry()));
+        registry.register(AdaptiveBean.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new AdaptiveBean());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new AdaptiveLimitAspect(registry));
+        proxy = factory.getProxy();
+    }
+
+    private AdaptiveLimiter limiter(String method) {
+        return registry.getAdaptiveLimits().stream()
+                .filter(metadata -> metadata.getMethodKey().endsWith("." + method))
+                .findFirst().orElseThrow()
+                .getLimiter();
+    }
+
+    @Test
+    @DisplayName("CompletableFuture: the slot is held until the future completes, then the next call is admitted")
+    void future_holdsSlotUntilCompletion() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        proxy.future(pending);
+        assertThat(limiter("future").getInFlight()).isEqualTo(1);
+        assertThat(proxy.future(CompletableFuture.completedFuture("ok")).join()).isEqualTo("busy");
+
+        pending.complete("done");
+        assertThat(limiter("future").getInFlight()).isZero();
+        assertThat(proxy.future(CompletableFuture.completedFuture("ok")).join()).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("Blocking: exceptions free the slot, calls over the limit without a fallback get a 429")
+    void blocking_rejectsOverLimit() {
+        assertThatThrownBy(() -> proxy.failing()).isInstanceOf(IllegalStateException.class);
+        assertThat(limiter("failing").getInFlight()).isZero();
+
+        assertThat(limiter("nested").tryAcquire()).isTrue();
+        assertThatThrownBy(() -> proxy.nested()).isInstanceOf(RateLimitException.class);
+    }
+
+    @Test
+    @DisplayName("Timeouts shrink the limit, directly or as the cause of an async failure; other errors do not")
+    void timeouts_shrinkLimit() {
+        assertThatThrownBy(() -> proxy.timingOut()).isInstanceOf(TimeoutException.class);
+        assertThat(limiter("timingOut").getLimit()).isEqualTo(9);
+        assertThat(limiter("timingOut").getInFlight()).isZero();
+
+        assertThatThrownBy(() -> proxy.failing()).isInstanceOf(IllegalStateException.class);
+        assertThat(limiter("failing").getLimit()).isEqualTo(1);
+
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        proxy.futureTimingOut(pending);
+        pending.completeExceptionally(new IllegalStateException(new TimeoutException("read timed out")));
+        assertThat(limiter("futureTimingOut").getLimit()).isEqualTo(9);
+        assertThat(limiter("futureTimingOut").getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Mono: admitted per subscription, slot freed when the publisher completes")
+    void mono_admittedOnSubscription() {
+        Mono<String> mono = proxy.mono();
+        assertThat(limiter("mono").getInFlight()).isZero();
+
+        assertThat(mono.block()).isEqualTo("ok");
+        assertThat(mono.block()).isEqualTo("ok");
+        assertThat(limiter("mono").getInFlight()).isZero();
+    }
+
+    public static class AdaptiveBean {
+
+        @AdaptiveLimit(initialLimit = 1, maxLimit = 1, fallbackMethod = "busy")
+        public CompletableFuture<String> future(CompletableFuture<String> result) {
+            return result;
+        }
+
+        public CompletableFuture<String> busy() {
+            return CompletableFuture.completedFuture("busy");
+        }
+
+        @AdaptiveLimit(initialLimit = 1, maxLimit = 1)
+        public String failing() {
+            throw new IllegalStateException("boom");
+        }
+
+        @AdaptiveLimit(initialLimit = 10, maxLimit = 10)
+        public String timingOut() throws TimeoutException {
+            throw new TimeoutException("backend timed out");
+        }
+
+        @AdaptiveLimit(initialLimit = 10, maxLimit = 10)
+        public CompletableFuture<String> futureTimingOut(CompletableFuture<String> result) {
+            return result;
+        }
+
+        @AdaptiveLimit(initialLimit = 1, maxLimit = 1)
+        public String nested() {
+            return "ok";
+        }
+
+        @AdaptiveLimit(initialLimit = 1, maxLimit = 1)
+        public Mono<String> mono() {
+            return Mono.just("ok");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.annotation.CircuitBreaker;
+import com.ratelimiter.annotation.RateLimit;
+import com.ratelimiter.breaker.CircuitState;
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.exception.RateLimitException;
+import com.ratelimiter.hotkey.HeavyHitters;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.LocalRateLimiter;
+import com.ratelimiter.service.RateLimitResult;
+import com.ratelimiter.service.RateLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RateLimitAspect and CircuitBreakerAspect on Mono, Flux and CompletableFuture methods—
+ * non-blocking limit checks and outcomes recorded when the result terminates.
+ */
+class AsyncAspectTest {
+
+    private RateLimitService rateLimitService;
+    private MethodMetadataRegistry registry;
+    private AsyncBean target;
+    private AsyncBean proxy;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = mock(RateLimitService.class);
+        registry = new MethodMetadataRegistry(mock(ApplicationContext.class), new KeyExpressionResolver(),
+                new RateLimiterMetrics(new SimpleMeterRegistry()));
+        target = new AsyncBean();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        RateLimiterProperties properties = new RateLimiterProperties();
+        factory.addAspect(new CircuitBreakerAspect(registry));
+        factory.addAspect(new RateLimitAspect(rateLimitService, registry,
+                new HeavyHitters(properties, new LocalRateLimiter(properties))));
+        proxy = factory.getProxy();
+    }
+
+    private CircuitState state(String method) {
+        return registry.getCircuitBreakers().stream()
+                .filter(metadata -> metadata.getMethodKey().endsWith("." + method))
+                .findFirst().orElseThrow()
+                .getState();
+    }
+
+    private static RateLimitResult result(boolean allowed) {
+        return RateLimitResult.of(allowed, LimitRule.fixedWindow("k", 5, 60));
+    }
+
+    @Test
+    @DisplayName("Mono: limit checked per subscription without blocking, method invoked only when admitted")
+    void mono_checkedOnSubscription() {
+        when(rateLimitService.acquireReactive(any())).thenReturn(Mono.just(result(true)), Mono.just(result(false)));
+
+        Mono<String> admitted = proxy.limited();
+        assertThat(target.invocations.get()).isZero();
+        assertThat(admitted.block()).isEqualTo("ok");
+
+        assertThatThrownBy(() -> proxy.limited().block()).isInstanceOf(RateLimitException.class);
+        assertThat(target.invocations.get()).isEqualTo(1);
+        verify(rateLimitService, never()).acquire(any());
+    }
+
+    @Test
+    @DisplayName("Flux: rejected subscription gets the fallback publisher")
+    void flux_fallback() {
+        when(rateLimitService.acquireReactive(any())).thenReturn(Mono.just(result(false)));
+
+        assertThat(proxy.stream().collectList().block()).containsExactly("later");
+        assertThat(target.invocations.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Mono: errors signalled by the publisher count as failures and open the circuit")
+    void mono_errorSignalRecordedAsFailure() {
+        Mono<String> failing = proxy.failing();
+        assertThat(state("failing").getState()).isEqualTo(CircuitState.State.CLOSED);
+
+        assertThatThrownBy(failing::block).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> proxy.failing().block()).isInstanceOf(IllegalStateException.class);
+
+        assertThat(state("failing").getState()).isEqualTo(CircuitState.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("CompletableFuture: outcome recorded when the future completes, not when it is returned")
+    void future_recordedOnCompletion() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> result = proxy.future(pending);
+        assertThat(state("future").getState()).isEqualTo(CircuitState.State.CLOSED);
+
+        pending.completeExceptionally(new IllegalStateException("boom"));
+        assertThatThrownBy(result::join).isInstanceOf(CompletionException.class);
+        assertThat(state("future").getState()).isEqualTo(CircuitState.State.OPEN);
+    }
+
+    public static class AsyncBean {
+
+        final AtomicInteger invocations = new AtomicInteger();
+
+        @RateLimit(count = 5, time = 60)
+        public Mono<String> limited() {
+            invocations.incrementAndGet();
+            return Mono.just("ok");
+        }
+
+        @RateLimit(count = 5, time = 60, fallbackMethod = "streamFallback")
+        public Flux<String> stream() {
+            invocations.incrementAndGet();
+            return Flux.just("a", "b");
+        }
+
+        public Flux<String> streamFallback() {
+            return Flux.just("later");
+        }
+
+        @CircuitBreaker(minRequests = 2)
+        public Mono<String> failing() {
+            return Mono.error(new IllegalStateException("boom"));
+        }
+
+        @CircuitBreaker(minRequests = 1)
+        public CompletableFuture<String> future(CompletableFuture<String> result) {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.annotation.Bulkhead;
+import com.ratelimiter.annotation.BulkheadMode;
+import com.ratelimiter.bulkhead.BulkheadPermit;
+import com.ratelimiter.exception.BulkheadFullException;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import com.ratelimiter.service.RedisBulkheadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationContext;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * BulkheadAspect tests—permits held for the duration of the call, fallbacks, bounded waits and leases.
+ */
+class BulkheadAspectTest {
+
+    private RedisBulkheadService redisBulkheadService;
+    private SimpleMeterRegistry meterRegistry;
+    private BulkheadBean target;
+    private BulkheadBean proxy;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        redisBulkheadService = mock(RedisBulkheadService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        MethodMetadataRegistry registry = new MethodMetadataRegistry(mock(ApplicationContext.class),
+                new KeyExpressionResolver(), new RateLimiterMetrics(meterRegistry));
+        target = new BulkheadBean();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new BulkheadAspect(redisBulkheadService, registry));
+        proxy = factory.getProxy();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("LOCAL: a call beyond maxConcurrent gets the fallback, and the permit is back once the call returns")
+    void local_fullUsesFallback() throws Exception {
+        Future<String> first = executor.submit(proxy::guarded);
+        target.entered.await();
+
+        assertThat(proxy.guarded()).isEqualTo("busy");
+
+        target.release.countDown();
+        assertThat(first.get()).isEqualTo("done");
+        assertThat(proxy.guarded()).isEqualTo("done");
+        assertThat(meterRegistry.get("ratelimiter.bulkhead.calls").tag("outcome", "rejected").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("LOCAL without fallback: BulkheadFullException, and a failing call still returns its permit")
+    void local_fullThrows() {
+        assertThatThrownBy(() -> proxy.failing()).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> proxy.failing()).isInstanceOf(IllegalStateException.class);
+
+        Mono<String> holding = proxy.slow(Duration.ofSeconds(1)).cache();
+        holding.subscribe();
+        assertThatThrownBy(() -> proxy.slow(Duration.ZERO).block()).isInstanceOf(BulkheadFullException.class);
+    }
+
+    @Test
+    @DisplayName("Mono: the permit is held until the publisher terminates, and a waiting subscription gets it")
+    void mono_waitsForPermit() {
+        Mono<String> first = proxy.waiting(Duration.ofMillis(100));
+        Mono<String> second = proxy.waiting(Duration.ZERO);
+
+        assertThat(Mono.zip(first, second).map(pair -> pair.getT1() + pair.getT2()).block()).isEqualTo("slowslow");
+    }
+
+    @Test
+    @DisplayName("DISTRIBUTED: the lease is released after the call, a refused lease gets the fallback")
+    void distributed_usesLeases() throws InterruptedException {
+        AtomicInteger released = new AtomicInteger();
+        String key = "bulkhead:" + BulkheadBean.class.getName() + ".shared";
+        when(redisBulkheadService.acquire(eq(key), eq(2), eq(5_000L), anyLong()))
+                .thenReturn(new BulkheadPermit(released::incrementAndGet), BulkheadPermit.REJECTED);
+
+        assertThat(proxy.shared()).isEqualTo("done");
+        assertThat(released.get()).isEqualTo(1);
+        assertThat(proxy.shared()).isEqualTo("busy");
+    }
+
+    @Test
+    @DisplayName("DISTRIBUTED Mono: leases are taken without blocking")
+    void distributed_reactive() {
+        when(redisBulkheadService.tryAcquireReactive(anyString(), anyInt(), anyLong()))
+                .thenReturn(Mono.just(BulkheadPermit.REJECTED));
+
+        assertThatThrownBy(() -> proxy.sharedReactive().block()).isInstanceOf(BulkheadFullException.class);
+    }
+
+    public static class BulkheadBean {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Bulkhead(maxConcurrent = 1, fallbackMethod = "busy")
+        public String guarded() throws InterruptedException {
+            entered.countDown();
+            release.await();
+            return "done";
+        }
+
+        @Bulkhead(maxConcurrent = 1)
+        public String failing() {
+            throw new IllegalStateException("boom");
+        }
+
+        @Bulkhead(maxConcurrent = 1)
+        public Mono<String> slow(Duration delay) {
+            return Mono.just("slow").delayElement(delay);
+        }
+
+        @Bulkhead(maxConcurrent = 1, maxWaitMillis = 2_000)
+        public Mono<String> waiting(Duration delay) {
+            return Mono.just("slow").delayElement(delay);
+        }
+
+        @Bulkhead(maxConcurrent = 2, mode = BulkheadMode.DISTRIBUTED, leaseMillis = 5_000, fallbackMethod = "busy")
+        public String shared() {
+            return "done";
+        }
+
+        @Bulkhead(mode = BulkheadMode.DISTRIBUTED)
+        public Mono<String> sharedReactive() {
+            return Mono.just("done");
+        }
+
+        public String busy() {
+            return "busy";
+        }
+    }
+}
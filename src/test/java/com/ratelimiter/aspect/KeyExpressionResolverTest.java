@@ -0,0 +1,74 @@
+package com.ratelimiter.aspect;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * KeyExpressionResolver unit tests—arguments, headers, principal and repeated (compiled) evaluation.
+ */
+class KeyExpressionResolverTest {
+
+    private final KeyExpressionResolver resolver = new KeyExpressionResolver();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Argument by name and by position")
+    void resolvesArguments() throws Exception {
+        Method method = getClass().getDeclaredMethod("target", String.class, int.class);
+        Object[] args = {"alice", 7};
+
+        assertThat(resolver.compile(method, "#userId").evaluate(args)).isEqualTo("alice");
+        assertThat(resolver.compile(method, "#p0 + ':' + #a1").evaluate(args)).isEqualTo("alice:7");
+    }
+
+    @Test
+    @DisplayName("Compiled expression keeps resolving per-call arguments")
+    void repeatedEvaluation_usesCurrentArguments() throws Exception {
+        Method method = getClass().getDeclaredMethod("target", String.class, int.class);
+        KeyExpressionResolver.CompiledKeyExpression expression = resolver.compile(method, "#userId");
+
+        // First calls interpret and trigger compilation; later ones run the compiled form
+        for (int i = 0; i < 5; i++) {
+            assertThat(expression.evaluate(new Object[]{"user-" + i, i})).isEqualTo("user-" + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Request header and principal")
+    void resolvesHeaderAndPrincipal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Api-Key", "key-123");
+        request.setUserPrincipal(() -> "bob");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        Method method = getClass().getDeclaredMethod("target", String.class, int.class);
+        Object[] args = {"alice", 1};
+
+        assertThat(resolver.compile(method, "header('X-Api-Key')").evaluate(args)).isEqualTo("key-123");
+        assertThat(resolver.compile(method, "principal.name").evaluate(args)).isEqualTo("bob");
+    }
+
+    @Test
+    @DisplayName("Outside a request, header resolves to null")
+    void noRequest_headerIsNull() throws Exception {
+        Method method = getClass().getDeclaredMethod("target", String.class, int.class);
+
+        assertThat(resolver.compile(method, "header('X-Api-Key')").evaluate(new Object[]{"alice", 1}))
+                .isEqualTo("null");
+    }
+
+    @SuppressWarnings("unused")
+    private void target(String userId, int tenant) {
+    }
+}
@@ -0,0 +1,463 @@
+package com.ratelimiter.aspect;
+
+import com.ratelimiter.annotation.AdaptiveLimit;
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.annotation.Bulkhead;
+import com.ratelimiter.annotation.CircuitBreaker;
+import com.ratelimiter.annotation.KeyLayout;
+import com.ratelimiter.annotation.RateLimit;
+import com.ratelimiter.config.LimitOverride;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import com.ratelimiter.service.LimitRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * MethodMetadataRegistry unit tests—precomputed keys, fallback validation and argument-passing fallbacks.
+ */
+class MethodMetadataRegistryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MethodMetadataRegistry registry = new MethodMetadataRegistry(mock(ApplicationContext.class),
+            new KeyExpressionResolver(), new RateLimiterMetrics(meterRegistry));
+
+    @Test
+    @DisplayName("Single and combined limits get their keys precomputed")
+    void precomputesKeys() {
+        registry.register(ValidBean.class);
+
+        List<RateLimitMetadata> metadata = registry.getRateLimits().stream()
+                .sorted(Comparator.comparing(RateLimitMetadata::getMethodKey))
+                .toList();
+        String prefix = ValidBean.class.getName();
+
+        assertThat(metadata).extracting(RateLimitMetadata::getMethodKey)
+                .containsExactly(prefix + ".combined", prefix + ".greet", prefix + ".single");
+        assertThat(metadata.get(0).getLimits())
+                .extracting(limit -> limit.getRule().key())
+                .containsExactly("rate:limit:{rate:global:}" + prefix + ".combined:0", "{rate:global:}");
+        assertThat(metadata.get(2).getLimits().get(0).getRule().key()).isEqualTo("rate:limit:" + prefix + ".single");
+        assertThat(metadata.get(2).getLimits().get(0).getRule().limitArg()).isEqualTo("3");
+        assertThat(registry.getCircuitBreakers()).singleElement()
+                .extracting(CircuitBreakerMetadata::getMethodKey).isEqualTo(prefix + ".single");
+    }
+
+    @Test
+    @DisplayName("Meters are registered per limit and per circuit breaker at startup")
+    void registersMeters() {
+        registry.register(ValidBean.class);
+        String prefix = ValidBean.class.getName();
+
+        assertThat(meterRegistry.find("ratelimiter.calls").tag("method", prefix + ".single").counters()).hasSize(2);
+        assertThat(meterRegistry.find("ratelimiter.calls").tag("method", prefix + ".combined").counters()).hasSize(4);
+        assertThat(meterRegistry.get("ratelimiter.circuit.state").tag("name", prefix + ".single").gauge().value())
+                .isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Non-existent fallbackMethod fails registration")
+    void missingFallback_throws() {
+        assertThatThrownBy(() -> registry.register(MissingFallbackBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("nonExistentMethod");
+    }
+
+    @Test
+    @DisplayName("Fallback with an incompatible return type fails registration")
+    void wrongReturnType_throws() {
+        assertThatThrownBy(() -> registry.register(WrongReturnTypeBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("returning String");
+    }
+
+    @Test
+    @DisplayName("Sharding a combined limit fails registration")
+    void shardedCombinedLimit_throws() {
+        assertThatThrownBy(() -> registry.register(ShardedCombinedBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shards=4")
+                .hasMessageContaining("repeated @RateLimit");
+    }
+
+    @Test
+    @DisplayName("A shared limit is one key for every method repeating it; without one, keys are tagged per method")
+    void sharedLimit_oneKeyAcrossMethods() {
+        registry.register(SharedLimitBean.class);
+        String prefix = SharedLimitBean.class.getName();
+
+        assertThat(registry.getRateLimits())
+                .flatExtracting(metadata -> metadata.getLimits().stream().map(limit -> limit.getRule().key()).toList())
+                .containsExactlyInAnyOrder(
+                        "rate:limit:{rate:global:}" + prefix + ".search:0", "{rate:global:}",
+                        "rate:limit:{rate:global:}" + prefix + ".export:0", "{rate:global:}",
+                        "rate:limit:{" + prefix + ".perMethod}:0", "rate:limit:{" + prefix + ".perMethod}:1");
+    }
+
+    @Test
+    @DisplayName("Repeated @RateLimit with another algorithm, leasing or two shared keys fails registration")
+    void invalidCombinedLimit_throws() {
+        assertThatThrownBy(() -> registry.register(TokenBucketCombinedBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Repeated @RateLimit")
+                .hasMessageContaining("fixed windows only");
+        assertThatThrownBy(() -> registry.register(LeasedCombinedBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cannot be combined with leasing or coalescing");
+        assertThatThrownBy(() -> registry.register(TwoSharedKeysBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("rate:hourly:")
+                .hasMessageContaining("rate:daily:");
+    }
+
+    @Test
+    @DisplayName("Bulkhead without permits fails registration")
+    void emptyBulkhead_throws() {
+        assertThatThrownBy(() -> registry.register(EmptyBulkheadBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("maxConcurrent must be at least 1");
+    }
+
+    @Test
+    @DisplayName("window + timeUnit give millisecond windows; below one millisecond fails at startup")
+    void subSecondWindows() {
+        registry.register(SubSecondBean.class);
+
+        assertThat(registry.getRateLimits()).singleElement()
+                .extracting(metadata -> metadata.getLimits().get(0).getRule().windowArg())
+                .isEqualTo("100");
+        assertThatThrownBy(() -> registry.register(BadWindowBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("must be at least one millisecond");
+    }
+
+    @Test
+    @DisplayName("layout=COMPACT without a keyExpression fails at startup")
+    void compactWithoutKeyExpression_throws() {
+        assertThatThrownBy(() -> registry.register(CompactSharedBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("layout=COMPACT")
+                .hasMessageContaining("needs a keyExpression");
+    }
+
+    @Test
+    @DisplayName("Leasing per caller (leaseSize with a keyExpression) fails at startup")
+    void leasedKeyExpression_throws() {
+        assertThatThrownBy(() -> registry.register(LeasedPerCallerBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("leaseSize=10")
+                .hasMessageContaining("cannot be combined with a keyExpression");
+    }
+
+    @Test
+    @DisplayName("cost expressions are evaluated per call; with leasing or shards they fail at startup")
+    void costExpression() {
+        registry.register(CostBean.class);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{new byte[4096]});
+
+        LimitDefinition limit = registry.getRateLimits().iterator().next().getLimits().get(0);
+
+        assertThat(limit.resolve(joinPoint).cost()).isEqualTo(4096);
+        assertThat(limit.resolve(joinPoint).costArg()).isEqualTo("4096");
+        assertThat(limit.getRule().cost()).isEqualTo(1);
+        assertThatThrownBy(() -> registry.register(LeasedCostBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cannot be combined with leasing or coalescing");
+        assertThatThrownBy(() -> registry.register(ShardedCostBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cannot be combined with shards")
+                .hasMessageContaining("costing more than 250000");
+    }
+
+    @Test
+    @DisplayName("@AdaptiveLimit with initialLimit outside [minLimit, maxLimit] fails at startup")
+    void adaptiveLimitOutOfRange_throws() {
+        assertThatThrownBy(() -> registry.register(BadAdaptiveLimitBean.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("initialLimit must be between minLimit and maxLimit");
+    }
+
+    @Test
+    @DisplayName("Overrides replace count and time in place and revert when removed")
+    void overrides_swapRules() {
+        String prefix = ValidBean.class.getName();
+        String key = "{rate:global:}";
+        registry.register(ValidBean.class);
+        RateLimitMetadata combined = registry.getRateLimits().stream()
+                .filter(metadata -> metadata.getMethodKey().endsWith(".combined"))
+                .findFirst().orElseThrow();
+
+        registry.applyOverrides(Map.of(key, new LimitOverride(500, 60)));
+
+        assertThat(combined.resolveRules(null)).extracting(LimitRule::key, LimitRule::limit, LimitRule::windowMillis)
+                .containsExactly(
+                tuple("rate:limit:{rate:global:}" + prefix + ".combined:0", 3, 60_000L),
+                tuple(key, 500, 60_000L));
+        assertThat(combined.getLimits().get(1).getOverride()).isEqualTo(new LimitOverride(500, 60));
+
+        registry.applyOverrides(Map.of());
+
+        assertThat(combined.resolveRules(null).get(1).limit()).isEqualTo(100);
+        assertThat(combined.getLimits().get(1).getOverride()).isNull();
+    }
+
+    @Test
+    @DisplayName("Methods registered after an override pick it up")
+    void overrides_appliedToLateRegistrations() {
+        String key = "rate:limit:" + ValidBean.class.getName() + ".single";
+        registry.applyOverrides(Map.of(key, new LimitOverride(1, 1)));
+
+        registry.register(ValidBean.class);
+
+        assertThat(registry.getRateLimits()).filteredOn(metadata -> metadata.getMethodKey().endsWith(".single"))
+                .singleElement()
+                .satisfies(metadata -> assertThat(metadata.getLimits().get(0).getRule().limit()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("Millisecond overrides keep a sub-second window sub-second")
+    void overrides_millisecondWindow() {
+        String key = "rate:limit:" + SubSecondBean.class.getName() + ".burst";
+        registry.register(SubSecondBean.class);
+
+        registry.applyOverrides(Map.of(key, LimitOverride.ofMillis(20, 250)));
+
+        assertThat(registry.getRateLimits()).singleElement()
+                .extracting(metadata -> metadata.getLimits().get(0).getRule())
+                .satisfies(rule -> {
+                    assertThat(rule.limit()).isEqualTo(20);
+                    assertThat(rule.windowMillis()).isEqualTo(250);
+                });
+    }
+
+    @Test
+    @DisplayName("Overrides for unknown keys or below the shard count are rejected")
+    void invalidOverride_throws() {
+        registry.register(ValidBean.class);
+        registry.register(ShardedBean.class);
+
+        assertThatThrownBy(() -> registry.validateOverride("rate:limit:unknown", new LimitOverride(1, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("rate:limit:unknown");
+        assertThatThrownBy(() -> registry.validateOverride(
+                "rate:limit:" + ShardedBean.class.getName() + ".limited", new LimitOverride(2, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("4 shards");
+    }
+
+    @Test
+    @DisplayName("Fallback with matching parameters receives the original arguments")
+    void argumentFallback_receivesArguments() throws Throwable {
+        registry.register(ValidBean.class);
+        ValidBean bean = new ValidBean();
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getTarget()).thenReturn(bean);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{"alice"});
+
+        FallbackInvoker fallback = registry.getRateLimits().stream()
+                .filter(metadata -> metadata.getMethodKey().endsWith(".greet"))
+                .findFirst().orElseThrow()
+                .getLimits().get(0).getFallback();
+
+        assertThat(fallback.invoke(joinPoint)).isEqualTo("later, alice");
+    }
+
+    public static class ValidBean {
+
+        @RateLimit(count = 3, time = 60, fallbackMethod = "noArgFallback")
+        @CircuitBreaker
+        public String single() {
+            return "ok";
+        }
+
+        @RateLimit(count = 3, time = 60)
+        @RateLimit(key = "rate:global:", count = 100, time = 3600)
+        public String combined() {
+            return "ok";
+        }
+
+        @RateLimit(count = 3, time = 60, fallbackMethod = "greetFallback")
+        public String greet(String name) {
+            return "hello, " + name;
+        }
+
+        public String noArgFallback() {
+            return "later";
+        }
+
+        public String greetFallback(String name) {
+            return "later, " + name;
+        }
+    }
+
+    public static class MissingFallbackBean {
+
+        @RateLimit(count = 3, time = 60, fallbackMethod = "nonExistentMethod")
+        public String limited() {
+            return "ok";
+        }
+    }
+
+    public static class WrongReturnTypeBean {
+
+        @RateLimit(count = 3, time = 60, fallbackMethod = "fallback")
+        public String limited() {
+            return "ok";
+        }
+
+        public Integer fallback() {
+            return 0;
+        }
+    }
+
+    public static class ShardedCombinedBean {
+
+        @RateLimit(count = 100, time = 1, shards = 4)
+        @RateLimit(key = "rate:global:", count = 1000, time = 3600)
+        public String limited() {
+            return "ok";
+        }
+    }
+
+    public static class SharedLimitBean {
+
+        @RateLimit(count = 3, time = 60)
+        @RateLimit(key = "rate:global:", count = 100, time = 3600)
+        public String search() {
+            return "ok";
+        }
+
+        @RateLimit(count = 5, time = 60)
+        @RateLimit(key = "rate:global:", count = 100, time = 3600)
+        public String export() {
+            return "ok";
+        }
+
+        @RateLimit(count = 3, time = 1)
+        @RateLimit(count = 100, time = 3600)
+        public String perMethod() {
+            return "ok";
+        }
+    }
+
+    public static class TokenBucketCombinedBean {
+
+        @RateLimit(count = 3, time = 60, algorithm = Algorithm.TOKEN_BUCKET)
+        @RateLimit(key = "rate:global:", count = 100, time = 3600)
+        public String limited() {
+            return "ok";
+        }
+    }
+
+    public static class LeasedCombinedBean {
+
+        @RateLimit(count = 100, time = 60, leaseSize = 10)
+        @RateLimit(key = "rate:global:", count = 1000, time = 3600)
+        public String limited() {
+            return "ok";
+        }
+    }
+
+    public static class LeasedPerCallerBean {
+
+        @RateLimit(count = 100, time = 60, keyExpression = "#p0", leaseSize = 10)
+        public String limited(String user) {
+            return "ok";
+        }
+    }
+
+    public static class TwoSharedKeysBean {
+
+        @RateLimit(key = "rate:hourly:", count = 100, time = 3600)
+        @RateLimit(key = "rate:daily:", count = 1000, time = 86_400)
+        public String limited() {
+            return "ok";
+        }
+    }
+
+    public static class ShardedBean {
+
+        @RateLimit(count = 100, time = 1, shards = 4)
+        public String limited() {
+            return "ok";
+        }
+    }
+
+    public static class EmptyBulkheadBean {
+
+        @Bulkhead(maxConcurrent = 0)
+        public String guarded() {
+            return "ok";
+        }
+    }
+
+    public static class BadAdaptiveLimitBean {
+
+        @AdaptiveLimit(initialLimit = 50, maxLimit = 10)
+        public String guarded() {
+            return "ok";
+        }
+    }
+
+    public static class SubSecondBean {
+
+        @RateLimit(count = 50, window = 100, timeUnit = TimeUnit.MILLISECONDS)
+        public String burst() {
+            return "ok";
+        }
+    }
+
+    public static class BadWindowBean {
+
+        @RateLimit(count = 50, window = 500, timeUnit = TimeUnit.MICROSECONDS)
+        public String burst() {
+            return "ok";
+        }
+    }
+
+    public static class CompactSharedBean {
+
+        @RateLimit(layout = KeyLayout.COMPACT)
+        public String shared() {
+            return "ok";
+        }
+    }
+
+    public static class CostBean {
+
+        @RateLimit(key = "rate:bytes:", count = 1_000_000, time = 60, cost = "#p0.length")
+        public String upload(byte[] body) {
+            return "ok";
+        }
+    }
+
+    public static class LeasedCostBean {
+
+        @RateLimit(count = 1_000_000, time = 60, cost = "#p0.length", leaseSize = 100)
+        public String upload(byte[] body) {
+            return "ok";
+        }
+    }
+
+    public static class ShardedCostBean {
+
+        @RateLimit(count = 1_000_000, time = 60, cost = "#p0.length", shards = 4)
+        public String upload(byte[] body) {
+            return "ok";
+        }
+    }
+}
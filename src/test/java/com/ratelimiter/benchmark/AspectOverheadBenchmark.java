@@ -0,0 +1,171 @@
+package com.ratelimiter.benchmark;
+
+import com.ratelimiter.annotation.CircuitBreaker;
+import com.ratelimiter.annotation.RateLimit;
+import com.ratelimiter.aspect.CircuitBreakerAspect;
+import com.ratelimiter.aspect.KeyExpressionResolver;
+import com.ratelimiter.aspect.MethodMetadataRegistry;
+import com.ratelimiter.aspect.RateLimitAspect;
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.hotkey.HeavyHitters;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.LocalRateLimiter;
+import com.ratelimiter.service.RateLimitResult;
+import com.ratelimiter.service.RateLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.support.StaticApplicationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of RateLimitAspect and CircuitBreakerAspect around a trivial method.
+ * Redis is stubbed by a RateLimitService that always admits the call, so only the aspect path is measured:
+ * advice dispatch, metadata lookup, key resolution, meters and circuit bookkeeping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AspectOverheadBenchmark {
+
+    private ProtectedService direct;
+    private ProtectedService proxied;
+
+    @Setup
+    public void setUp() {
+        MethodMetadataRegistry registry = new MethodMetadataRegistry(new StaticApplicationContext(),
+                new KeyExpressionResolver(), new RateLimiterMetrics(new SimpleMeterRegistry()));
+
+        direct = new ProtectedService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ProtectedService());
+        factory.setProxyTargetClass(true);
+        RateLimiterProperties properties = new RateLimiterProperties();
+        factory.addAspect(new CircuitBreakerAspect(registry));
+        factory.addAspect(new RateLimitAspect(new AlwaysAllowRateLimitService(), registry,
+                new HeavyHitters(properties, new LocalRateLimiter(properties))));
+        proxied = factory.getProxy();
+    }
+
+    @Benchmark
+    public String baseline() {
+        return direct.rateLimited();
+    }
+
+    @Benchmark
+    public String proxyWithoutAnnotations() {
+        return proxied.plain();
+    }
+
+    @Benchmark
+    public String rateLimit() {
+        return proxied.rateLimited();
+    }
+
+    @Benchmark
+    public String rateLimitWithKeyExpression() {
+        return proxied.perUser("user-42");
+    }
+
+    @Benchmark
+    public String rateLimitCombined() {
+        return proxied.combined();
+    }
+
+    @Benchmark
+    public String circuitBreaker() {
+        return proxied.guarded();
+    }
+
+    @Benchmark
+    public String rateLimitAndCircuitBreaker() {
+        return proxied.both();
+    }
+
+    /**
+     * Benchmark target—public and non-final so it can be proxied.
+     */
+    public static class ProtectedService {
+
+        public String plain() {
+            return "ok";
+        }
+
+        @RateLimit(count = Integer.MAX_VALUE, time = 60)
+        public String rateLimited() {
+            return "ok";
+        }
+
+        @RateLimit(count = Integer.MAX_VALUE, time = 60, keyExpression = "#userId")
+        public String perUser(String userId) {
+            return userId;
+        }
+
+        @RateLimit(count = Integer.MAX_VALUE, time = 60)
+        @RateLimit(key = "rate:global:", count = Integer.MAX_VALUE, time = 3600)
+        public String combined() {
+            return "ok";
+        }
+
+        @CircuitBreaker
+        public String guarded() {
+            return "ok";
+        }
+
+        @RateLimit(count = Integer.MAX_VALUE, time = 60)
+        @CircuitBreaker
+        public String both() {
+            return "ok";
+        }
+    }
+
+    /**
+     * Redis stand-in: every limit admits every call.
+     */
+    static class AlwaysAllowRateLimitService implements RateLimitService {
+
+        private static final RateLimitResult ALLOWED = new RateLimitResult(true, 0, Integer.MAX_VALUE, 1, 60_000);
+
+        @Override
+        public RateLimitResult acquire(LimitRule rule) {
+            return ALLOWED;
+        }
+
+        @Override
+        public RateLimitResult acquireAll(List<LimitRule> rules) {
+            return ALLOWED;
+        }
+
+        @Override
+        public Mono<RateLimitResult> acquireReactive(LimitRule rule) {
+            return Mono.just(ALLOWED);
+        }
+
+        @Override
+        public Mono<RateLimitResult> acquireAllReactive(List<LimitRule> rules) {
+            return Mono.just(ALLOWED);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AspectOverheadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.ratelimiter.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Runs every benchmark in this package and writes one JSON result file—entry point of the "benchmarks" profile.
+ * <p>
+ * Usage: {@code BenchmarkSuite [result file] [class name regex]}, defaults target/jmh-result.json and ".*".
+ * CircuitStateBenchmark runs at each of its thread counts; LuaScriptBenchmark is skipped when no Redis
+ * answers on -Dredis.host / -Dredis.port (default localhost:6379).
+ */
+public class BenchmarkSuite {
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "target/jmh-result.json";
+        Pattern include = Pattern.compile(args.length > 1 ? args[1] : ".*");
+        List<RunResult> results = new ArrayList<>();
+
+        if (include.matcher(AspectOverheadBenchmark.class.getSimpleName()).find()) {
+            results.addAll(run(AspectOverheadBenchmark.class, 1));
+        }
+        if (include.matcher(KeyResolutionBenchmark.class.getSimpleName()).find()) {
+            results.addAll(run(KeyResolutionBenchmark.class, 1));
+        }
+        if (include.matcher(CircuitStateBenchmark.class.getSimpleName()).find()) {
+            for (int threads : CircuitStateBenchmark.THREAD_COUNTS) {
+                results.addAll(run(CircuitStateBenchmark.class, threads));
+            }
+        }
+        if (include.matcher(LuaScriptBenchmark.class.getSimpleName()).find()) {
+            if (redisAvailable()) {
+                results.addAll(run(LuaScriptBenchmark.class, 1));
+            } else {
+                System.out.println("No Redis on " + redisHost() + ":" + redisPort() + ", skipping LuaScriptBenchmark");
+            }
+        }
+
+        File file = new File(resultFile);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, file.getPath()).writeOut(results);
+        System.out.println("JMH results written to " + file.getAbsolutePath());
+    }
+
+    private static List<RunResult> run(Class<?> benchmark, int threads) throws RunnerException {
+        // Anchored on the class name so that e.g. "CircuitStateBenchmark" does not also match a prefix-sharing class
+        return new ArrayList<>(new Runner(new OptionsBuilder()
+                .include(Pattern.quote(benchmark.getName()) + "\\.")
+                .threads(threads)
+                .jvmArgsAppend("-Dredis.host=" + redisHost(), "-Dredis.port=" + redisPort())
+                .build()).run());
+    }
+
+    private static boolean redisAvailable() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(redisHost(), redisPort()), 500);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String redisHost() {
+        return System.getProperty("redis.host", "localhost");
+    }
+
+    private static int redisPort() {
+        return Integer.getInteger("redis.port", 6379);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ratelimiter.benchmark;
+
+import com.ratelimiter.breaker.CircuitState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker bookkeeping under contention: lock-free CircuitState vs the previous synchronized one.
+ * Each operation is what CircuitBreakerAspect does per call, with ~5% failures so the circuit stays closed.
+ * main() runs both at 1, 8, 64 and 256 threads sharing one state, as a hot method's callers do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CircuitStateBenchmark {
+
+    static final int[] THREAD_COUNTS = {1, 8, 64, 256};
+
+    private final CircuitState lockFree = new CircuitState(0.5, 60, 30, 10);
+    private final SynchronizedCircuitState synchronizedState = new SynchronizedCircuitState(0.5, 60, 30, 10);
+
+    @Benchmark
+    public boolean lockFree() {
+        lockFree.tryTransitionFromOpen();
+        if (lockFree.isOpen()) {
+            return false;
+        }
+        if (ThreadLocalRandom.current().nextInt(20) == 0) {
+            lockFree.recordFailure();
+        } else {
+            lockFree.recordSuccess();
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean synchronizedMonitor() {
+        synchronizedState.tryTransitionFromOpen();
+        if (synchronizedState.isOpen()) {
+            return false;
+        }
+        if (ThreadLocalRandom.current().nextInt(20) == 0) {
+            synchronizedState.recordFailure();
+        } else {
+            synchronizedState.recordSuccess();
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            new Runner(new OptionsBuilder()
+                    .include(CircuitStateBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ratelimiter.benchmark;
+
+import com.ratelimiter.aspect.KeyExpressionResolver;
+import com.ratelimiter.aspect.KeyExpressionRoot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key resolution cost per call: static key vs compiled SpEL (parsed once, as MethodMetadataRegistry does) vs
+ * parse-and-interpret on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyResolutionBenchmark {
+
+    private static final String PREFIX = "rate:limit:com.ratelimiter.benchmark.KeyResolutionBenchmark.target";
+
+    private final KeyExpressionResolver resolver = new KeyExpressionResolver();
+    private final SpelExpressionParser interpretingParser = new SpelExpressionParser();
+    private final Object[] args = {"user-42", 7};
+    private KeyExpressionResolver.CompiledKeyExpression userId;
+    private KeyExpressionResolver.CompiledKeyExpression userIdWithConcat;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Method method = KeyResolutionBenchmark.class.getMethod("target", String.class, int.class);
+        userId = resolver.compile(method, "#userId");
+        userIdWithConcat = resolver.compile(method, "#userId + ':' + #p1");
+    }
+
+    @Benchmark
+    public String staticKey() {
+        return PREFIX;
+    }
+
+    @Benchmark
+    public String compiledExpression() {
+        return PREFIX + ":" + userId.evaluate(args);
+    }
+
+    @Benchmark
+    public String compiledExpressionWithConcat() {
+        return PREFIX + ":" + userIdWithConcat.evaluate(args);
+    }
+
+    @Benchmark
+    public String parsedEveryCall() {
+        StandardEvaluationContext context = new StandardEvaluationContext(new KeyExpressionRoot(args));
+        context.setVariable("userId", args[0]);
+        return PREFIX + ":" + interpretingParser.parseExpression("#userId").getValue(context);
+    }
+
+    /**
+     * Signature the expressions are resolved against.
+     */
+    public void target(String userId, int tenant) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(KeyResolutionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
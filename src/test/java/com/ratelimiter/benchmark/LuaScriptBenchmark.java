@@ -0,0 +1,119 @@
+package com.ratelimiter.benchmark;
+
+import com.ratelimiter.config.RedisConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of each Lua script against a real Redis (-Dredis.host / -Dredis.port, default localhost:6379).
+ * With outcome=allowed the limits are large enough that every call is admitted, so each operation runs the
+ * script's full write path; with outcome=rejected every call is denied. Keys are prefixed "bench:" and deleted
+ * afterwards.
+ * <p>
+ * Client throughput includes the round trip, so each run also prints Redis' own time per EVALSHA from
+ * INFO commandstats. limit_v1 is limit.lua before the single-INCR rewrite (GET, INCRBY and EXPIRE), for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LuaScriptBenchmark {
+
+    private static final String WINDOW_MILLIS = "60000";
+
+    @Param({"limit", "limit_v1", "sliding_window", "token_bucket", "gcra", "multi_limit"})
+    public String script;
+
+    @Param({"allowed", "rejected"})
+    public String outcome;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private DefaultRedisScript<List<Long>> redisScript;
+    private List<String> keys;
+    private Object[] args;
+
+    @Setup
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        RedisConfig config = new RedisConfig();
+        String key = "bench:" + script;
+        switch (script) {
+            case "sliding_window" -> redisScript = config.slidingWindowScript();
+            case "token_bucket" -> redisScript = config.tokenBucketScript();
+            case "gcra" -> redisScript = config.gcraScript();
+            case "multi_limit" -> redisScript = config.multiLimitScript();
+            case "limit_v1" -> {
+                redisScript = config.limitScript();
+                redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource("benchmark/limit_v1.lua")));
+            }
+            default -> redisScript = config.limitScript();
+        }
+        String limit = "allowed".equals(outcome) ? String.valueOf(Integer.MAX_VALUE) : "0";
+        if ("multi_limit".equals(script)) {
+            keys = List.of("{" + key + "}:0", "{" + key + "}:1");
+            args = new Object[]{limit, WINDOW_MILLIS, limit, "3600000"};
+        } else {
+            keys = List.of(key);
+            // limit_v1 takes its window in seconds
+            args = new Object[]{limit, "limit_v1".equals(script) ? "60" : WINDOW_MILLIS};
+        }
+        redisTemplate.delete(keys);
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().resetConfigStats();
+            return null;
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        Properties stats = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("commandstats"));
+        String evalsha = stats == null ? null : stats.getProperty("cmdstat_evalsha");
+        if (evalsha != null) {
+            // calls=...,usec=...,usec_per_call=...: time spent inside Redis, without the round trip
+            System.out.printf("%n%s/%s Redis-side: %s%n", script, outcome, evalsha);
+        }
+        redisTemplate.delete(keys);
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public List<Long> evalsha() {
+        return redisTemplate.execute(redisScript, keys, args);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LuaScriptBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ratelimiter.benchmark;
+
+/**
+ * Previous monitor-based, tumbling-window CircuitState—kept as the baseline for CircuitStateBenchmark.
+ */
+public class SynchronizedCircuitState {
+    private volatile State state = State.CLOSED;
+    private int failureCount;
+    private int totalCount;
+    private long windowStartTime;
+    private long openTime;
+    private int halfOpenSuccessCount;
+
+    private final double failureThreshold;
+    private final int windowSeconds;
+    private final int openSeconds;
+    private final int minRequests;
+
+    private static final int HALF_OPEN_SUCCESS_THRESHOLD = 3;
+
+    public enum State {
+        CLOSED,   // Normal
+        OPEN,     // Tripped
+        HALF_OPEN // Probing
+    }
+
+    public SynchronizedCircuitState(double failureThreshold, int windowSeconds, int openSeconds, int minRequests) {
+        this.failureThreshold = failureThreshold;
+        this.windowSeconds = windowSeconds;
+        this.openSeconds = openSeconds;
+        this.minRequests = minRequests;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public synchronized boolean isOpen() {
+        return state == State.OPEN;
+    }
+
+    public synchronized void tryTransitionFromOpen() {
+        if (state == State.OPEN && System.currentTimeMillis() - openTime >= openSeconds * 1000L) {
+            state = State.HALF_OPEN;
+            halfOpenSuccessCount = 0;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenSuccessCount++;
+            if (halfOpenSuccessCount >= HALF_OPEN_SUCCESS_THRESHOLD) {
+                state = State.CLOSED;
+                resetWindow();
+            }
+            return;
+        }
+
+        maybeResetWindow();
+        totalCount++;
+    }
+
+    public synchronized void recordFailure() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+            openTime = System.currentTimeMillis();
+            resetWindow();
+            return;
+        }
+
+        maybeResetWindow();
+        totalCount++;
+        failureCount++;
+
+        if (totalCount >= minRequests && (double) failureCount / totalCount > failureThreshold) {
+            state = State.OPEN;
+            openTime = System.currentTimeMillis();
+        }
+    }
+
+    private void maybeResetWindow() {
+        long now = System.currentTimeMillis();
+        if (now - windowStartTime >= windowSeconds * 1000L) {
+            resetWindow();
+        }
+    }
+
+    private void resetWindow() {
+        failureCount = 0;
+        totalCount = 0;
+        windowStartTime = System.currentTimeMillis();
+    }
+}
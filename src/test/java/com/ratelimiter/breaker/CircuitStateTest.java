@@ -0,0 +1,189 @@
+package com.ratelimiter.breaker;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CircuitState unit tests—sliding window expiry, slow calls, Half-Open permits, state transitions
+ * and concurrent recording.
+ */
+class CircuitStateTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    // 50% threshold, 10s window in 1s buckets, open for 5s, at least 4 calls
+    private final CircuitState state = new CircuitState(0.5, 10, 5, 4, 0, 1.0, 3, 10, now::get);
+
+    @Test
+    @DisplayName("Trips when the failure rate over the window exceeds the threshold")
+    void tripsOnFailureRate() {
+        state.recordSuccess();
+        state.recordFailure();
+        state.recordFailure();
+        assertThat(state.getState()).isEqualTo(CircuitState.State.CLOSED);  // below minRequests
+
+        state.recordFailure();
+
+        assertThat(state.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Window slides: failures older than the window no longer count")
+    void oldFailuresSlideOut() {
+        state.recordFailure();
+        state.recordFailure();
+        now.addAndGet(6_000);
+        state.recordSuccess();
+        state.recordSuccess();
+
+        // Still inside the 10s window: 2 failures of 4 calls is not above 50%
+        assertThat(state.getState()).isEqualTo(CircuitState.State.CLOSED);
+
+        now.addAndGet(5_000);  // the first two failures are now 11s old
+        state.recordFailure();
+        state.recordSuccess();
+        state.recordSuccess();
+
+        // A tumbling window would have reset; the sliding one sees 1 failure of 5 calls
+        assertThat(state.getState()).isEqualTo(CircuitState.State.CLOSED);
+
+        state.recordFailure();
+        state.recordFailure();
+        state.recordFailure();
+        state.recordFailure();
+
+        assertThat(state.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Open -> Half-Open after openSeconds, closed again after 3 successes")
+    void recoversThroughHalfOpen() {
+        tripOpen();
+
+        state.tryTransitionFromOpen();
+        assertThat(state.isOpen()).isTrue();
+
+        now.addAndGet(5_000);
+        state.tryTransitionFromOpen();
+        assertThat(state.getState()).isEqualTo(CircuitState.State.HALF_OPEN);
+
+        state.recordSuccess();
+        state.recordSuccess();
+        state.recordSuccess();
+        assertThat(state.getState()).isEqualTo(CircuitState.State.CLOSED);
+
+        // Failures from before the trip do not count against the new closed period
+        state.recordFailure();
+        state.recordSuccess();
+        state.recordSuccess();
+        state.recordSuccess();
+        assertThat(state.getState()).isEqualTo(CircuitState.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("A failure while Half-Open re-opens the circuit")
+    void halfOpenFailure_reopens() {
+        tripOpen();
+        now.addAndGet(5_000);
+        state.tryTransitionFromOpen();
+
+        state.recordFailure();
+
+        assertThat(state.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Trips on slow call rate even when every call succeeds")
+    void tripsOnSlowCallRate() {
+        // 100ms slow threshold, opens above 50% slow calls
+        CircuitState slowAware = new CircuitState(0.5, 10, 5, 4, 100, 0.5, 3, 10, now::get);
+        long fast = TimeUnit.MILLISECONDS.toNanos(20);
+        long slow = TimeUnit.SECONDS.toNanos(4);
+
+        slowAware.recordSuccess(fast);
+        slowAware.recordSuccess(slow);
+        slowAware.recordSuccess(slow);
+        assertThat(slowAware.getState()).isEqualTo(CircuitState.State.CLOSED);  // below minRequests
+
+        slowAware.recordSuccess(slow);
+
+        assertThat(slowAware.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("A slow probe while Half-Open re-opens the circuit")
+    void halfOpenSlowCall_reopens() {
+        CircuitState slowAware = new CircuitState(0.5, 10, 5, 4, 100, 0.5, 3, 10, now::get);
+        for (int i = 0; i < 4; i++) {
+            slowAware.recordFailure();
+        }
+        now.addAndGet(5_000);
+        assertThat(slowAware.tryAcquirePermission()).isTrue();
+
+        slowAware.recordSuccess(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(slowAware.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Half-Open admits only permittedHalfOpenCalls concurrent probes")
+    void halfOpenPermits_areBounded() {
+        tripOpen();
+        assertThat(state.tryAcquirePermission()).isFalse();
+
+        now.addAndGet(5_000);
+        assertThat(state.tryAcquirePermission()).isTrue();
+        assertThat(state.tryAcquirePermission()).isTrue();
+        assertThat(state.tryAcquirePermission()).isTrue();
+        assertThat(state.tryAcquirePermission()).isFalse();
+        assertThat(state.getState()).isEqualTo(CircuitState.State.HALF_OPEN);
+
+        state.recordSuccess();
+        state.recordSuccess();
+        state.recordSuccess();
+
+        assertThat(state.getState()).isEqualTo(CircuitState.State.CLOSED);
+        assertThat(state.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Concurrent recording loses no outcomes")
+    void concurrentRecording() throws InterruptedException {
+        CircuitState shared = new CircuitState(0.5, 60, 30, 8_000, 0, 1.0, 3, 10, now::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    shared.recordFailure();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Only the 8000th failure reaches minRequests, so the circuit must have opened by then
+        assertThat(shared.isOpen()).isTrue();
+    }
+
+    private void tripOpen() {
+        for (int i = 0; i < 4; i++) {
+            state.recordFailure();
+        }
+        assertThat(state.isOpen()).isTrue();
+    }
+}
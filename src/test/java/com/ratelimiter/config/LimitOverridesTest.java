@@ -0,0 +1,105 @@
+package com.ratelimiter.config;
+
+import com.ratelimiter.aspect.MethodMetadataRegistry;
+import com.ratelimiter.service.DenialCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * LimitOverrides unit tests—reading the override hash, publishing changes and surviving Redis failures.
+ */
+class LimitOverridesTest {
+
+    private StringRedisTemplate redisTemplate;
+    private HashOperations<String, Object, Object> hashOperations;
+    private MethodMetadataRegistry registry;
+    private DenialCache denialCache;
+    private LimitOverrides overrides;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        registry = mock(MethodMetadataRegistry.class);
+        when(registry.getOverrides()).thenReturn(Map.of());
+        denialCache = new DenialCache(new RateLimiterProperties());
+        overrides = new LimitOverrides(redisTemplate, mock(ObjectProvider.class), registry, denialCache);
+    }
+
+    @Test
+    @DisplayName("Reload parses the hash, skips malformed entries and clears the denial cache")
+    void reload_appliesParsedOverrides() {
+        when(hashOperations.entries(LimitOverrides.HASH_KEY)).thenReturn(Map.of(
+                "rate:limit:a", "100/60",
+                "rate:limit:b", "lots"));
+        denialCache.deny("rate:limit:a", 60_000);
+
+        overrides.reload();
+
+        verify(registry).applyOverrides(Map.of("rate:limit:a", new LimitOverride(100, 60)));
+        assertThat(denialCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Redis unavailable: the current overrides are kept")
+    void reload_redisDown_keepsCurrent() {
+        when(hashOperations.entries(LimitOverrides.HASH_KEY)).thenThrow(new QueryTimeoutException("timeout"));
+
+        overrides.reload();
+
+        verify(registry, never()).applyOverrides(any());
+    }
+
+    @Test
+    @DisplayName("Put stores count/time, notifies the other nodes and applies locally")
+    void put_storesAndPublishes() {
+        when(hashOperations.entries(LimitOverrides.HASH_KEY)).thenReturn(Map.of("rate:limit:a", "5/1"));
+
+        overrides.put("rate:limit:a", new LimitOverride(5, 1));
+
+        verify(hashOperations).put(LimitOverrides.HASH_KEY, "rate:limit:a", "5/1");
+        verify(redisTemplate).convertAndSend(LimitOverrides.CHANNEL, "rate:limit:a");
+        verify(registry).applyOverrides(Map.of("rate:limit:a", new LimitOverride(5, 1)));
+    }
+
+    @Test
+    @DisplayName("Put for an unknown limit writes nothing")
+    void put_invalid_writesNothing() {
+        doThrow(new IllegalArgumentException("No @RateLimit with key x"))
+                .when(registry).validateOverride(any(), any());
+
+        assertThatThrownBy(() -> overrides.put("x", new LimitOverride(5, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(hashOperations, never()).put(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Override values are count/time in seconds or count/windowms, with positive numbers")
+    void parse() {
+        assertThat(LimitOverride.parse(" 10 / 30")).isEqualTo(new LimitOverride(10, 30));
+        assertThat(LimitOverride.parse("50/100ms")).isEqualTo(LimitOverride.ofMillis(50, 100));
+        assertThat(LimitOverride.ofMillis(50, 100)).hasToString("50/100ms");
+        assertThat(LimitOverride.ofMillis(50, 2000)).hasToString("50/2");
+        assertThatThrownBy(() -> LimitOverride.parse("50/0ms")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LimitOverride.parse("10")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LimitOverride.parse("0/30")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
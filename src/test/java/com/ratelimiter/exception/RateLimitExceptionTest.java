@@ -1,5 +1,7 @@
 package com.ratelimiter.exception;
 
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.RateLimitResult;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -26,4 +28,13 @@ class RateLimitExceptionTest {
         assertThat(ex.getMessage()).isEqualTo("test");
         assertThat(ex.getCause()).isSameAs(cause);
     }
+
+    @Test
+    @DisplayName("Constructor (message, result)")
+    void constructorWithResult() {
+        RateLimitResult result = RateLimitResult.rejected(LimitRule.fixedWindow("k", 5, 60), 1500);
+        RateLimitException ex = new RateLimitException("test", result);
+        assertThat(ex.getResult()).isSameAs(result);
+        assertThat(new RateLimitException("test").getResult()).isNull();
+    }
 }
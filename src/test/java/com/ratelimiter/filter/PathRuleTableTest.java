@@ -0,0 +1,66 @@
+package com.ratelimiter.filter;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * PathRuleTable unit tests—specificity, wildcards and HTTP method matching.
+ */
+class PathRuleTableTest {
+
+    private final PathRuleTable table = new PathRuleTable();
+
+    @BeforeEach
+    void setUp() {
+        add("all", "/**");
+        add("api", "/api/**");
+        add("users", "/api/users/*");
+        add("me", "/api/users/me", "GET");
+        add("posts", "/api/users/{id}/posts", "POST");
+    }
+
+    private void add(String name, String path, String... methods) {
+        RateLimiterProperties.Rule rule = new RateLimiterProperties.Rule();
+        rule.setName(name);
+        rule.setPath(path);
+        rule.setMethods(List.of(methods));
+        table.add(path, new FilterRule(rule, null));
+    }
+
+    private String match(String method, String path) {
+        FilterRule rule = table.match(path, method);
+        return rule == null ? null : rule.getName();
+    }
+
+    @Test
+    @DisplayName("Literal segments beat *, and * beats **")
+    void mostSpecificWins() {
+        assertThat(match("GET", "/api/users/me")).isEqualTo("me");
+        assertThat(match("GET", "/api/users/42")).isEqualTo("users");
+        assertThat(match("GET", "/api/orders")).isEqualTo("api");
+        assertThat(match("GET", "/health")).isEqualTo("all");
+    }
+
+    @Test
+    @DisplayName("A rule limited to other HTTP methods falls through to the next match")
+    void methodMismatch_fallsThrough() {
+        assertThat(match("DELETE", "/api/users/me")).isEqualTo("users");
+        assertThat(match("POST", "/api/users/42/posts")).isEqualTo("posts");
+        assertThat(match("GET", "/api/users/42/posts")).isEqualTo("api");
+    }
+
+    @Test
+    @DisplayName("** anywhere but the last segment fails at startup")
+    void innerDoubleWildcard_throws() {
+        assertThatThrownBy(() -> add("bad", "/api/**/posts"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("bad");
+    }
+}
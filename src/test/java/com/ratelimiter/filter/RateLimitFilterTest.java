@@ -0,0 +1,131 @@
+package com.ratelimiter.filter;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.exception.RateLimitException;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.RateLimitResult;
+import com.ratelimiter.service.RateLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * RateLimitFilter unit tests—limits applied before dispatch, rejections rendered by the MVC exception resolvers.
+ */
+class RateLimitFilterTest {
+
+    private RateLimitService rateLimitService;
+    private HandlerExceptionResolver exceptionResolver;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = mock(RateLimitService.class);
+        exceptionResolver = mock(HandlerExceptionResolver.class);
+
+        RateLimiterProperties.Rule login = new RateLimiterProperties.Rule();
+        login.setName("login");
+        login.setPath("/api/login");
+        login.setMethods(List.of("POST"));
+        login.setHeader("X-Api-Key");
+        login.setCount(5);
+        RateLimiterProperties properties = new RateLimiterProperties();
+        properties.getFilter().setRules(List.of(login));
+
+        filter = new RateLimitFilter(rateLimitService, properties,
+                new RateLimiterMetrics(new SimpleMeterRegistry()), exceptionResolver);
+    }
+
+    @Test
+    @DisplayName("Matching request within its limit continues down the chain with a per-header key")
+    void allowed_continues() throws Exception {
+        when(rateLimitService.acquire(any())).thenReturn(new RateLimitResult(true, 0, 5, 4, 59_200));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/login");
+        request.addHeader("X-Api-Key", "alice");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        ArgumentCaptor<LimitRule> rule = ArgumentCaptor.forClass(LimitRule.class);
+        verify(rateLimitService).acquire(rule.capture());
+        assertThat(rule.getValue().key()).isEqualTo("rate:filter:login:alice");
+        assertThat(rule.getValue().limit()).isEqualTo(5);
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("5");
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("4");
+        assertThat(response.getHeader("RateLimit-Reset")).isEqualTo("60");
+        assertThat(response.getHeader("Retry-After")).isNull();
+    }
+
+    @Test
+    @DisplayName("Rejected request never reaches the dispatcher; RateLimitException goes to the exception resolvers")
+    void rejected_resolvedBeforeDispatch() throws Exception {
+        when(rateLimitService.acquire(any())).thenReturn(RateLimitResult.rejected(LimitRule.fixedWindow("k", 5, 60), 1000));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/login");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNull();
+        verify(exceptionResolver).resolveException(any(), any(), isNull(), any(RateLimitException.class));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"/api/%6Cogin", "/api/login;jsessionid=x", "/api/./login", "/api/v1/../login", "//api/login"})
+    @DisplayName("Encoded, parameterized or non-normalized paths still match the rule for their handler path")
+    void equivalentPaths_matched(String uri) throws Exception {
+        when(rateLimitService.acquire(any())).thenReturn(RateLimitResult.rejected(LimitRule.fixedWindow("k", 5, 60), 1000));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNull();
+        verify(rateLimitService).acquire(any());
+    }
+
+    @Test
+    @DisplayName("The context path is not part of the matched path")
+    void contextPath_stripped() throws Exception {
+        when(rateLimitService.acquire(any())).thenReturn(RateLimitResult.rejected(LimitRule.fixedWindow("k", 5, 60), 1000));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/app/api/login");
+        request.setContextPath("/app");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(rateLimitService).acquire(any());
+    }
+
+    @Test
+    @DisplayName("Requests no rule matches are not limited")
+    void unmatched_notLimited() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/login"), new MockHttpServletResponse(), chain);
+
+        verifyNoInteractions(rateLimitService);
+        verify(exceptionResolver, never()).resolveException(any(), any(), any(), any());
+        assertThat(chain.getRequest()).isNotNull();
+    }
+}
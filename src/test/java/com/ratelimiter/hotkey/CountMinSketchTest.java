@@ -0,0 +1,70 @@
+package com.ratelimiter.hotkey;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CountMinSketch unit tests—estimate bounds, hashing, decay and sizing.
+ */
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("Estimates never undercount and stay close with a wide enough sketch")
+    void estimates() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("user-" + i);
+            if (i % 10 == 0) {
+                sketch.add("hot");
+            }
+        }
+
+        assertThat(sketch.estimate("hot")).isBetween(500L, 500L + 2 * 5_500 / 1024);
+        for (int i = 0; i < 5_000; i += 97) {
+            assertThat(sketch.estimate("user-" + i)).isGreaterThanOrEqualTo(1);
+        }
+        assertThat(sketch.add("hot")).isEqualTo(sketch.estimate("hot"));
+    }
+
+    @Test
+    @DisplayName("decay halves every count")
+    void decay() {
+        CountMinSketch sketch = new CountMinSketch(2, 64);
+        for (int i = 0; i < 9; i++) {
+            sketch.add("k");
+        }
+
+        sketch.decay();
+
+        assertThat(sketch.estimate("k")).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Keys with equal hashCodes are counted apart")
+    void equalHashCodes_apart() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        for (int i = 0; i < 5; i++) {
+            sketch.add("Aa");
+        }
+
+        assertThat(sketch.estimate("BB")).isZero();
+    }
+
+    @Test
+    @DisplayName("Hashes match the MurmurHash3 x64 128 reference vectors")
+    void murmur3() {
+        assertThat(CountMinSketch.hash("The quick brown fox jumps over the lazy dog"))
+                .containsExactly(0xE34BBC7BBC071B6CL, 0x7A433CA9C49A9347L);
+        assertThat(CountMinSketch.hash("hell")).containsExactly(0x629942693E10F867L, 0x92DB0B82BAEB5347L);
+    }
+
+    @Test
+    @DisplayName("Width is rounded up to a power of two")
+    void widthRoundedUp() {
+        assertThat(new CountMinSketch(4, 1000).width()).isEqualTo(1024);
+        assertThat(new CountMinSketch(4, 2048).width()).isEqualTo(2048);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ratelimiter.hotkey;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.LocalRateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * HeavyHitters unit tests—detection among many keys, decay, local pre-throttling and configuration checks.
+ */
+class HeavyHittersTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final RateLimiterProperties properties = new RateLimiterProperties();
+
+    private HeavyHitters heavyHitters() {
+        return new HeavyHitters(properties.getHeavyHitters(), new LocalRateLimiter(properties), now::get);
+    }
+
+    @Test
+    @DisplayName("A key with a large share stands out among many one-off keys, in a fixed number of candidates")
+    void detectsHeavyHitter() {
+        HeavyHitters heavyHitters = heavyHitters();
+        for (int i = 0; i < 10_000; i++) {
+            heavyHitters.record("rate:limit:api:user-" + i);
+            if (i % 5 == 0) {
+                heavyHitters.record("rate:limit:api:scraper");
+            }
+        }
+
+        assertThat(heavyHitters.getHeavyHitters()).singleElement().satisfies(hitter -> {
+            assertThat(hitter.key()).isEqualTo("rate:limit:api:scraper");
+            assertThat(hitter.calls()).isGreaterThanOrEqualTo(2_000);
+            assertThat(hitter.share()).isBetween(0.16, 0.18);
+        });
+        assertThat(heavyHitters.getTopKeys()).hasSizeLessThanOrEqualTo(properties.getHeavyHitters().getTopK());
+        assertThat(heavyHitters.getTotalCalls()).isEqualTo(12_000);
+    }
+
+    @Test
+    @DisplayName("Counts are halved every decay period, so a key that went quiet stops being heavy")
+    void decays() {
+        HeavyHitters heavyHitters = heavyHitters();
+        for (int i = 0; i < 300; i++) {
+            heavyHitters.record("rate:limit:old");
+        }
+
+        now.addAndGet(TimeUnit.SECONDS.toMillis(properties.getHeavyHitters().getDecaySeconds()));
+        heavyHitters.record("rate:limit:new");
+
+        assertThat(heavyHitters.getTotalCalls()).isEqualTo(151);
+        assertThat(heavyHitters.getTopKeys()).first().satisfies(hitter -> {
+            assertThat(hitter.key()).isEqualTo("rate:limit:old");
+            assertThat(hitter.calls()).isEqualTo(150);
+            assertThat(hitter.heavy()).isTrue();
+        });
+
+        now.addAndGet(TimeUnit.SECONDS.toMillis(properties.getHeavyHitters().getDecaySeconds()));
+        heavyHitters.record("rate:limit:new");
+
+        assertThat(heavyHitters.getHeavyHitters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("With throttle on, a heavy hitter is rejected locally once this node's share is used up")
+    void throttlesHeavyHitters() {
+        properties.getHeavyHitters().setThrottle(true);
+        properties.getHeavyHitters().setMinCalls(10);
+        properties.setEstimatedNodes(2);
+        HeavyHitters heavyHitters = heavyHitters();
+        LimitRule rule = LimitRule.fixedWindow("rate:limit:hot", 40, 1, TimeUnit.HOURS);
+
+        int rejected = 0;
+        for (int i = 0; i < 50; i++) {
+            if (heavyHitters.throttle(rule)) {
+                rejected++;
+            }
+        }
+
+        // Calls 1-9: not heavy yet; calls 10-29: this node's 20 of 40; the rest are throttled
+        assertThat(rejected).isEqualTo(21);
+        assertThat(heavyHitters.getThrottledCalls()).isEqualTo(21);
+    }
+
+    @Test
+    @DisplayName("Without throttle, heavy hitters are only reported")
+    void reportsOnlyByDefault() {
+        HeavyHitters heavyHitters = heavyHitters();
+        LimitRule rule = LimitRule.fixedWindow("rate:limit:hot", 1, 60);
+
+        for (int i = 0; i < 500; i++) {
+            assertThat(heavyHitters.throttle(rule)).isFalse();
+        }
+        assertThat(heavyHitters.getHeavyHitters()).extracting(HeavyHitters.HeavyHitter::key)
+                .containsExactly("rate:limit:hot");
+    }
+
+    @Test
+    @DisplayName("A threshold outside (0, 1] fails at startup")
+    void invalidThreshold_throws() {
+        properties.getHeavyHitters().setThreshold(0);
+
+        assertThatThrownBy(this::heavyHitters)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("rate-limiter.heavy-hitters")
+                .hasMessageContaining("threshold");
+    }
+}
@@ -0,0 +1,139 @@
+package com.ratelimiter.io;
+
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.RateLimitResult;
+import com.ratelimiter.service.RateLimitService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * BandwidthLimiter unit tests—chunked leasing, pacing, partial leases, waiting for a reset and concurrent waits.
+ */
+class BandwidthLimiterTest {
+
+    // 1 MB per second: one byte per microsecond
+    private static final LimitRule RULE = LimitRule.tokenBucket("rate:bytes:download", 1_000_000, 1, TimeUnit.SECONDS);
+    private static final Answer<RateLimitResult> ALLOW = invocation -> RateLimitResult.of(true, invocation.getArgument(0));
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Long> pauses = new ArrayList<>();
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = mock(RateLimitService.class);
+    }
+
+    // Sleeping moves the fake clock on
+    private BandwidthLimiter limiter() {
+        return new BandwidthLimiter(rateLimitService, RULE, 50_000, now::get, nanos -> {
+            pauses.add(nanos);
+            now.addAndGet(nanos);
+        });
+    }
+
+    private List<Long> leasedCosts(int calls) {
+        ArgumentCaptor<LimitRule> leases = ArgumentCaptor.forClass(LimitRule.class);
+        verify(rateLimitService, times(calls)).acquire(leases.capture());
+        return leases.getAllValues().stream().map(LimitRule::cost).toList();
+    }
+
+    @Test
+    @DisplayName("Small writes share a leased chunk and are paced at the limit after a one-chunk burst")
+    void leasesAndPacesChunks() throws InterruptedIOException {
+        when(rateLimitService.acquire(any())).thenAnswer(ALLOW);
+        BandwidthLimiter limiter = limiter();
+
+        for (int i = 0; i < 200; i++) {
+            limiter.acquire(1_000);
+        }
+
+        // One Redis call per 50 KB chunk, not per write
+        assertThat(leasedCosts(4)).containsOnly(50_000L);
+        // 200 KB at 1 MB/s, less the 50 KB burst: 150ms
+        assertThat(now.get()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    @DisplayName("Fewer permits left than a chunk: those are leased; none left: waits for the reported reset")
+    void partialLeaseThenReset() throws InterruptedIOException {
+        when(rateLimitService.acquire(any()))
+                .thenReturn(new RateLimitResult(false, 0, 1_000_000, 20_000, 400))
+                .thenAnswer(ALLOW)
+                .thenReturn(new RateLimitResult(false, 0, 1_000_000, 0, 700))
+                .thenAnswer(ALLOW);
+        BandwidthLimiter limiter = limiter();
+
+        limiter.acquire(30_000);
+
+        assertThat(leasedCosts(4)).containsExactly(50_000L, 20_000L, 50_000L, 50_000L);
+        assertThat(pauses).contains(TimeUnit.MILLISECONDS.toNanos(700));
+    }
+
+    @Test
+    @DisplayName("Interrupted while waiting: InterruptedIOException with the interrupt flag kept")
+    void interrupted() {
+        when(rateLimitService.acquire(any())).thenReturn(new RateLimitResult(false, 0, 1_000_000, 0, 100));
+        BandwidthLimiter limiter = new BandwidthLimiter(rateLimitService, RULE, 50_000, now::get, nanos -> {
+            throw new InterruptedException();
+        });
+
+        assertThatThrownBy(() -> limiter.acquire(1)).isInstanceOf(InterruptedIOException.class);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("A thread waiting out its pacing does not block other threads")
+    void pacingWaitOutsideLock() throws Exception {
+        when(rateLimitService.acquire(any())).thenAnswer(ALLOW);
+        CountDownLatch asleep = new CountDownLatch(1);
+        CountDownLatch wake = new CountDownLatch(1);
+        BandwidthLimiter limiter = new BandwidthLimiter(rateLimitService, RULE, 50_000, () -> 0L, nanos -> {
+            if (Thread.currentThread().getName().equals("sleeper")) {
+                asleep.countDown();
+                wake.await();
+            }
+        });
+        // A burst of one chunk, then 10 KB paced: the sleeper waits holding no lock
+        Thread sleeper = new Thread(() -> {
+            try {
+                limiter.acquire(60_000);
+            } catch (InterruptedIOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, "sleeper");
+        sleeper.start();
+        assertThat(asleep.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire(1_000);
+            } catch (InterruptedIOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        wake.countDown();
+        sleeper.join();
+        assertThat(leasedCosts(2)).containsOnly(50_000L);
+    }
+}
@@ -0,0 +1,121 @@
+package com.ratelimiter.io;
+
+import com.ratelimiter.service.LimitRule;
+import com.ratelimiter.service.RateLimitResult;
+import com.ratelimiter.service.RateLimitService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throttled stream and channel unit tests—chunked pieces, pass-through of data and short channel writes.
+ */
+class ThrottledStreamsTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private RateLimitService rateLimitService;
+    private BandwidthLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = mock(RateLimitService.class);
+        when(rateLimitService.acquire(any())).thenAnswer(invocation -> RateLimitResult.of(true, invocation.getArgument(0)));
+        LimitRule rule = LimitRule.tokenBucket("rate:bytes:upload", 1_000, 1, TimeUnit.SECONDS);
+        limiter = new BandwidthLimiter(rateLimitService, rule, 100, now::get, now::addAndGet);
+    }
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    @Test
+    @DisplayName("OutputStream: a large write reaches the stream in chunk-sized pieces")
+    void outputStream_writesChunks() throws IOException {
+        List<Integer> pieces = new ArrayList<>();
+        ByteArrayOutputStream sink = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                pieces.add(len);
+                super.write(b, off, len);
+            }
+        };
+
+        try (ThrottledOutputStream out = new ThrottledOutputStream(sink, limiter)) {
+            out.write(data(250));
+        }
+
+        assertThat(pieces).containsExactly(100, 100, 50);
+        assertThat(sink.toByteArray()).isEqualTo(data(250));
+        verify(rateLimitService, times(3)).acquire(any());
+    }
+
+    @Test
+    @DisplayName("InputStream: data passes through unchanged and every byte read is paid for")
+    void inputStream_roundTrip() throws IOException {
+        try (InputStream in = new ThrottledInputStream(new ByteArrayInputStream(data(250)), limiter)) {
+            assertThat(in.readAllBytes()).isEqualTo(data(250));
+        }
+
+        verify(rateLimitService, times(3)).acquire(any());
+        // 250 bytes at 1000 per second, less the 100-byte burst
+        assertThat(now.get()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    @DisplayName("Channel: a short write returns early, restores the buffer limit and keeps the unwritten permits")
+    void channel_shortWrite() throws IOException {
+        // Accepts 300 bytes, then is full
+        WritableByteChannel channel = new WritableByteChannel() {
+            private int capacity = 300;
+
+            @Override
+            public int write(ByteBuffer src) {
+                int written = Math.min(src.remaining(), capacity);
+                src.position(src.position() + written);
+                capacity -= written;
+                return written;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        ByteBuffer buffer = ByteBuffer.wrap(data(500));
+
+        int written = new ThrottledWritableByteChannel(channel, limiter).write(buffer);
+
+        assertThat(written).isEqualTo(300);
+        assertThat(buffer.position()).isEqualTo(300);
+        assertThat(buffer.limit()).isEqualTo(500);
+        // The fourth chunk was leased but not written: it pays for the next 100 bytes without another call
+        limiter.acquire(100);
+        verify(rateLimitService, times(4)).acquire(any());
+    }
+}
@@ -0,0 +1,155 @@
+package com.ratelimiter.loadtest;
+
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.annotation.FailurePolicy;
+import com.ratelimiter.annotation.KeyLayout;
+import com.ratelimiter.config.RedisConfig;
+import com.ratelimiter.service.LimitRule;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Redis memory per tracked caller for each KeyLayout—fills an empty database with one live fixed-window counter
+ * per entity through the real scripts and reports the used_memory growth divided by the entity count.
+ * <p>
+ * STANDARD stores one string per entity under the full "rate:limit:" + class and method key; COMPACT is measured
+ * with about 64 entities per hash (listpack encoding) and about 1024 (hashtable encoding). COMPACT needs
+ * Redis 7.4+ for HPEXPIRE and is reported as unsupported on older servers.
+ */
+public class FootprintReport {
+
+    private static final String KEY = "rate:limit:com.example.account.web.AccountController.getProfile";
+    private static final int BATCH = 1_000;
+
+    /**
+     * System properties (defaults in brackets): footprint.entities [200000], footprint.database [15],
+     * footprint.report [target/footprint-report.csv], redis.host [localhost], redis.port [6379].
+     * The database must be empty; it is flushed between layouts and left empty.
+     */
+    public static void main(String[] args) throws IOException {
+        int entities = Integer.getInteger("footprint.entities", 200_000);
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379));
+        configuration.setDatabase(Integer.getInteger("footprint.database", 15));
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redis = new StringRedisTemplate(connectionFactory);
+
+        Long existing = redis.execute((RedisCallback<Long>) connection -> connection.serverCommands().dbSize());
+        if (existing != null && existing > 0) {
+            connectionFactory.destroy();
+            throw new IllegalStateException("Database " + configuration.getDatabase() + " holds " + existing
+                    + " keys; pick an empty one with -Dfootprint.database");
+        }
+        try {
+            RedisConfig scripts = new RedisConfig();
+            List<String> rows = new ArrayList<>();
+            rows.add("layout,buckets,entities,redis_keys,used_memory_bytes,bytes_per_entity,sample_key,sample_field");
+            System.out.printf(Locale.ROOT, "%-9s %8s %9s %9s %12s %10s  %s%n",
+                    "layout", "buckets", "entities", "keys", "memory", "B/entity", "sample");
+
+            rows.add(measure(redis, scripts.limitScript(), KeyLayout.STANDARD, 0, entities));
+            for (int perBucket : new int[]{64, 1024}) {
+                rows.add(measure(redis, scripts.compactLimitScript(), KeyLayout.COMPACT,
+                        Math.max(1, entities / perBucket), entities));
+            }
+            writeReport(new File(System.getProperty("footprint.report", "target/footprint-report.csv")), rows);
+        } finally {
+            flush(redis);
+            connectionFactory.destroy();
+        }
+    }
+
+    private static String measure(StringRedisTemplate redis, DefaultRedisScript<List<Long>> script,
+                                  KeyLayout layout, int buckets, int entities) {
+        // One hour window: every counter stays live while memory is measured
+        LimitRule base = LimitRule.of(KEY, 100, 3_600_000, Algorithm.FIXED_WINDOW)
+                .withFailurePolicy(FailurePolicy.FAIL_OPEN, -1)
+                .withLayout(layout, buckets);
+        String bucketColumn = layout == KeyLayout.COMPACT ? String.valueOf(buckets) : "";
+        flush(redis);
+        long before = usedMemory(redis);
+        String sha = script.getSha1();
+        redis.execute((RedisCallback<String>) connection ->
+                connection.scriptingCommands().scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+        try {
+            for (int from = 0; from < entities; from += BATCH) {
+                int to = Math.min(entities, from + BATCH);
+                int first = from;
+                redis.executePipelined((RedisCallback<Object>) connection -> {
+                    for (int i = first; i < to; i++) {
+                        LimitRule rule = base.withEntity("user-" + i);
+                        byte[][] keysAndArgs = rule.isCompact()
+                                ? bytes(rule.hashKey(), rule.field(), rule.limitArg(), rule.windowArg())
+                                : bytes(rule.key(), rule.limitArg(), rule.windowArg());
+                        connection.scriptingCommands().evalSha(sha, ReturnType.MULTI, 1, keysAndArgs);
+                    }
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            if (layout == KeyLayout.COMPACT) {
+                System.out.printf(Locale.ROOT, "%-9s unsupported by this Redis (HPEXPIRE needs 7.4+): %s%n",
+                        layout, e.getMessage());
+                return String.join(",", layout.name(), bucketColumn, String.valueOf(entities), "", "", "", "", "");
+            }
+            throw e;
+        }
+
+        long used = usedMemory(redis) - before;
+        Long keys = redis.execute((RedisCallback<Long>) connection -> connection.serverCommands().dbSize());
+        LimitRule sample = base.withEntity("user-0");
+        String sampleKey = sample.isCompact() ? sample.hashKey() : sample.key();
+        double perEntity = (double) used / entities;
+        System.out.printf(Locale.ROOT, "%-9s %8s %9d %9d %12d %10.1f  %s%s%n",
+                layout, bucketColumn, entities, keys, used, perEntity, sampleKey,
+                sample.isCompact() ? " / " + sample.field() : "");
+        return String.join(",", layout.name(), bucketColumn, String.valueOf(entities), String.valueOf(keys),
+                String.valueOf(used), String.format(Locale.ROOT, "%.1f", perEntity), sampleKey,
+                sample.isCompact() ? sample.field() : "");
+    }
+
+    private static byte[][] bytes(String... values) {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    private static long usedMemory(StringRedisTemplate redis) {
+        Properties memory = redis.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("memory"));
+        return Long.parseLong(memory.getProperty("used_memory").trim());
+    }
+
+    private static void flush(StringRedisTemplate redis) {
+        redis.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+
+    private static void writeReport(File file, List<String> rows) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            rows.forEach(writer::println);
+        }
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,122 @@
+package com.ratelimiter.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Open-model load generator—requests start on a fixed schedule (constant or Poisson arrivals) whether or not
+ * earlier ones have completed, so a slow limiter shows up as latency instead of as a lower offered rate.
+ * Latency is measured from each request's scheduled start, which avoids coordinated omission.
+ * Requests are spread round-robin across the nodes.
+ */
+class LoadGenerator {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<String> baseUrls;
+    private final boolean poisson;
+
+    LoadGenerator(List<String> baseUrls, boolean poisson) {
+        this.baseUrls = baseUrls;
+        this.poisson = poisson;
+    }
+
+    /**
+     * @param pathOf   Path of the i-th request
+     * @param rate     Offered requests per second across all nodes
+     * @param duration How long to keep offering load
+     */
+    Result run(LongFunction<String> pathOf, int rate, Duration duration) {
+        int total = (int) (rate * duration.toMillis() / 1000);
+        long[] latencies = new long[total];
+        AtomicInteger allowed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[total];
+
+        double meanIntervalNanos = 1e9 / rate;
+        long start = System.nanoTime();
+        double offset = 0;
+        for (int i = 0; i < total; i++) {
+            long scheduled = start + (long) offset;
+            offset += poisson
+                    ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos
+                    : meanIntervalNanos;
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int index = i;
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create(baseUrls.get(i % baseUrls.size()) + pathOf.apply(i)))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - scheduled;
+                        if (error != null) {
+                            errors.incrementAndGet();
+                        } else if (response.statusCode() == 200) {
+                            allowed.incrementAndGet();
+                        } else if (response.statusCode() == 429) {
+                            rejected.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    });
+        }
+        try {
+            CompletableFuture.allOf(responses).exceptionally(error -> null).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Responses still outstanding 30s after the load stopped", e);
+        }
+        return new Result(total, allowed.get(), rejected.get(), errors.get(), latencies);
+    }
+
+    /**
+     * Outcome of one run—latencies in nanoseconds, sorted.
+     */
+    static final class Result {
+
+        final int sent;
+        final int allowed;
+        final int rejected;
+        final int errors;
+        private final long[] latencies;
+
+        Result(int sent, int allowed, int rejected, int errors, long[] latencies) {
+            this.sent = sent;
+            this.allowed = allowed;
+            this.rejected = rejected;
+            this.errors = errors;
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+        }
+
+        /**
+         * @param quantile e.g. 0.99
+         * @return Latency at that quantile in microseconds
+         */
+        double percentileMicros(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ratelimiter.loadtest;
+
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.annotation.RateLimit;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Load test endpoints—one per limiting mode, all limited to {@link #LIMIT} calls per {@link #PERIOD} second(s).
+ * Only active under the "loadtest" profile, which LoadTestHarness sets on every node it starts.
+ */
+@Profile("loadtest")
+@RestController
+@RequestMapping("/load")
+public class LoadTestController {
+
+    static final int LIMIT = 100;
+    static final int PERIOD = 1;
+
+    /**
+     * No limit—reference latency for "added by the aspects".
+     */
+    @GetMapping("/baseline")
+    public String baseline() {
+        return "ok";
+    }
+
+    @GetMapping("/fixed-window")
+    @RateLimit(count = LIMIT, time = PERIOD)
+    public String fixedWindow() {
+        return "ok";
+    }
+
+    @GetMapping("/sliding-window")
+    @RateLimit(count = LIMIT, time = PERIOD, algorithm = Algorithm.SLIDING_WINDOW_COUNTER)
+    public String slidingWindow() {
+        return "ok";
+    }
+
+    @GetMapping("/token-bucket")
+    @RateLimit(count = LIMIT, time = PERIOD, algorithm = Algorithm.TOKEN_BUCKET)
+    public String tokenBucket() {
+        return "ok";
+    }
+
+    @GetMapping("/gcra")
+    @RateLimit(count = LIMIT, time = PERIOD, algorithm = Algorithm.GCRA)
+    public String gcra() {
+        return "ok";
+    }
+
+    /**
+     * Two limits checked in one multi_limit.lua call; the hourly one never binds.
+     */
+    @GetMapping("/combined")
+    @RateLimit(count = LIMIT, time = PERIOD)
+    @RateLimit(key = "rate:hourly:", count = 1_000_000, time = 3600)
+    public String combined() {
+        return "ok";
+    }
+
+    /**
+     * One limit per key request parameter.
+     */
+    @GetMapping("/per-key")
+    @RateLimit(count = LIMIT, time = PERIOD, keyExpression = "#key")
+    public String perKey(@RequestParam String key) {
+        return "ok";
+    }
+
+    @GetMapping("/leased")
+    @RateLimit(count = LIMIT, time = PERIOD, leaseSize = 10, leaseMaxStalenessMillis = 200)
+    public String leased() {
+        return "ok";
+    }
+
+    @GetMapping("/coalesced")
+    @RateLimit(count = LIMIT, time = PERIOD, coalesceMicros = 500)
+    public String coalesced() {
+        return "ok";
+    }
+}
@@ -0,0 +1,246 @@
+package com.ratelimiter.loadtest;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Multi-node accuracy and throughput harness—starts N nodes against one local Redis, offers open-model load
+ * to each limiting mode in turn and reports:
+ * <ul>
+ *     <li>allowed vs limit: admitted calls against the most a correct limiter may admit, limit × keys × (1 + duration / period)</li>
+ *     <li>p50/p99/p999 latency, and how much of it the aspects add over the unlimited baseline endpoint</li>
+ *     <li>Redis commands per request, from INFO stats total_commands_processed</li>
+ * </ul>
+ * Configured with system properties, see {@link #main}. Started by the "loadtest" Maven profile.
+ */
+public class LoadTestHarness {
+
+    /**
+     * Limiting modes, one LoadTestController endpoint each.
+     */
+    enum Mode {
+        BASELINE("/load/baseline", 0),
+        FIXED_WINDOW("/load/fixed-window", 1),
+        SLIDING_WINDOW("/load/sliding-window", 1),
+        TOKEN_BUCKET("/load/token-bucket", 1),
+        GCRA("/load/gcra", 1),
+        COMBINED("/load/combined", 1),
+        PER_KEY("/load/per-key?key=user-", 10),
+        LEASED("/load/leased", 1),
+        COALESCED("/load/coalesced", 1);
+
+        final String path;
+        final int keys;
+
+        Mode(String path, int keys) {
+            this.path = path;
+            this.keys = keys;
+        }
+
+        LongFunction<String> pathOf() {
+            return keys > 1 ? i -> path + (i % keys) : i -> path;
+        }
+    }
+
+    /**
+     * System properties (defaults in brackets): loadtest.nodes [3], loadtest.forked [false], loadtest.rate
+     * requests/s over all nodes [1000], loadtest.duration seconds per mode [10], loadtest.warmup seconds per mode [2],
+     * loadtest.arrivals poisson|constant [poisson], loadtest.modes comma-separated Mode names [all],
+     * loadtest.args extra node arguments, loadtest.report [target/loadtest-report.csv], redis.host [localhost],
+     * redis.port [6379]. When nothing listens on the Redis port, redis-server is started from the PATH.
+     */
+    public static void main(String[] args) throws Exception {
+        int nodeCount = Integer.getInteger("loadtest.nodes", 3);
+        boolean forked = Boolean.getBoolean("loadtest.forked");
+        int rate = Integer.getInteger("loadtest.rate", 1000);
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 10));
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 2));
+        boolean poisson = !"constant".equals(System.getProperty("loadtest.arrivals", "poisson"));
+        List<Mode> modes = modes(System.getProperty("loadtest.modes", ""));
+        String host = System.getProperty("redis.host", "localhost");
+        int port = Integer.getInteger("redis.port", 6379);
+
+        Process redisServer = reachable(host, port) ? null : startRedisServer(host, port);
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redis = new StringRedisTemplate(connectionFactory);
+
+        List<String> nodeArgs = new ArrayList<>(List.of(
+                "--spring.profiles.active=loadtest",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.data.redis.host=" + host,
+                "--spring.data.redis.port=" + port,
+                "--rate-limiter.estimated-nodes=" + nodeCount));
+        String extraArgs = System.getProperty("loadtest.args", "").trim();
+        if (!extraArgs.isEmpty()) {
+            nodeArgs.addAll(Arrays.asList(extraArgs.split("\\s+")));
+        }
+
+        List<LoadTestNode> nodes = new ArrayList<>();
+        try {
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add(forked ? LoadTestNode.forked(nodeArgs) : LoadTestNode.inProcess(nodeArgs));
+            }
+            LoadGenerator generator = new LoadGenerator(nodes.stream().map(LoadTestNode::baseUrl).toList(), poisson);
+            System.out.printf(Locale.ROOT, "%d %s nodes, %d req/s %s arrivals, %ds per mode, limit %d per %ds per key%n",
+                    nodeCount, forked ? "forked" : "in-process", rate, poisson ? "Poisson" : "constant",
+                    duration.toSeconds(), LoadTestController.LIMIT, LoadTestController.PERIOD);
+
+            for (Mode mode : modes) {
+                clearKeys(redis);
+                generator.run(mode.pathOf(), rate, warmup);
+            }
+
+            List<String> rows = new ArrayList<>();
+            rows.add("mode,sent,allowed,bound,error_pct,rejected,errors,p50_us,p99_us,p999_us,"
+                    + "added_p50_us,added_p99_us,added_p999_us,redis_ops_per_request");
+            System.out.printf(Locale.ROOT, "%-15s %7s %7s %7s %8s %9s %9s %9s %11s %11s %11s %9s%n",
+                    "mode", "sent", "allowed", "bound", "error", "p50 us", "p99 us", "p999 us",
+                    "+p50 us", "+p99 us", "+p999 us", "redis/req");
+            LoadGenerator.Result baseline = null;
+            for (Mode mode : modes) {
+                clearKeys(redis);
+                long commandsBefore = commandsProcessed(redis);
+                LoadGenerator.Result result = generator.run(mode.pathOf(), rate, duration);
+                double redisOps = (double) (commandsProcessed(redis) - commandsBefore - 1) / result.sent;
+                if (mode == Mode.BASELINE) {
+                    baseline = result;
+                }
+
+                long bound = (long) (LoadTestController.LIMIT * mode.keys
+                        * (1 + (double) duration.toSeconds() / LoadTestController.PERIOD));
+                String error = mode.keys == 0 ? "-"
+                        : String.format(Locale.ROOT, "%+.2f", 100.0 * (result.allowed - bound) / bound);
+                double[] added = added(result, baseline);
+                System.out.printf(Locale.ROOT, "%-15s %7d %7d %7s %7s%% %9.0f %9.0f %9.0f %11s %11s %11s %9.2f%n",
+                        mode, result.sent, result.allowed, mode.keys == 0 ? "-" : bound, error,
+                        result.percentileMicros(0.5), result.percentileMicros(0.99), result.percentileMicros(0.999),
+                        format(added[0]), format(added[1]), format(added[2]), redisOps);
+                if (result.errors > 0) {
+                    System.out.printf("%-15s %d requests failed (connection error or unexpected status)%n",
+                            "", result.errors);
+                }
+                rows.add(String.join(",", mode.name(), String.valueOf(result.sent), String.valueOf(result.allowed),
+                        mode.keys == 0 ? "" : String.valueOf(bound), "-".equals(error) ? "" : error,
+                        String.valueOf(result.rejected), String.valueOf(result.errors),
+                        format(result.percentileMicros(0.5)), format(result.percentileMicros(0.99)),
+                        format(result.percentileMicros(0.999)), format(added[0]), format(added[1]), format(added[2]),
+                        String.format(Locale.ROOT, "%.3f", redisOps)));
+            }
+            writeReport(new File(System.getProperty("loadtest.report", "target/loadtest-report.csv")), rows);
+        } finally {
+            nodes.forEach(LoadTestNode::close);
+            clearKeys(redis);
+            connectionFactory.destroy();
+            if (redisServer != null) {
+                redisServer.destroy();
+            }
+        }
+    }
+
+    private static List<Mode> modes(String names) {
+        List<Mode> modes = new ArrayList<>();
+        modes.add(Mode.BASELINE);
+        if (names.isBlank()) {
+            modes.addAll(Arrays.asList(Mode.values()).subList(1, Mode.values().length));
+            return modes;
+        }
+        for (String name : names.split(",")) {
+            Mode mode = Mode.valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            if (mode != Mode.BASELINE) {
+                modes.add(mode);
+            }
+        }
+        return modes;
+    }
+
+    /**
+     * Percentiles minus the baseline's—NaN for the baseline itself.
+     */
+    private static double[] added(LoadGenerator.Result result, LoadGenerator.Result baseline) {
+        if (baseline == null || result == baseline) {
+            return new double[]{Double.NaN, Double.NaN, Double.NaN};
+        }
+        return new double[]{
+                result.percentileMicros(0.5) - baseline.percentileMicros(0.5),
+                result.percentileMicros(0.99) - baseline.percentileMicros(0.99),
+                result.percentileMicros(0.999) - baseline.percentileMicros(0.999)};
+    }
+
+    private static String format(double micros) {
+        return Double.isNaN(micros) ? "-" : String.format(Locale.ROOT, "%.0f", micros);
+    }
+
+    private static long commandsProcessed(StringRedisTemplate redis) {
+        Properties stats = redis.execute((RedisCallback<Properties>) connection -> connection.serverCommands().info("stats"));
+        return Long.parseLong(stats.getProperty("total_commands_processed").trim());
+    }
+
+    /**
+     * Remove the load test's limit keys so every mode starts from empty windows.
+     */
+    private static void clearKeys(StringRedisTemplate redis) {
+        Set<String> keys = redis.keys("*" + LoadTestController.class.getName() + "*");
+        if (keys != null && !keys.isEmpty()) {
+            redis.delete(keys);
+        }
+    }
+
+    private static boolean reachable(String host, int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), 500);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Process startRedisServer(String host, int port) throws InterruptedException {
+        Process process;
+        try {
+            process = new ProcessBuilder("redis-server", "--port", String.valueOf(port),
+                    "--save", "", "--appendonly", "no")
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+        } catch (IOException e) {
+            throw new IllegalStateException("No Redis on " + host + ":" + port + " and no redis-server on the PATH", e);
+        }
+        for (int i = 0; i < 50 && !reachable(host, port); i++) {
+            Thread.sleep(100);
+        }
+        if (!reachable(host, port)) {
+            process.destroy();
+            throw new IllegalStateException("No Redis on " + host + ":" + port + " and redis-server did not start");
+        }
+        return process;
+    }
+
+    private static void writeReport(File file, List<String> rows) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            rows.forEach(writer::println);
+        }
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+}
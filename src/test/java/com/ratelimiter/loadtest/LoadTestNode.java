@@ -0,0 +1,115 @@
+package com.ratelimiter.loadtest;
+
+import com.ratelimiter.RateLimiterApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One RateLimiterApplication instance under load—either a Spring context in this JVM or a separate JVM,
+ * listening on a random port.
+ */
+interface LoadTestNode extends AutoCloseable {
+
+    String baseUrl();
+
+    @Override
+    void close();
+
+    /**
+     * Start a node in this JVM—cheap, but nodes share the JIT, GC and CPU with the load generator.
+     */
+    static LoadTestNode inProcess(List<String> args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RateLimiterApplication.class)
+                .run(with(args, "--server.port=0"));
+        String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        return new LoadTestNode() {
+            @Override
+            public String baseUrl() {
+                return url;
+            }
+
+            @Override
+            public void close() {
+                context.close();
+            }
+        };
+    }
+
+    /**
+     * Start a node as a separate JVM on this JVM's classpath; its output goes to target/loadtest-node-&lt;port&gt;.log.
+     */
+    static LoadTestNode forked(List<String> args) throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                RateLimiterApplication.class.getName()));
+        command.addAll(List.of(with(args, "--server.port=" + port)));
+        File log = new File("target/loadtest-node-" + port + ".log");
+        log.getParentFile().mkdirs();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+
+        String url = "http://localhost:" + port;
+        LoadTestNode node = new LoadTestNode() {
+            @Override
+            public String baseUrl() {
+                return url;
+            }
+
+            @Override
+            public void close() {
+                process.destroy();
+                try {
+                    process.waitFor(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                process.destroyForcibly();
+            }
+        };
+        awaitHealthy(node, process, log);
+        return node;
+    }
+
+    private static void awaitHealthy(LoadTestNode node, Process process, File log) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(node.baseUrl() + "/actuator/health")).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Node exited during startup, see " + log.getAbsolutePath());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(200);
+        }
+        node.close();
+        throw new IllegalStateException("Node not healthy after 60s, see " + log.getAbsolutePath());
+    }
+
+    private static String[] with(List<String> args, String extra) {
+        List<String> all = new ArrayList<>(args);
+        all.add(extra);
+        return all.toArray(new String[0]);
+    }
+}
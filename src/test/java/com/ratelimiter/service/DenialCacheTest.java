@@ -0,0 +1,54 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DenialCache unit tests—local rejections and bounded eviction.
+ */
+class DenialCacheTest {
+
+    private final RateLimiterProperties properties = new RateLimiterProperties();
+
+    @Test
+    @DisplayName("A denied key is rejected locally until its window resets")
+    void deny_rejectsLocally() throws InterruptedException {
+        DenialCache cache = new DenialCache(properties);
+
+        cache.deny("k", 20);
+        cache.deny("unknown", 0);
+
+        assertThat(cache.deniedMillis("k")).isBetween(1L, 20L);
+        assertThat(cache.isDenied("unknown")).isFalse();
+        Thread.sleep(30);
+        assertThat(cache.isDenied("k")).isFalse();
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Full of live denials: a batch ending soonest is evicted, then new keys fit without evicting")
+    void full_evictsBatchEndingSoonest() {
+        properties.setDenialCacheMaxKeys(20);
+        DenialCache cache = new DenialCache(properties);
+        for (int i = 0; i < 20; i++) {
+            cache.deny("user-" + i, 60_000 + i * 1_000L);
+        }
+
+        cache.deny("new-0", 120_000);
+
+        // A tenth of the keys made room: the two ending soonest
+        assertThat(cache.size()).isEqualTo(19);
+        assertThat(cache.isDenied("user-0")).isFalse();
+        assertThat(cache.isDenied("user-1")).isFalse();
+        assertThat(cache.isDenied("user-2")).isTrue();
+        assertThat(cache.isDenied("new-0")).isTrue();
+
+        cache.deny("new-1", 120_000);
+
+        assertThat(cache.size()).isEqualTo(20);
+        assertThat(cache.isDenied("user-2")).isTrue();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ratelimiter.service;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test fixture—a mocked template emulating acquire.lua atomically on a shared counter, with a small RTT, for the
+ * leasing and coalescing tests. The emulated window does not reset during a test: each reply reports the whole
+ * window as its remaining time.
+ */
+final class EmulatedAcquireScript {
+
+    private EmulatedAcquireScript() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static DefaultRedisScript<List<Long>> script() {
+        return new DefaultRedisScript<>("acquire", (Class<List<Long>>) (Class<?>) List.class);
+    }
+
+    /**
+     * @param counter    Permits counted in the emulated window
+     * @param redisCalls Incremented on every script call
+     */
+    static StringRedisTemplate redis(AtomicLong counter, AtomicInteger redisCalls) {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenAnswer(invocation -> {
+            redisCalls.incrementAndGet();
+            Thread.sleep(1);
+            long limit = Long.parseLong(invocation.getArgument(2));
+            long window = Long.parseLong(invocation.getArgument(3));
+            long requested = Long.parseLong(invocation.getArgument(4));
+            synchronized (counter) {
+                long granted = Math.min(requested, limit - counter.get());
+                if (granted <= 0) {
+                    return List.of(0L, window);
+                }
+                counter.addAndGet(granted);
+                return List.of(granted, window);
+            }
+        });
+        return redisTemplate;
+    }
+}
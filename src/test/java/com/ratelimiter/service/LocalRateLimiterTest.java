@@ -0,0 +1,43 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.config.RateLimiterProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LocalRateLimiter unit tests—per-node share, costed calls and bounded key tracking.
+ */
+class LocalRateLimiterTest {
+
+    private final RateLimiterProperties properties = new RateLimiterProperties();
+
+    @Test
+    @DisplayName("Each node enforces limit / estimatedNodes; a costed call that does not fit takes nothing")
+    void enforcesLocalShare() {
+        properties.setEstimatedNodes(4);
+        LocalRateLimiter limiter = new LocalRateLimiter(properties);
+
+        assertThat(limiter.tryAcquire("k", 10, 60_000, 2)).isTrue();
+        assertThat(limiter.tryAcquire("k", 10, 60_000, 2)).isFalse();
+        assertThat(limiter.tryAcquire("k", 10, 60_000)).isTrue();
+        assertThat(limiter.tryAcquire("k", 10, 60_000)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Full of live keys: the least recently used are evicted, busy keys keep their counts")
+    void full_evictsLeastRecentlyUsed() {
+        properties.setLocalMaxKeys(10);
+        LocalRateLimiter limiter = new LocalRateLimiter(properties);
+        assertThat(limiter.tryAcquire("busy", 2, 60_000)).isTrue();
+        assertThat(limiter.tryAcquire("busy", 2, 60_000)).isTrue();
+
+        // A flood of new keys during an outage, while the busy key keeps calling
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("user-" + i, 2, 60_000);
+            assertThat(limiter.tryAcquire("busy", 2, 60_000)).isFalse();
+            assertThat(limiter.size()).isLessThanOrEqualTo(10);
+        }
+    }
+}
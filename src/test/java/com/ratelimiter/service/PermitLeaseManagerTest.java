@@ -0,0 +1,117 @@
+package com.ratelimiter.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * PermitLeaseManager accuracy-vs-throughput tests—several simulated nodes share one emulated Redis counter.
+ */
+class PermitLeaseManagerTest {
+
+    private static final int LIMIT = 2000;
+    private static final int LEASE_SIZE = 50;
+    private static final int THREADS_PER_NODE = 4;
+
+    @ParameterizedTest(name = "{0} node(s)")
+    @ValueSource(ints = {1, 4, 8})
+    @DisplayName("Leasing never over-admits and cuts Redis round trips")
+    void leasing_accurateAndCheaper(int nodes) throws Exception {
+        Result direct = run(nodes, 1);
+        Result leased = run(nodes, LEASE_SIZE);
+
+        // Accuracy: never above the limit; at most one unused lease per node left behind
+        assertThat(direct.allowed).isEqualTo(LIMIT);
+        assertThat(leased.allowed).isLessThanOrEqualTo(LIMIT);
+        assertThat(leased.allowed).isGreaterThanOrEqualTo(LIMIT - (long) nodes * LEASE_SIZE);
+
+        // Throughput: far fewer round trips than admitted calls
+        assertThat(leased.redisCalls * 5).isLessThan(direct.redisCalls);
+    }
+
+    @Test
+    @DisplayName("A lease ends when its Redis window resets, however long the staleness bound")
+    void lease_expiresWithWindow() throws InterruptedException {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        // 10 permits granted with 5ms left in the window
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenReturn(List.of(10L, 5L));
+        PermitLeaseManager manager = new PermitLeaseManager(redisTemplate, EmulatedAcquireScript.script());
+
+        assertThat(manager.tryAcquire("rate:limit:short", 100, 1_000, 10, 60_000)).isTrue();
+        assertThat(manager.tryAcquire("rate:limit:short", 100, 1_000, 10, 60_000)).isTrue();
+        Thread.sleep(20);
+        assertThat(manager.tryAcquire("rate:limit:short", 100, 1_000, 10, 60_000)).isTrue();
+
+        // The second call was served from the lease, the third found it expired
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(), any(), any());
+    }
+
+    /**
+     * Drive exactly LIMIT attempts through the given number of nodes; each node is its own manager.
+     */
+    private Result run(int nodes, int leaseSize) throws Exception {
+        AtomicLong counter = new AtomicLong();
+        AtomicInteger redisCalls = new AtomicInteger();
+        StringRedisTemplate redisTemplate = EmulatedAcquireScript.redis(counter, redisCalls);
+
+        List<PermitLeaseManager> managers = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            managers.add(new PermitLeaseManager(redisTemplate, EmulatedAcquireScript.script()));
+        }
+
+        int threads = nodes * THREADS_PER_NODE;
+        int attemptsPerThread = LIMIT / threads;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong allowed = new AtomicLong();
+        for (int t = 0; t < threads; t++) {
+            PermitLeaseManager node = managers.get(t % nodes);
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (node.tryAcquire("rate:limit:test", LIMIT, 60_000, leaseSize, 60_000)) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        // Leftover attempts from the integer division go through the first node
+        start.countDown();
+        for (int i = 0; i < LIMIT - attemptsPerThread * threads; i++) {
+            if (managers.get(0).tryAcquire("rate:limit:test", LIMIT, 60_000, leaseSize, 60_000)) {
+                allowed.incrementAndGet();
+            }
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        return new Result(allowed.get(), redisCalls.get());
+    }
+
+    private record Result(long allowed, int redisCalls) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.bulkhead.BulkheadPermit;
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RedisBulkheadService unit tests—lease grant and release, backoff and the local fallback while Redis is down.
+ */
+class RedisBulkheadServiceTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private ObjectProvider<ReactiveStringRedisTemplate> reactiveProvider;
+    private RedisBulkheadService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        reactiveProvider = mock(ObjectProvider.class);
+        RateLimiterProperties properties = new RateLimiterProperties();
+        properties.setEstimatedNodes(2);
+        properties.setRedisTimeoutMillis(200);
+        RateLimiterMetrics metrics = new RateLimiterMetrics(new SimpleMeterRegistry());
+        service = new RedisBulkheadService(redisTemplate, reactiveProvider,
+                new DefaultRedisScript<>("bulkhead", Long.class), new RedisCallGuard(properties, metrics),
+                properties, metrics);
+    }
+
+    @Test
+    @DisplayName("Granted lease is removed from the set when released, once")
+    void granted_releasedWithZrem() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("bulkhead:k")), eq("3"), eq("1000"),
+                anyString())).thenReturn(1L);
+
+        BulkheadPermit permit = service.tryAcquire("bulkhead:k", 3, 1000);
+        permit.release();
+        permit.release();
+
+        assertThat(permit.isGranted()).isTrue();
+        verify(zSetOperations, times(1)).remove(eq("bulkhead:k"), anyString());
+    }
+
+    @Test
+    @DisplayName("Full lease set: rejected")
+    void full_rejected() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString(), anyString(), anyString()))
+                .thenReturn(0L);
+
+        assertThat(service.tryAcquire("bulkhead:k", 3, 1000).isGranted()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Redis unavailable: this node allows maxConcurrent / estimated-nodes, rounded up")
+    void redisDown_localShare() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString(), anyString(), anyString()))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        BulkheadPermit first = service.tryAcquire("bulkhead:k", 3, 1000);
+        BulkheadPermit second = service.tryAcquire("bulkhead:k", 3, 1000);
+        BulkheadPermit third = service.tryAcquire("bulkhead:k", 3, 1000);
+
+        assertThat(first.isGranted()).isTrue();
+        assertThat(second.isGranted()).isTrue();
+        assertThat(third.isGranted()).isFalse();
+        first.release();
+        assertThat(service.tryAcquire("bulkhead:k", 3, 1000).isGranted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("No script reply: treated like unavailable Redis, not as a granted lease")
+    void noReply_localShare() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString(), anyString(), anyString()))
+                .thenReturn(null);
+
+        assertThat(service.tryAcquire("bulkhead:k", 3, 1000).isGranted()).isTrue();
+        assertThat(service.tryAcquire("bulkhead:k", 3, 1000).isGranted()).isTrue();
+        assertThat(service.tryAcquire("bulkhead:k", 3, 1000).isGranted()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Redis misses the budget: local share straight away, and the abandoned lease is removed")
+    @SuppressWarnings("unchecked")
+    void overBudget_localShare() {
+        ReactiveStringRedisTemplate reactive = mock(ReactiveStringRedisTemplate.class);
+        ReactiveZSetOperations<String, String> reactiveZSet = mock(ReactiveZSetOperations.class);
+        when(reactiveProvider.getIfAvailable()).thenReturn(reactive);
+        when(reactive.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.never());
+        when(reactive.opsForZSet()).thenReturn(reactiveZSet);
+        when(reactiveZSet.remove(anyString(), any())).thenReturn(Mono.just(1L));
+
+        assertThat(service.tryAcquire("bulkhead:k", 3, 1000).isGranted()).isTrue();
+        assertThat(service.tryAcquire("bulkhead:k", 3, 1000).isGranted()).isTrue();
+        long start = System.nanoTime();
+        assertThat(service.tryAcquire("bulkhead:k", 3, 1000).isGranted()).isFalse();
+
+        // One 200ms budget, nowhere near the 2s client timeout
+        assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+        verify(reactiveZSet, times(3)).remove(eq("bulkhead:k"), any());
+    }
+
+    @Test
+    @DisplayName("Waiting polls with exponential backoff capped by the deadline")
+    void pollDelay() {
+        assertThat(RedisBulkheadService.pollDelayMillis(0, 1000)).isEqualTo(1);
+        assertThat(RedisBulkheadService.pollDelayMillis(3, 1000)).isEqualTo(8);
+        assertThat(RedisBulkheadService.pollDelayMillis(20, 1000)).isEqualTo(RedisBulkheadService.MAX_POLL_MILLIS);
+        assertThat(RedisBulkheadService.pollDelayMillis(20, 3)).isEqualTo(3);
+    }
+}
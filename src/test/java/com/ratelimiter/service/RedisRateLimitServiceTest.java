@@ -0,0 +1,294 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.annotation.FailurePolicy;
+import com.ratelimiter.annotation.KeyLayout;
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RedisRateLimitService unit tests—blocking, async and reactive paths.
+ */
+class RedisRateLimitServiceTest {
+
+    private final DefaultRedisScript<List<Long>> limitScript = script("limit");
+    private final DefaultRedisScript<List<Long>> slidingWindowScript = script("sliding");
+    private final DefaultRedisScript<List<Long>> tokenBucketScript = script("bucket");
+    private final DefaultRedisScript<List<Long>> gcraScript = script("gcra");
+    private final DefaultRedisScript<List<Long>> multiLimitScript = script("multi");
+    private final DefaultRedisScript<List<Long>> compactLimitScript = script("compact");
+
+    private StringRedisTemplate redisTemplate;
+    private ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private ObjectProvider<ReactiveStringRedisTemplate> reactiveProvider;
+    private DenialCache denialCache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        reactiveRedisTemplate = mock(ReactiveStringRedisTemplate.class);
+        reactiveProvider = mock(ObjectProvider.class);
+        denialCache = new DenialCache(new RateLimiterProperties());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DefaultRedisScript<List<Long>> script(String source) {
+        return new DefaultRedisScript<>(source, (Class<List<Long>>) (Class<?>) List.class);
+    }
+
+    /**
+     * Single-key script reply {allowed, remaining, resetMillis}.
+     */
+    private static List<Long> reply(long allowed, long remaining, long resetMillis) {
+        return List.of(allowed, remaining, resetMillis);
+    }
+
+    /**
+     * Reactive script reply as Lettuce emits it—one element at a time.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Flux<List<Long>> elements(long allowed, long remaining, long resetMillis) {
+        return (Flux) Flux.just(allowed, remaining, resetMillis);
+    }
+
+    private RedisRateLimitService service() {
+        DefaultRedisScript<List<Long>> acquireScript = script("acquire");
+        return new RedisRateLimitService(redisTemplate, reactiveProvider,
+                limitScript, slidingWindowScript, tokenBucketScript, gcraScript, multiLimitScript, compactLimitScript,
+                new PermitLeaseManager(redisTemplate, acquireScript),
+                new RequestCoalescer(redisTemplate, acquireScript),
+                denialCache, new RateLimiterMetrics(meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Blocking tryAcquire evaluates the algorithm's script")
+    void tryAcquire_usesAlgorithmScript() {
+        when(redisTemplate.execute(eq(tokenBucketScript), anyList(), any(), any())).thenReturn(reply(0, 0, 0));
+
+        LimitRule rule = LimitRule.of("rate:limit:k", 5, 60_000, Algorithm.TOKEN_BUCKET);
+        assertThat(service().tryAcquire(rule)).isFalse();
+        assertThat(meterRegistry.get("ratelimiter.redis.script").tag("script", "token_bucket").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Rejection with remaining PTTL is recorded in the denial cache")
+    void rejection_recordsDenial() {
+        when(redisTemplate.execute(eq(limitScript), anyList(), any(), any())).thenReturn(reply(0, 0, 1500));
+
+        RateLimitResult result = service().acquire(LimitRule.fixedWindow("rate:limit:k", 5, 60));
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getResetMillis()).isEqualTo(1500);
+        assertThat(denialCache.isDenied("rate:limit:k")).isTrue();
+        assertThat(denialCache.isDenied("rate:limit:other")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Rejection without a known TTL is not cached")
+    void rejectionWithoutTtl_notCached() {
+        when(redisTemplate.execute(eq(limitScript), anyList(), any(), any())).thenReturn(reply(0, 0, 0));
+
+        assertThat(service().tryAcquire(LimitRule.fixedWindow("rate:limit:k", 5, 60))).isFalse();
+        assertThat(denialCache.isDenied("rate:limit:k")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Admitted call reports remaining permits and reset time from the same script call")
+    void allowed_reportsRemainingAndReset() {
+        when(redisTemplate.execute(eq(limitScript), anyList(), any(), any())).thenReturn(reply(1, 3, 42_000));
+
+        RateLimitResult result = service().acquire(LimitRule.fixedWindow("rate:limit:k", 5, 60));
+
+        assertThat(result.isAllowed()).isTrue();
+        assertThat(result.getLimit()).isEqualTo(5);
+        assertThat(result.getRemaining()).isEqualTo(3);
+        assertThat(result.getResetMillis()).isEqualTo(42_000);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("COMPACT rule: the caller's counter is a field of a short bucket hash, denials cached per caller")
+    void compact_usesHashField() {
+        LimitRule base = LimitRule.of("rate:limit:com.example.Api.get", 5, 60_000, Algorithm.FIXED_WINDOW)
+                .withFailurePolicy(FailurePolicy.FAIL_OPEN, -1)
+                .withLayout(KeyLayout.COMPACT, 16);
+        LimitRule rule = base.withEntity("user-42");
+        when(redisTemplate.execute(eq(compactLimitScript), anyList(), any(), any(), any()))
+                .thenReturn(reply(0, 0, 1500));
+
+        assertThat(service().acquire(rule).isAllowed()).isFalse();
+
+        String prefix = LimitRule.compactPrefix("rate:limit:com.example.Api.get");
+        assertThat(rule.hashKey()).startsWith(prefix + ":").isEqualTo(base.withEntity("user-42").hashKey());
+        assertThat(rule.key()).isEqualTo("rate:limit:com.example.Api.get:user-42");
+        verify(redisTemplate).execute(eq(compactLimitScript), eq(List.of(rule.hashKey())),
+                eq("user-42"), eq("5"), eq("60000"));
+        assertThat(denialCache.deniedMillis(rule.key())).isPositive();
+        assertThat(denialCache.deniedMillis(base.withEntity("user-43").key())).isZero();
+    }
+
+    @Test
+    @DisplayName("tryAcquireAll sends every key and limit in one script call")
+    void tryAcquireAll_singleCall() {
+        when(redisTemplate.execute(eq(multiLimitScript), eq(List.of("rate:{m}:0", "rate:{m}:1")),
+                eq("10"), eq("60000"), eq("100"), eq("3600000"))).thenReturn(List.of(0L, 2L, 0L, 1_000_000L));
+
+        RateLimitResult result = service().acquireAll(List.of(
+                LimitRule.fixedWindow("rate:{m}:0", 10, 60),
+                LimitRule.fixedWindow("rate:{m}:1", 100, 3600)));
+
+        assertThat(result.rejectedIndex()).isEqualTo(1);
+        assertThat(result.getLimit()).isEqualTo(100);
+        assertThat(result.getResetMillis()).isEqualTo(1_000_000L);
+    }
+
+    @Test
+    @DisplayName("A call with a cost sends it as ARGV[3]; rejected with permits left, cheaper calls are not denied")
+    void cost_sentAndPartialRejectionNotCached() {
+        LimitRule rule = LimitRule.fixedWindow("rate:bytes:k", 1_000, 60).withCost(400);
+        when(redisTemplate.execute(eq(limitScript), eq(List.of("rate:bytes:k")), eq("1000"), eq("60000"), eq("400")))
+                .thenReturn(reply(0, 250, 30_000));
+
+        RateLimitResult result = service().acquire(rule);
+
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getRemaining()).isEqualTo(250);
+        assertThat(denialCache.isDenied("rate:bytes:k")).isFalse();
+    }
+
+    @Test
+    @DisplayName("tryAcquireAll with a cost appends every limit's cost after the limit and window pairs")
+    void tryAcquireAll_costsAppended() {
+        when(redisTemplate.execute(eq(multiLimitScript), eq(List.of("rate:{m}:0", "rate:{m}:1")),
+                eq("10000"), eq("60000"), eq("100000"), eq("3600000"), eq("512"), eq("512")))
+                .thenReturn(List.of(1L, 1L, 9_488L, 60_000L));
+
+        RateLimitResult result = service().acquireAll(List.of(
+                LimitRule.fixedWindow("rate:{m}:0", 10_000, 60).withCost(512),
+                LimitRule.fixedWindow("rate:{m}:1", 100_000, 3600).withCost(512)));
+
+        assertThat(result.isAllowed()).isTrue();
+        assertThat(result.getRemaining()).isEqualTo(9_488);
+    }
+
+    @Test
+    @DisplayName("tryAcquireAll returns -1 when every limit admits the call")
+    void tryAcquireAll_allowed() {
+        when(redisTemplate.execute(eq(multiLimitScript), anyList(), any(), any(), any(), any()))
+                .thenReturn(List.of(1L, 1L, 9L, 60_000L));
+
+        assertThat(service().tryAcquireAll(List.of(
+                LimitRule.fixedWindow("rate:{m}:0", 10, 60),
+                LimitRule.fixedWindow("rate:{m}:1", 100, 3600)))).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Async tryAcquireAsync uses reactive commands without touching the blocking template")
+    void tryAcquireAsync_usesReactiveTemplate() throws Exception {
+        when(reactiveProvider.getIfAvailable()).thenReturn(reactiveRedisTemplate);
+        when(reactiveRedisTemplate.execute(eq(limitScript), anyList(), anyList())).thenReturn(elements(1, 4, 60_000));
+
+        assertThat(service().tryAcquireAsync("rate:limit:k", 5, 60).get()).isTrue();
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Reactive rejection: script reply is reassembled from its elements, Mono emits the rejection")
+    void tryAcquireReactive_rejected() {
+        when(reactiveProvider.getIfAvailable()).thenReturn(reactiveRedisTemplate);
+        when(reactiveRedisTemplate.execute(eq(gcraScript), anyList(), anyList())).thenReturn(elements(0, 0, 12_000));
+
+        LimitRule rule = LimitRule.of("rate:limit:k", 5, 60_000, Algorithm.GCRA);
+        RateLimitResult result = service().acquireReactive(rule).block();
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getResetMillis()).isEqualTo(12_000);
+    }
+
+    @Test
+    @DisplayName("Without a reactive connection the async path falls back to the blocking template")
+    void tryAcquireAsync_withoutReactiveTemplate() throws Exception {
+        when(redisTemplate.execute(eq(limitScript), anyList(), any(), any())).thenReturn(reply(1, 4, 60_000));
+
+        assertThat(service().tryAcquireAsync("rate:limit:k", 5, 60).get()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Sharded rule: shard limits add up to the limit, each shard on its own hash slot")
+    void shardedRule_splitsLimit() {
+        LimitRule rule = LimitRule.of("rate:limit:k", 10, 60_000, Algorithm.FIXED_WINDOW).withShards(3);
+
+        assertThat(List.of(rule.shard(0), rule.shard(1), rule.shard(2)))
+                .extracting(LimitRule::key, LimitRule::limit)
+                .containsExactly(tuple("{rate:limit:k:0}", 4), tuple("{rate:limit:k:1}", 3), tuple("{rate:limit:k:2}", 3));
+    }
+
+    @Test
+    @DisplayName("Sharded rule: an exhausted shard borrows from its neighbour")
+    void shardedRule_borrowsFromNeighbour() {
+        when(redisTemplate.execute(eq(limitScript), eq(List.of("{rate:limit:k:0}")), any(), any()))
+                .thenReturn(reply(0, 0, 1000));
+        when(redisTemplate.execute(eq(limitScript), eq(List.of("{rate:limit:k:1}")), any(), any()))
+                .thenReturn(reply(1, 4, 60_000));
+        LimitRule rule = LimitRule.of("rate:limit:k", 10, 60_000, Algorithm.FIXED_WINDOW).withShards(2);
+        RedisRateLimitService service = service();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(service.tryAcquire(rule)).isTrue();
+        }
+        // Shard 0 rejected once, then skipped locally until its window ends
+        verify(redisTemplate, times(1)).execute(eq(limitScript), eq(List.of("{rate:limit:k:0}")), any(), any());
+    }
+
+    @Test
+    @DisplayName("Sharded rule: a blocking call makes at most two script calls however many shards there are")
+    void shardedRule_blockingProbesBounded() {
+        when(redisTemplate.execute(eq(limitScript), anyList(), any(), any())).thenReturn(reply(0, 0, 1000));
+        LimitRule rule = LimitRule.of("rate:limit:k", 64, 60_000, Algorithm.FIXED_WINDOW).withShards(16);
+
+        assertThat(service().tryAcquire(rule)).isFalse();
+        verify(redisTemplate, times(RedisRateLimitService.MAX_SHARD_PROBES))
+                .execute(eq(limitScript), anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Sharded rule: at most two shards evaluated per call; rejected shards are then skipped locally")
+    void shardedRule_probesBounded() {
+        when(reactiveProvider.getIfAvailable()).thenReturn(reactiveRedisTemplate);
+        when(reactiveRedisTemplate.execute(eq(limitScript), anyList(), anyList())).thenReturn(elements(0, 0, 1000));
+        LimitRule rule = LimitRule.of("rate:limit:k", 10, 60_000, Algorithm.FIXED_WINDOW).withShards(4);
+        RedisRateLimitService service = service();
+
+        assertThat(service.tryAcquireReactive(rule).block()).isFalse();
+        verify(reactiveRedisTemplate, times(2)).execute(eq(limitScript), anyList(), anyList());
+        // The next call probes the two shards not yet denied; after that all four are denied locally
+        assertThat(service.tryAcquireReactive(rule).block()).isFalse();
+        assertThat(service.tryAcquireReactive(rule).block()).isFalse();
+        verify(reactiveRedisTemplate, times(4)).execute(eq(limitScript), anyList(), anyList());
+    }
+}
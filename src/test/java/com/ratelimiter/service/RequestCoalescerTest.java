@@ -0,0 +1,90 @@
+package com.ratelimiter.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * RequestCoalescer tests—concurrent callers against one emulated Redis counter.
+ */
+class RequestCoalescerTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Test
+    @DisplayName("Coalesced batches keep the limit exact with far fewer Redis calls")
+    void coalescing_keepsLimitAndCutsRedisCalls() throws Exception {
+        int limit = 1000;
+        AtomicLong counter = new AtomicLong();
+        AtomicInteger redisCalls = new AtomicInteger();
+        RequestCoalescer coalescer = new RequestCoalescer(EmulatedAcquireScript.redis(counter, redisCalls),
+                EmulatedAcquireScript.script());
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong allowed = new AtomicLong();
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        if (coalescer.tryAcquire("rate:limit:hot", limit, 60_000, 200, 64)) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Same outcome as sequential single-permit calls
+        assertThat(allowed.get()).isEqualTo(limit);
+        assertThat(counter.get()).isEqualTo(limit);
+        assertThat(redisCalls.get()).isLessThan(THREADS * ATTEMPTS_PER_THREAD / 4);
+    }
+
+    @Test
+    @DisplayName("Single caller is sent alone once the window ends")
+    void singleCaller_sentAfterWindow() {
+        AtomicInteger redisCalls = new AtomicInteger();
+        RequestCoalescer coalescer = new RequestCoalescer(EmulatedAcquireScript.redis(new AtomicLong(), redisCalls),
+                EmulatedAcquireScript.script());
+
+        assertThat(coalescer.tryAcquire("rate:limit:cold", 1, 60_000, 200, 64)).isTrue();
+        assertThat(coalescer.tryAcquire("rate:limit:cold", 1, 60_000, 200, 64)).isFalse();
+        assertThat(redisCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Redis failure is propagated to the caller")
+    void redisFailure_propagated() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("redis down"));
+        RequestCoalescer coalescer = new RequestCoalescer(redisTemplate, EmulatedAcquireScript.script());
+
+        assertThatThrownBy(() -> coalescer.tryAcquire("rate:limit:down", 10, 60_000, 200, 64))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("redis down");
+    }
+}
@@ -0,0 +1,141 @@
+package com.ratelimiter.service;
+
+import com.ratelimiter.annotation.Algorithm;
+import com.ratelimiter.annotation.FailurePolicy;
+import com.ratelimiter.breaker.CircuitState;
+import com.ratelimiter.config.RateLimiterProperties;
+import com.ratelimiter.metrics.RateLimiterMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ResilientRateLimitService unit tests—denial cache, latency budget, failure policies and the Redis health breaker.
+ */
+class ResilientRateLimitServiceTest {
+
+    private RedisRateLimitService delegate;
+    private DenialCache denialCache;
+    private ResilientRateLimitService service;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(RedisRateLimitService.class);
+        RateLimiterProperties properties = new RateLimiterProperties();
+        properties.setEstimatedNodes(4);
+        properties.getHealth().setMinRequests(4);
+        denialCache = new DenialCache(properties);
+        service = new ResilientRateLimitService(delegate, new LocalRateLimiter(properties), denialCache,
+                new RedisCallGuard(properties, new RateLimiterMetrics(new SimpleMeterRegistry())));
+    }
+
+    private static LimitRule rule(String key, FailurePolicy policy) {
+        return LimitRule.of(key, 10, 60_000, Algorithm.FIXED_WINDOW).withFailurePolicy(policy, -1);
+    }
+
+    @Test
+    @DisplayName("Redis answers within budget: its verdict is used")
+    void withinBudget_usesRedis() {
+        LimitRule rule = rule("k", FailurePolicy.FAIL_OPEN);
+        when(delegate.acquireReactive(any())).thenReturn(Mono.just(RateLimitResult.rejected(rule, 2000)));
+
+        RateLimitResult result = service.acquire(rule);
+        assertThat(result.isAllowed()).isFalse();
+        assertThat(result.getResetMillis()).isEqualTo(2000);
+    }
+
+    @Test
+    @DisplayName("Key in the denial cache: rejected without calling Redis")
+    void deniedKey_skipsRedis() {
+        denialCache.deny("k", 60_000);
+
+        assertThat(service.tryAcquire(rule("k", FailurePolicy.FAIL_OPEN))).isFalse();
+        RateLimitResult result = service.acquireReactive(rule("k", FailurePolicy.FAIL_OPEN)).block();
+        assertThat(result.isAllowed()).isFalse();
+        // Retry-After from the cached rejection, still without Redis
+        assertThat(result.getResetMillis()).isBetween(1L, 60_000L);
+        verify(delegate, never()).acquireReactive(any());
+        assertThat(denialCache.getHits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Redis misses the budget: LOCAL_APPROXIMATE enforces limit / estimatedNodes")
+    void overBudget_localApproximate() {
+        when(delegate.acquireReactive(any())).thenReturn(Mono.never());
+        LimitRule rule = rule("k", FailurePolicy.LOCAL_APPROXIMATE);
+
+        // 10 / 4 nodes = 3 local permits; the first call also pays for warming up the scheduler
+        assertThat(service.tryAcquire(rule)).isTrue();
+        long start = System.nanoTime();
+        assertThat(service.tryAcquire(rule)).isTrue();
+        assertThat(service.tryAcquire(rule)).isTrue();
+        assertThat(service.tryAcquire(rule)).isFalse();
+
+        // Three 5ms budgets, nowhere near the 2s client timeout
+        assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("LOCAL_APPROXIMATE counts a call's cost against the local share")
+    void localApproximate_countsCost() {
+        when(delegate.acquireReactive(any())).thenReturn(Mono.never());
+        LimitRule rule = rule("bytes", FailurePolicy.LOCAL_APPROXIMATE);
+
+        // 3 local permits: a cost of 2 fits once, a single permit still fits after it
+        assertThat(service.tryAcquire(rule.withCost(2))).isTrue();
+        assertThat(service.tryAcquire(rule.withCost(2))).isFalse();
+        assertThat(service.tryAcquire(rule)).isTrue();
+        assertThat(service.tryAcquire(rule)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Redis errors: FAIL_OPEN admits and FAIL_CLOSED rejects")
+    void redisError_appliesPolicy() {
+        when(delegate.acquireReactive(any())).thenReturn(Mono.error(new QueryTimeoutException("timeout")));
+
+        assertThat(service.tryAcquire(rule("k", FailurePolicy.FAIL_OPEN))).isTrue();
+        assertThat(service.tryAcquire(rule("k", FailurePolicy.FAIL_CLOSED))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Unhealthy Redis: breaker opens and later calls skip Redis entirely")
+    void unhealthyRedis_stopsCallingRedis() {
+        when(delegate.acquireReactive(any())).thenReturn(Mono.error(new QueryTimeoutException("timeout")));
+        LimitRule rule = rule("k", FailurePolicy.FAIL_OPEN);
+
+        for (int i = 0; i < 4; i++) {
+            service.tryAcquire(rule);
+        }
+        assertThat(service.getRedisHealth().getState()).isEqualTo(CircuitState.State.OPEN);
+
+        assertThat(service.tryAcquire(rule)).isTrue();
+        assertThat(service.tryAcquire(rule)).isTrue();
+        verify(delegate, times(4)).acquireReactive(any());
+    }
+
+    @Test
+    @DisplayName("Combined limits degrade per rule and report the first local rejection")
+    void combinedLimits_degradePerRule() {
+        when(delegate.acquireAllReactive(any())).thenReturn(Mono.error(new QueryTimeoutException("timeout")));
+
+        int rejectedBy = service.tryAcquireAll(List.of(
+                rule("a", FailurePolicy.FAIL_OPEN),
+                rule("b", FailurePolicy.FAIL_CLOSED)));
+
+        assertThat(rejectedBy).isEqualTo(1);
+        verify(delegate, never()).acquireAll(any());
+    }
+}
@@ -0,0 +1,23 @@
+-- limit.lua before the single-INCR rewrite (window in seconds), kept for LuaScriptBenchmark comparisons
+-- Get key, limit, time window
+-- Returns {allowed (1/0), remaining permits, milliseconds until the window resets (0 if unknown)}
+local key = KEYS[1]
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+
+-- Current request count
+local current = tonumber(redis.call('get', key) or "0")
+
+if current + 1 > limit then
+    -- Reject request: callers may deny the key locally until the window expires
+    return {0, 0, math.max(redis.call('PTTL', key), 0)}
+end
+
+-- Increment count
+current = redis.call("INCRBY", key, 1)
+if current == 1 then
+    -- Set expiry on first request
+    redis.call("EXPIRE", key, window)
+    return {1, limit - 1, window * 1000}
+end
+return {1, limit - current, math.max(redis.call('PTTL', key), 0)} -- Allow request